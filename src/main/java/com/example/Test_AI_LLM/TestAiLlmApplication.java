@@ -1,9 +1,12 @@
 package com.example.Test_AI_LLM;
 
+import com.example.Test_AI_LLM.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class TestAiLlmApplication {
 
 	public static void main(String[] args) {
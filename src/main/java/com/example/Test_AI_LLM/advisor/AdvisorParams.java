@@ -0,0 +1,32 @@
+package com.example.Test_AI_LLM.advisor;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.memory.ChatMemory;
+
+/**
+ * Paramètres de contexte partagés par les advisors de l'application.
+ */
+public final class AdvisorParams {
+
+    /**
+     * Endpoint HTTP à l'origine de l'appel, utilisé comme tag des métriques.
+     */
+    public static final String ENDPOINT = "app.endpoint";
+
+    /**
+     * Type de sortie structurée attendu (nom de classe), quand la conversion est faite hors ChatClient.
+     */
+    public static final String OUTPUT_TYPE = "app.output-type";
+
+    private AdvisorParams() {
+    }
+
+    /**
+     * Associe la requête à une conversation (mémoire et routage collant) si un identifiant est fourni.
+     */
+    public static void conversation(ChatClient.AdvisorSpec advisors, String conversationId) {
+        if (conversationId != null && !conversationId.isBlank()) {
+            advisors.param(ChatMemory.CONVERSATION_ID, conversationId);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.Test_AI_LLM.advisor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence des appels au fournisseur, par endpoint, modèle et issue :
+ * <ul>
+ *     <li>{@code llm.call.duration} : durée totale, appel bloquant ou flux complet ;</li>
+ *     <li>{@code llm.stream.ttft} : délai jusqu'au premier fragment de texte ;</li>
+ *     <li>{@code llm.stream.tokens.per.second} : débit après le premier fragment, tokens de
+ *     l'usage renvoyé par le fournisseur, à défaut un token par fragment.</li>
+ * </ul>
+ * Les histogrammes sont activés par {@code management.metrics.distribution.percentiles-histogram.llm}.
+ */
+public class LatencyMetricsAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private final MeterRegistry meterRegistry;
+
+    public LatencyMetricsAdvisor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        String model = requestedModel(request);
+        try {
+            ChatClientResponse response = chain.nextCall(request);
+            model = model(response.chatResponse(), model);
+            outcome = "success";
+            return response;
+        } finally {
+            duration(request, "call", model, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        return Flux.defer(() -> {
+            StreamProgress progress = new StreamProgress(System.nanoTime(), requestedModel(request));
+            return chain.nextStream(request)
+                    .doOnNext(response -> progress.onChunk(response.chatResponse()))
+                    .doOnComplete(() -> record(request, progress, "success"))
+                    .doOnError(e -> record(request, progress, "error"))
+                    .doOnCancel(() -> record(request, progress, "cancelled"));
+        });
+    }
+
+    private void record(ChatClientRequest request, StreamProgress progress, String outcome) {
+        long end = System.nanoTime();
+        duration(request, "stream", progress.model, outcome).record(end - progress.start, TimeUnit.NANOSECONDS);
+        if (progress.chunks == 0) {
+            return;
+        }
+        String endpoint = endpoint(request);
+        Timer.builder("llm.stream.ttft")
+                .description("Délai entre l'envoi au fournisseur et le premier fragment de texte")
+                .tag("endpoint", endpoint)
+                .tag("model", progress.model)
+                .register(meterRegistry)
+                .record(progress.firstToken - progress.start, TimeUnit.NANOSECONDS);
+        long generation = end - progress.firstToken;
+        long tokens = progress.completionTokens > 0 ? progress.completionTokens : progress.chunks;
+        if (generation > 0 && tokens > 1 && "success".equals(outcome)) {
+            DistributionSummary.builder("llm.stream.tokens.per.second")
+                    .tag("endpoint", endpoint)
+                    .tag("model", progress.model)
+                    .register(meterRegistry)
+                    // le premier token marque le début de la génération
+                    .record((tokens - 1) / (generation / 1e9));
+        }
+    }
+
+    private Timer duration(ChatClientRequest request, String mode, String model, String outcome) {
+        return Timer.builder("llm.call.duration")
+                .description("Durée des appels au fournisseur")
+                .tag("endpoint", endpoint(request))
+                .tag("model", model)
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String endpoint(ChatClientRequest request) {
+        Object endpoint = request.context().get(AdvisorParams.ENDPOINT);
+        return endpoint != null ? endpoint.toString() : "unknown";
+    }
+
+    private static String requestedModel(ChatClientRequest request) {
+        return request.prompt().getOptions() != null && request.prompt().getOptions().getModel() != null
+                ? request.prompt().getOptions().getModel()
+                : "unknown";
+    }
+
+    private static String model(ChatResponse response, String fallback) {
+        return response != null && StringUtils.hasText(response.getMetadata().getModel())
+                ? response.getMetadata().getModel()
+                : fallback;
+    }
+
+    /**
+     * État d'un flux, modifié par ses seuls signaux (sérialisés par Reactor).
+     */
+    private static final class StreamProgress {
+        private final long start;
+        private String model;
+        private long firstToken;
+        private long chunks;
+        private long completionTokens;
+
+        private StreamProgress(long start, String model) {
+            this.start = start;
+            this.model = model;
+        }
+
+        private void onChunk(ChatResponse response) {
+            if (response == null) {
+                return;
+            }
+            model = model(response, model);
+            Usage usage = response.getMetadata().getUsage();
+            if (usage != null && usage.getCompletionTokens() != null && usage.getCompletionTokens() > 0) {
+                completionTokens = usage.getCompletionTokens();
+            }
+            if (response.getResult() != null && response.getResult().getOutput() != null
+                    && StringUtils.hasLength(response.getResult().getOutput().getText())) {
+                if (chunks++ == 0) {
+                    firstToken = System.nanoTime();
+                }
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "LatencyMetricsAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        // au plus près du modèle : ni la mémoire ni la journalisation ne comptent dans la latence
+        return Ordered.LOWEST_PRECEDENCE - 40;
+    }
+}
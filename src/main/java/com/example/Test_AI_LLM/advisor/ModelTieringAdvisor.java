@@ -0,0 +1,172 @@
+package com.example.Test_AI_LLM.advisor;
+
+import com.example.Test_AI_LLM.config.TieringProperties;
+import com.example.Test_AI_LLM.service.AnswerValidator;
+import com.example.Test_AI_LLM.service.ChatOptionsUtils;
+import com.example.Test_AI_LLM.service.ModelTier;
+import com.example.Test_AI_LLM.service.PromptComplexityClassifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Envoie les requêtes simples sur le petit modèle et escalade vers le grand modèle
+ * quand la réponse du petit modèle est vide, tronquée, filtrée ou refusée par le
+ * {@link AnswerValidator}. Le grand palier est le modèle de chat configuré, sauf si
+ * {@code tiering.large.model} est renseigné ; ce modèle est lu à chaque appel, et suit donc
+ * les changements à chaud. Latence (p50, p95) et coût sont publiés par palier.
+ */
+@Slf4j
+public class ModelTieringAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private final PromptComplexityClassifier classifier;
+    private final TieringProperties properties;
+    private final Supplier<String> chatModel;
+    private final AnswerValidator validator;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Sans modèle de chat configuré : le grand palier garde le modèle de la requête.
+     */
+    public ModelTieringAdvisor(PromptComplexityClassifier classifier, TieringProperties properties,
+                               MeterRegistry meterRegistry) {
+        this(classifier, properties, () -> null, (request, response) -> true, meterRegistry);
+    }
+
+    public ModelTieringAdvisor(PromptComplexityClassifier classifier, TieringProperties properties,
+                               Supplier<String> chatModel, AnswerValidator validator,
+                               MeterRegistry meterRegistry) {
+        this.classifier = classifier;
+        this.properties = properties;
+        this.chatModel = chatModel;
+        this.validator = validator;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.nextCall(withModel(request, chatModel.get()));
+        }
+        ModelTier tier = classify(request);
+        ChatClientResponse response = timedCall(tier, request, chain);
+
+        if (tier == ModelTier.SMALL && !isAcceptable(request, response)) {
+            log.info("Small model answer rejected, escalating to {}", model(ModelTier.LARGE));
+            Counter.builder("tiering.escalations").register(meterRegistry).increment();
+            response = timedCall(ModelTier.LARGE, request, chain.copy(this));
+        }
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.nextStream(withModel(request, chatModel.get()));
+        }
+        ModelTier tier = classify(request);
+        long start = System.nanoTime();
+        return chain.nextStream(withModel(request, model(tier)))
+                .doOnComplete(() -> latency(tier).record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    ModelTier classify(ChatClientRequest request) {
+        double score = classifier.score(request);
+        return score < properties.getThreshold() ? ModelTier.SMALL : ModelTier.LARGE;
+    }
+
+    private ChatClientResponse timedCall(ModelTier tier, ChatClientRequest request, CallAdvisorChain chain) {
+        long start = System.nanoTime();
+        ChatClientResponse response = chain.nextCall(withModel(request, model(tier)));
+        latency(tier).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        recordCost(tier, response.chatResponse());
+        return response;
+    }
+
+    /**
+     * Modèle du palier : le grand palier suit le modèle de chat configuré par défaut.
+     */
+    String model(ModelTier tier) {
+        String model = tier(tier).getModel();
+        return model != null || tier == ModelTier.SMALL ? model : chatModel.get();
+    }
+
+    private static ChatClientRequest withModel(ChatClientRequest request, String model) {
+        if (model == null) {
+            return request;
+        }
+        return request.mutate()
+                .prompt(ChatOptionsUtils.withModel(request.prompt(), model))
+                .build();
+    }
+
+    private boolean isAcceptable(ChatClientRequest request, ChatClientResponse response) {
+        ChatResponse chatResponse = response.chatResponse();
+        if (chatResponse == null || chatResponse.getResult() == null) {
+            return false;
+        }
+        Generation generation = chatResponse.getResult();
+        String finishReason = generation.getMetadata().getFinishReason();
+        return StringUtils.hasText(generation.getOutput().getText())
+                && !"length".equalsIgnoreCase(finishReason)
+                && !"content_filter".equalsIgnoreCase(finishReason)
+                && validator.accept(request, response);
+    }
+
+    private void recordCost(ModelTier tier, ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getMetadata().getUsage() == null) {
+            return;
+        }
+        Usage usage = chatResponse.getMetadata().getUsage();
+        TieringProperties.Tier prices = tier(tier);
+        double cost = (tokens(usage.getPromptTokens()) * prices.getInputPricePerMillion()
+                + tokens(usage.getCompletionTokens()) * prices.getOutputPricePerMillion()) / 1_000_000;
+        Counter.builder("tiering.cost")
+                .baseUnit("usd")
+                .tag("tier", tier.name().toLowerCase())
+                .register(meterRegistry)
+                .increment(cost);
+    }
+
+    private Timer latency(ModelTier tier) {
+        return Timer.builder("tiering.latency")
+                .tag("tier", tier.name().toLowerCase())
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+    }
+
+    private TieringProperties.Tier tier(ModelTier tier) {
+        return tier == ModelTier.SMALL ? properties.getSmall() : properties.getLarge();
+    }
+
+    private static long tokens(Integer count) {
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public String getName() {
+        return "ModelTieringAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        // après la mémoire, pour que l'escalade ne rejoue que l'appel au modèle
+        return Ordered.LOWEST_PRECEDENCE - 100;
+    }
+}
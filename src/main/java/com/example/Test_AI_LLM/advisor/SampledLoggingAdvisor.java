@@ -0,0 +1,150 @@
+package com.example.Test_AI_LLM.advisor;
+
+import com.example.Test_AI_LLM.config.LlmLoggingProperties;
+import com.example.Test_AI_LLM.logging.AdvisorLogEvent;
+import com.example.Test_AI_LLM.logging.AsyncLogWriter;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Remplace {@code SimpleLoggerAdvisor}, qui formatait prompt, historique et réponse (médias en base64
+ * compris) sur chaque thread de requête. Ici, la décision d'échantillonnage est prise avant tout travail ;
+ * une requête échantillonnée ne coûte qu'une capture de références et un dépôt dans le tampon
+ * de {@link AsyncLogWriter}, qui fait le reste hors du chemin de requête.
+ */
+public class SampledLoggingAdvisor implements CallAdvisor, StreamAdvisor {
+
+    private final AsyncLogWriter writer;
+    private final LlmLoggingProperties properties;
+
+    public SampledLoggingAdvisor(AsyncLogWriter writer, LlmLoggingProperties properties) {
+        this.writer = writer;
+        this.properties = properties;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.nextCall(request);
+        }
+        boolean sampled = sample();
+        long start = System.nanoTime();
+        try {
+            ChatClientResponse response = chain.nextCall(request);
+            if (sampled) {
+                ChatResponse chatResponse = response.chatResponse();
+                publish(request, "call", chatResponse, text(chatResponse), start, "success", null, true);
+            }
+            return response;
+        } catch (RuntimeException e) {
+            if (sampled || properties.isAlwaysLogErrors()) {
+                publish(request, "call", null, null, start, "error", e, sampled);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.nextStream(request);
+        }
+        return Flux.defer(() -> {
+            boolean sampled = sample();
+            if (!sampled && !properties.isAlwaysLogErrors()) {
+                return chain.nextStream(request);
+            }
+            long start = System.nanoTime();
+            if (!sampled) {
+                return chain.nextStream(request)
+                        .doOnError(e -> publish(request, "stream", null, null, start, "error", e, false));
+            }
+            // texte borné à maxChars : le reste du flux n'est pas copié
+            StringBuilder text = new StringBuilder();
+            ChatResponse[] last = new ChatResponse[1];
+            return chain.nextStream(request)
+                    .doOnNext(response -> {
+                        ChatResponse chatResponse = response.chatResponse();
+                        if (chatResponse != null) {
+                            last[0] = chatResponse;
+                            String fragment = text(chatResponse);
+                            if (fragment != null && text.length() <= properties.getMaxChars()) {
+                                text.append(fragment);
+                            }
+                        }
+                    })
+                    .doOnComplete(() -> publish(request, "stream", last[0], text.toString(), start,
+                            "success", null, true))
+                    .doOnError(e -> publish(request, "stream", last[0], text.toString(), start,
+                            "error", e, true))
+                    .doOnCancel(() -> publish(request, "stream", last[0], text.toString(), start,
+                            "cancelled", null, true));
+        });
+    }
+
+    private boolean sample() {
+        double rate = properties.getSampleRate();
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private void publish(ChatClientRequest request, String mode, ChatResponse response, String text,
+                         long start, String outcome, Throwable error, boolean sampled) {
+        Usage usage = response != null ? response.getMetadata().getUsage() : null;
+        writer.publish(new AdvisorLogEvent(
+                Instant.now(),
+                context(request, AdvisorParams.ENDPOINT, "unknown"),
+                mode,
+                model(request, response),
+                context(request, ChatMemory.CONVERSATION_ID, null),
+                request.prompt().getInstructions(),
+                text,
+                usage != null ? usage.getPromptTokens() : null,
+                usage != null ? usage.getCompletionTokens() : null,
+                System.nanoTime() - start,
+                outcome,
+                error != null ? error.toString() : null,
+                sampled));
+    }
+
+    private static String text(ChatResponse response) {
+        return response != null && response.getResult() != null && response.getResult().getOutput() != null
+                ? response.getResult().getOutput().getText()
+                : null;
+    }
+
+    private static String model(ChatClientRequest request, ChatResponse response) {
+        if (response != null && response.getMetadata().getModel() != null
+                && !response.getMetadata().getModel().isEmpty()) {
+            return response.getMetadata().getModel();
+        }
+        return request.prompt().getOptions() != null ? request.prompt().getOptions().getModel() : null;
+    }
+
+    private static String context(ChatClientRequest request, String key, String fallback) {
+        Object value = request.context().get(key);
+        return value != null ? value.toString() : fallback;
+    }
+
+    @Override
+    public String getName() {
+        return "SampledLoggingAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        // après le choix du modèle : le prompt et le modèle journalisés sont ceux envoyés au fournisseur
+        return Ordered.LOWEST_PRECEDENCE - 50;
+    }
+}
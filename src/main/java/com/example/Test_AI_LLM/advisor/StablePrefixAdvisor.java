@@ -0,0 +1,188 @@
+package com.example.Test_AI_LLM.advisor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Range les messages dans un ordre déterministe pour maximiser le cache de préfixe du fournisseur :
+ * le texte système (fusionné), puis les exemples few-shot, puis l'historique, puis la question courante.
+ * Les schémas d'outils sont envoyés hors messages par OpenAI, en tête de préfixe : ils sont triés
+ * par nom pour que l'ordre d'enregistrement des outils ne casse pas le cache.
+ * Publie aussi les {@code cached_tokens} renvoyés par OpenAI, par endpoint.
+ */
+public class StablePrefixAdvisor implements CallAdvisor, StreamAdvisor {
+
+    /**
+     * Métadonnée qui marque un message comme exemple few-shot (partie stable du prompt).
+     */
+    public static final String FEW_SHOT = "app.few-shot";
+
+    private final MeterRegistry meterRegistry;
+
+    public StablePrefixAdvisor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static UserMessage fewShotUser(String text) {
+        return UserMessage.builder().text(text).metadata(Map.of(FEW_SHOT, true)).build();
+    }
+
+    public static AssistantMessage fewShotAssistant(String text) {
+        return AssistantMessage.builder().content(text).properties(Map.of(FEW_SHOT, true)).build();
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        ChatClientResponse response = chain.nextCall(reorder(request));
+        recordUsage(endpoint(request), response.chatResponse());
+        return response;
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        String endpoint = endpoint(request);
+        return chain.nextStream(reorder(request))
+                .doOnNext(response -> recordUsage(endpoint, response.chatResponse()));
+    }
+
+    ChatClientRequest reorder(ChatClientRequest request) {
+        List<Message> messages = request.prompt().getInstructions();
+        List<SystemMessage> system = new ArrayList<>();
+        List<Message> fewShot = new ArrayList<>();
+        List<Message> history = new ArrayList<>();
+        Message current = null;
+
+        int lastUser = lastUserIndex(messages);
+        for (int i = 0; i < messages.size(); i++) {
+            Message message = messages.get(i);
+            if (i == lastUser) {
+                current = message;
+            } else if (message instanceof SystemMessage systemMessage) {
+                system.add(systemMessage);
+            } else if (Boolean.TRUE.equals(message.getMetadata().get(FEW_SHOT))) {
+                fewShot.add(message);
+            } else {
+                history.add(message);
+            }
+        }
+
+        List<Message> ordered = new ArrayList<>(messages.size());
+        if (!system.isEmpty()) {
+            ordered.add(system.size() == 1 ? system.get(0) : merge(system));
+        }
+        ordered.addAll(fewShot);
+        ordered.addAll(history);
+        if (current != null) {
+            ordered.add(current);
+        }
+
+        return request.mutate()
+                .prompt(request.prompt().mutate()
+                        .messages(ordered)
+                        .chatOptions(sortTools(request.prompt().getOptions()))
+                        .build())
+                .build();
+    }
+
+    private static ChatOptions sortTools(ChatOptions options) {
+        if (!(options instanceof ToolCallingChatOptions toolOptions)) {
+            return options;
+        }
+        List<ToolCallback> callbacks = toolOptions.getToolCallbacks();
+        boolean hasCallbacks = callbacks != null && callbacks.size() > 1;
+        boolean hasNames = toolOptions.getToolNames() != null && toolOptions.getToolNames().size() > 1;
+        if (!hasCallbacks && !hasNames) {
+            return options;
+        }
+        ToolCallingChatOptions sorted = toolOptions.copy();
+        if (hasCallbacks) {
+            sorted.setToolCallbacks(callbacks.stream()
+                    .sorted(Comparator.comparing(callback -> callback.getToolDefinition().name()))
+                    .toList());
+        }
+        if (hasNames) {
+            sorted.setToolNames(new TreeSet<>(toolOptions.getToolNames()));
+        }
+        return sorted;
+    }
+
+    private void recordUsage(String endpoint, ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getMetadata().getUsage() == null
+                || !(chatResponse.getMetadata().getUsage().getNativeUsage() instanceof OpenAiApi.Usage usage)
+                || usage.promptTokens() == null || usage.promptTokens() == 0) {
+            return;
+        }
+        int promptTokens = usage.promptTokens();
+        int cachedTokens = usage.promptTokensDetails() != null && usage.promptTokensDetails().cachedTokens() != null
+                ? usage.promptTokensDetails().cachedTokens()
+                : 0;
+
+        Counter.builder("llm.prompt.tokens").tag("endpoint", endpoint)
+                .register(meterRegistry).increment(promptTokens);
+        Counter.builder("llm.prompt.cached.tokens").tag("endpoint", endpoint)
+                .register(meterRegistry).increment(cachedTokens);
+        DistributionSummary.builder("llm.prompt.cache.ratio").tag("endpoint", endpoint)
+                .register(meterRegistry).record(cachedTokens / (double) promptTokens);
+    }
+
+    private static String endpoint(ChatClientRequest request) {
+        Object endpoint = request.context().get(AdvisorParams.ENDPOINT);
+        return endpoint != null ? endpoint.toString() : "unknown";
+    }
+
+    private static int lastUserIndex(List<Message> messages) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i) instanceof UserMessage) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static SystemMessage merge(List<SystemMessage> system) {
+        // les métadonnées suivent le texte fusionné ; à clé égale, le dernier message l'emporte
+        Map<String, Object> metadata = new HashMap<>();
+        system.forEach(message -> metadata.putAll(message.getMetadata()));
+        return SystemMessage.builder()
+                .text(system.stream().map(SystemMessage::getText).collect(Collectors.joining("\n\n")))
+                .metadata(metadata)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return "StablePrefixAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        // après la mémoire (qui place l'historique en tête) et avant le choix du modèle
+        return Ordered.LOWEST_PRECEDENCE - 200;
+    }
+}
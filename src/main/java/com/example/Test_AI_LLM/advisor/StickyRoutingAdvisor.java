@@ -0,0 +1,58 @@
+package com.example.Test_AI_LLM.advisor;
+
+import com.example.Test_AI_LLM.service.RoutingContext;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Flux;
+
+/**
+ * Propage l'identifiant de conversation du ChatClient ({@link ChatMemory#CONVERSATION_ID})
+ * vers le {@link com.example.Test_AI_LLM.service.RoutingChatModel} pour le routage collant.
+ */
+public class StickyRoutingAdvisor implements CallAdvisor, StreamAdvisor {
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        Object conversationId = request.context().get(ChatMemory.CONVERSATION_ID);
+        if (conversationId == null) {
+            return chain.nextCall(request);
+        }
+        String previous = RoutingContext.currentConversation();
+        RoutingContext.setConversation(conversationId.toString());
+        try {
+            return chain.nextCall(request);
+        } finally {
+            if (previous == null) {
+                RoutingContext.clear();
+            } else {
+                RoutingContext.setConversation(previous);
+            }
+        }
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        Object conversationId = request.context().get(ChatMemory.CONVERSATION_ID);
+        if (conversationId == null) {
+            return chain.nextStream(request);
+        }
+        return chain.nextStream(request)
+                .contextWrite(context -> context.put(RoutingContext.CONVERSATION_KEY, conversationId.toString()));
+    }
+
+    @Override
+    public String getName() {
+        return "StickyRoutingAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+}
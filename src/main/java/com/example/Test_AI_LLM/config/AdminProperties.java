@@ -0,0 +1,18 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * API d'administration {@code /admin/config} : sans jeton configuré, elle est désactivée.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "admin")
+public class AdminProperties {
+    /** Jeton attendu dans l'en-tête {@code X-Admin-Token}. */
+    private String token;
+    /** Nombre de changements gardés en mémoire pour {@code /admin/config/audit}. */
+    private int auditSize = 200;
+}
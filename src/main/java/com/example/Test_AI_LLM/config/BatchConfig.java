@@ -0,0 +1,37 @@
+package com.example.Test_AI_LLM.config;
+
+import com.example.Test_AI_LLM.service.Bulkhead;
+import com.example.Test_AI_LLM.service.OpenAiBatchClient;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiConnectionProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.client.RestClient;
+
+import static com.example.Test_AI_LLM.config.BulkheadConfig.resolve;
+
+/**
+ * Client de l'API batch et suivi périodique des lots en cours.
+ */
+@Configuration
+@EnableScheduling
+public class BatchConfig {
+
+    @Bean
+    public OpenAiBatchClient openAiBatchClient(BatchProperties batchProperties,
+                                               OpenAiConnectionProperties connectionProperties,
+                                               ObjectProvider<RestClient.Builder> restClientBuilder,
+                                               @Qualifier("textBulkhead") Bulkhead bulkhead) {
+        // pas de RestClient.Builder auto-configuré en mode WebFlux (profil reactive)
+        RestClient restClient = restClientBuilder.getIfAvailable(RestClient::builder)
+                .requestFactory(bulkhead.requestFactory())
+                .baseUrl(resolve(batchProperties.getBaseUrl(), connectionProperties.getBaseUrl()))
+                .defaultHeader(HttpHeaders.AUTHORIZATION,
+                        "Bearer " + resolve(batchProperties.getApiKey(), connectionProperties.getApiKey()))
+                .build();
+        return new OpenAiBatchClient(restClient);
+    }
+}
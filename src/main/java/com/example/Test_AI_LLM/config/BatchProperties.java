@@ -0,0 +1,24 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Mode batch hors ligne : les requêtes sont envoyées à l'API batch du fournisseur
+ * (tarif réduit, traitement asynchrone) puis les résultats sont importés en base.
+ * Sans {@code base-url} ni {@code api-key}, la connexion OpenAI principale est utilisée.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "batch")
+public class BatchProperties {
+    private String baseUrl;
+    private String apiKey;
+    private String model = "gpt-4.1";
+    private String completionWindow = "24h";
+    private Duration pollInterval = Duration.ofMinutes(1);
+    private int maxQueries = 50_000;
+}
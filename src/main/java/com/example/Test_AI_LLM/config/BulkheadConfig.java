@@ -0,0 +1,96 @@
+package com.example.Test_AI_LLM.config;
+
+import com.example.Test_AI_LLM.service.Bulkhead;
+import com.example.Test_AI_LLM.service.Bulkheads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiChatProperties;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiConnectionProperties;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiImageModel;
+import org.springframework.ai.openai.api.OpenAiImageApi;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Un modèle par bulkhead : le texte, la vision et la génération d'images
+ * ne partagent ni threads ni connexions vers OpenAI. Le modèle texte est
+ * construit par {@link RoutingConfig}.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    public Bulkhead textBulkhead(BulkheadProperties properties, HttpClientProperties http,
+                                MeterRegistry meterRegistry, ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new Bulkhead("text", properties.getText(), http, meterRegistry,
+                observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP));
+    }
+
+    @Bean
+    public Bulkhead visionBulkhead(BulkheadProperties properties, HttpClientProperties http,
+                                MeterRegistry meterRegistry, ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new Bulkhead("vision", properties.getVision(), http, meterRegistry,
+                observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP));
+    }
+
+    @Bean
+    public Bulkhead imageBulkhead(BulkheadProperties properties, HttpClientProperties http,
+                                MeterRegistry meterRegistry, ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new Bulkhead("image", properties.getImage(), http, meterRegistry,
+                observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP));
+    }
+
+    @Bean
+    public Bulkheads bulkheads(@Qualifier("textBulkhead") Bulkhead text,
+                               @Qualifier("visionBulkhead") Bulkhead vision,
+                               @Qualifier("imageBulkhead") Bulkhead image) {
+        return new Bulkheads(text, vision, image);
+    }
+
+    @Bean
+    public OpenAiChatModel visionChatModel(@Qualifier("visionBulkhead") Bulkhead bulkhead,
+                                           OpenAiConnectionProperties connectionProperties,
+                                           OpenAiChatProperties chatProperties,
+                                           ProviderChatModelFactory chatModelFactory,
+                                           RetryTemplate retryTemplate) {
+        return chatModelFactory.create(bulkhead,
+                resolve(chatProperties.getBaseUrl(), connectionProperties.getBaseUrl()),
+                resolve(chatProperties.getApiKey(), connectionProperties.getApiKey()),
+                chatProperties.getCompletionsPath(),
+                chatProperties.getOptions(),
+                retryTemplate);
+    }
+
+    @Bean
+    public OpenAiImageModel openAiImageModel(@Qualifier("imageBulkhead") Bulkhead bulkhead,
+                                             OpenAiConnectionProperties connectionProperties,
+                                             org.springframework.ai.model.openai.autoconfigure.OpenAiImageProperties imageProperties,
+                                             ObjectProvider<RestClient.Builder> restClientBuilder,
+                                             ResponseErrorHandler responseErrorHandler,
+                                             RetryTemplate retryTemplate,
+                                             ObjectProvider<ObservationRegistry> observationRegistry) {
+        OpenAiImageApi imageApi = OpenAiImageApi.builder()
+                .baseUrl(resolve(imageProperties.getBaseUrl(), connectionProperties.getBaseUrl()))
+                .apiKey(resolve(imageProperties.getApiKey(), connectionProperties.getApiKey()))
+                .imagesPath(imageProperties.getImagesPath())
+                .restClientBuilder(restClientBuilder.getIfAvailable(RestClient::builder)
+                        .requestFactory(bulkhead.requestFactory()))
+                .responseErrorHandler(responseErrorHandler)
+                .build();
+
+        return new OpenAiImageModel(imageApi, imageProperties.getOptions(), retryTemplate,
+                observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP));
+    }
+
+    // Même règle que l'auto-configuration Spring AI : la propriété spécifique l'emporte
+    static String resolve(String specific, String common) {
+        return StringUtils.hasText(specific) ? specific : common;
+    }
+}
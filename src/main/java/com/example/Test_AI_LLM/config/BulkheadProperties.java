@@ -0,0 +1,41 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Limites d'isolation par type de charge : chaque bulkhead possède ses propres threads,
+ * sa propre file d'attente et son propre pool de connexions vers le fournisseur.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadProperties {
+    private Pool text = new Pool(16, 32, 200, 50, 200);
+    private Pool vision = new Pool(4, 8, 20, 10, 20);
+    private Pool image = new Pool(2, 4, 10, 5, 10);
+
+    @Data
+    @NoArgsConstructor
+    public static class Pool {
+        private int coreThreads;
+        private int maxThreads;
+        private int queueCapacity;
+        private int maxConnections;
+        private int pendingAcquireMaxCount;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(30);
+
+        public Pool(int coreThreads, int maxThreads, int queueCapacity,
+                    int maxConnections, int pendingAcquireMaxCount) {
+            this.coreThreads = coreThreads;
+            this.maxThreads = maxThreads;
+            this.queueCapacity = queueCapacity;
+            this.maxConnections = maxConnections;
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+    }
+}
@@ -1,15 +1,102 @@
 package com.example.Test_AI_LLM.config;
 
+import com.example.Test_AI_LLM.advisor.LatencyMetricsAdvisor;
+import com.example.Test_AI_LLM.advisor.ModelTieringAdvisor;
+import com.example.Test_AI_LLM.advisor.SampledLoggingAdvisor;
+import com.example.Test_AI_LLM.advisor.StablePrefixAdvisor;
+import com.example.Test_AI_LLM.advisor.StickyRoutingAdvisor;
+import com.example.Test_AI_LLM.logging.AsyncLogWriter;
+import com.example.Test_AI_LLM.service.AnswerValidator;
+import com.example.Test_AI_LLM.service.HeuristicPromptComplexityClassifier;
+import com.example.Test_AI_LLM.service.HeuristicQueryPlanner;
+import com.example.Test_AI_LLM.service.PromptComplexityClassifier;
+import com.example.Test_AI_LLM.service.QueryPlanner;
+import com.example.Test_AI_LLM.service.StructuredAnswerValidator;
+import com.example.Test_AI_LLM.service.StructuredExtractionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.client.ChatClientCustomizer;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiChatProperties;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
-import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 
 @Configuration
 public class ChatClientConfig {
 
+    // appliqué à chaque ChatClient.Builder auto-configuré (modèle de routage texte)
+    @Bean
+    public ChatClientCustomizer stickyRoutingCustomizer() {
+        return builder -> builder.defaultAdvisors(new StickyRoutingAdvisor());
+    }
+
+    @Bean
+    public StablePrefixAdvisor stablePrefixAdvisor(MeterRegistry meterRegistry) {
+        return new StablePrefixAdvisor(meterRegistry);
+    }
+
+    @Bean
+    public ChatClientCustomizer stablePrefixCustomizer(StablePrefixAdvisor stablePrefixAdvisor) {
+        return builder -> builder.defaultAdvisors(stablePrefixAdvisor);
+    }
+
+    @Bean
+    public AsyncLogWriter asyncLogWriter(LlmLoggingProperties properties, ObjectMapper objectMapper,
+                                         MeterRegistry meterRegistry) {
+        return new AsyncLogWriter(properties, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public SampledLoggingAdvisor sampledLoggingAdvisor(AsyncLogWriter writer, LlmLoggingProperties properties) {
+        return new SampledLoggingAdvisor(writer, properties);
+    }
+
+    @Bean
+    public ChatClientCustomizer sampledLoggingCustomizer(SampledLoggingAdvisor sampledLoggingAdvisor) {
+        return builder -> builder.defaultAdvisors(sampledLoggingAdvisor);
+    }
+
+    @Bean
+    public LatencyMetricsAdvisor latencyMetricsAdvisor(MeterRegistry meterRegistry) {
+        return new LatencyMetricsAdvisor(meterRegistry);
+    }
+
+    @Bean
+    public ChatClientCustomizer latencyMetricsCustomizer(LatencyMetricsAdvisor latencyMetricsAdvisor) {
+        return builder -> builder.defaultAdvisors(latencyMetricsAdvisor);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PromptComplexityClassifier promptComplexityClassifier() {
+        return new HeuristicPromptComplexityClassifier();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public QueryPlanner queryPlanner(FanOutProperties properties) {
+        return new HeuristicQueryPlanner(properties.getMaxFanOut());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AnswerValidator answerValidator(StructuredExtractionService extraction) {
+        return new StructuredAnswerValidator(extraction);
+    }
+
+    @Bean
+    public ChatClientCustomizer modelTieringCustomizer(PromptComplexityClassifier classifier,
+                                                       TieringProperties properties,
+                                                       OpenAiChatProperties chatProperties,
+                                                       AnswerValidator answerValidator,
+                                                       MeterRegistry meterRegistry) {
+        // modèle de chat lu à chaque appel : un changement via /admin/config s'applique aussitôt
+        ModelTieringAdvisor advisor = new ModelTieringAdvisor(classifier, properties,
+                () -> chatProperties.getOptions().getModel(), answerValidator, meterRegistry);
+        return builder -> builder.defaultAdvisors(advisor);
+    }
 }
@@ -0,0 +1,17 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sortie structurée : avec {@code strict-schema}, le schéma du type cible est envoyé
+ * dans {@code response_format} (mode strict du fournisseur) au lieu d'instructions
+ * de format ajoutées au prompt.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "extraction")
+public class ExtractionProperties {
+    private boolean strictSchema = false;
+}
@@ -0,0 +1,21 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Découpage des requêtes larges de {@code /askAgent} en sous-requêtes parallèles
+ * (par décennie ou par genre). Désactivé par défaut ; activable par requête avec {@code fanOut=true}.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "fanout")
+public class FanOutProperties {
+    private boolean enabled = false;
+    private int maxFanOut = 8;
+    private int maxConcurrency = 4;
+    private Duration deadline = Duration.ofSeconds(20);
+}
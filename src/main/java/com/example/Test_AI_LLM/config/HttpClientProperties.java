@@ -0,0 +1,33 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Réglages HTTP communs à tous les pools de connexions vers le fournisseur (un par bulkhead),
+ * utilisés aussi bien par le chemin bloquant (RestClient) que par le streaming (WebClient).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "http.client")
+public class HttpClientProperties {
+    /** HTTP/2 négocié par ALPN sur TLS ; repli HTTP/1.1 si le fournisseur ne le propose pas. */
+    private boolean http2 = true;
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    /** Silence maximal entre deux lectures sur une connexion ; doit dépasser {@code max-idle-time}. */
+    private Duration readTimeout = Duration.ofSeconds(90);
+    /** Délai maximal entre l'envoi de la requête et chaque lecture de la réponse. */
+    private Duration responseTimeout = Duration.ofSeconds(60);
+    private Duration writeTimeout = Duration.ofSeconds(30);
+    /** Connexion inactive rendue au-delà de cette durée (avant la coupure côté fournisseur). */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    /** Durée de vie maximale d'une connexion, pour suivre les changements DNS et répartiteurs. */
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    /** Période d'éviction en tâche de fond des connexions inactives ou trop vieilles. */
+    private Duration evictionInterval = Duration.ofSeconds(15);
+    /** Après un changement à chaud, délai laissé aux requêtes en cours avant de fermer l'ancien pool. */
+    private Duration drainTimeout = Duration.ofMinutes(5);
+}
@@ -0,0 +1,31 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Préparation des images avant les appels vision : réduction aux dimensions que le modèle
+ * utilise réellement (côté long ≤ 2048, côté court ≤ 768, tuiles de 512 px), suppression
+ * des métadonnées et ré-encodage, sur un pool de threads borné.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "vision.preprocess")
+public class ImagePreprocessingProperties {
+    private boolean enabled = true;
+    private int maxLongSide = 2048;
+    private int maxShortSide = 768;
+    /**
+     * Réduction supplémentaire acceptée pour retomber sur un multiple de 512 px
+     * (une tuile de moins) : 0.2 = jusqu'à 20 % de résolution en moins.
+     */
+    private double tileSnapTolerance = 0.2;
+    /** {@code jpeg} ou {@code png}. */
+    private String format = "jpeg";
+    private float quality = 0.85f;
+    /** Au-delà, l'image est refusée avant décodage. */
+    private long maxPixels = 50_000_000;
+    private int threads = 2;
+    private int queueCapacity = 32;
+}
@@ -0,0 +1,20 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Images reçues sur {@code /askDowload} : copiées en flux dans un fichier temporaire,
+ * jamais chargées entières en mémoire, et bornées en taille.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "vision.upload")
+public class ImageUploadProperties {
+    private DataSize maxSize = DataSize.ofMegabytes(20);
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "vision-uploads");
+}
@@ -0,0 +1,20 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Base locale des films déjà extraits : une combinaison de critères résolue par le modèle
+ * est servie depuis H2 pendant {@code ttl}, puis redemandée au modèle. Désactivée par défaut :
+ * l'activer change les réponses de {@code /askAgent} et ajoute une écriture par réponse du modèle.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "knowledge")
+public class KnowledgeProperties {
+    private boolean enabled = false;
+    private Duration ttl = Duration.ofDays(30);
+}
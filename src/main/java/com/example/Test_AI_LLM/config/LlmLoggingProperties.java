@@ -0,0 +1,33 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Journalisation des appels au modèle par {@link com.example.Test_AI_LLM.advisor.SampledLoggingAdvisor} :
+ * un échantillon des requêtes, tronqué et caviardé, écrit en JSON hors des threads de requête.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "llm.logging")
+public class LlmLoggingProperties {
+    private boolean enabled = true;
+    /** Part des requêtes journalisées, entre 0 et 1. */
+    private double sampleRate = 0.05;
+    /** Les échecs sont journalisés même hors échantillon. */
+    private boolean alwaysLogErrors = true;
+    /** Caractères conservés par message et par réponse. */
+    private int maxChars = 500;
+    /** Capacité du tampon circulaire (arrondie à la puissance de deux supérieure) ; au-delà, les événements sont perdus. */
+    private int bufferSize = 1024;
+    /** Motifs remplacés par {@code [caviardé]} : clés d'API, e-mails, NIR, images en base64. */
+    private List<String> redactPatterns = new ArrayList<>(List.of(
+            "sk-[A-Za-z0-9_-]{10,}",
+            "[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}",
+            "\\b[12] ?\\d{2} ?\\d{2} ?\\d{2} ?\\d{3} ?\\d{3}(?: ?\\d{2})?\\b",
+            "data:[\\w/+.-]+;base64,[A-Za-z0-9+/=]+"));
+}
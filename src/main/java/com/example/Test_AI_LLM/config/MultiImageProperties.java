@@ -0,0 +1,19 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Requêtes vision sur plusieurs images ({@code /askMultiple}) : nombre d'images,
+ * budget total de pixels envoyés au modèle et appels simultanés en mode parallèle.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "vision.multi")
+public class MultiImageProperties {
+    private int maxImages = 10;
+    /** Somme des pixels après préparation ; 10 images 1024x768 ≈ 7,9 M. */
+    private long maxTotalPixels = 8_000_000;
+    private int maxConcurrency = 4;
+}
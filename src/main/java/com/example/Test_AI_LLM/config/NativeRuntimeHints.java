@@ -0,0 +1,42 @@
+package com.example.Test_AI_LLM.config;
+
+import com.example.Test_AI_LLM.dto.BatchItemResponse;
+import com.example.Test_AI_LLM.dto.BatchJobResponse;
+import com.example.Test_AI_LLM.dto.ImageAnswer;
+import com.example.Test_AI_LLM.dto.ImageGenerationRequest;
+import com.example.Test_AI_LLM.dto.ImageGenerationResponse;
+import com.example.Test_AI_LLM.dto.RuntimeConfigPatch;
+import com.example.Test_AI_LLM.outputs.CarteVitale;
+import com.example.Test_AI_LLM.outputs.Movie;
+import com.example.Test_AI_LLM.outputs.MovieList;
+import com.example.Test_AI_LLM.service.OpenAiBatchClient;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Métadonnées d'accessibilité pour l'image native ({@code mvn -Pnative native:compile}).
+ * Spring AOT couvre déjà les signatures des contrôleurs ; on ajoute ce que Jackson et le générateur
+ * de schéma atteignent par réflexion hors de ces signatures (sorties structurées passées à
+ * {@code .entity()}, réponses de l'API batch, DTO Lombok) et les images du classpath.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final Class<?>[] OUTPUTS = {MovieList.class, Movie.class, CarteVitale.class};
+
+    static final Class<?>[] DTOS = {ImageGenerationRequest.class, ImageGenerationResponse.class,
+            ImageAnswer.class, BatchJobResponse.class, BatchItemResponse.class, RuntimeConfigPatch.class};
+
+    private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindings.registerReflectionHints(hints.reflection(), OUTPUTS);
+        bindings.registerReflectionHints(hints.reflection(), DTOS);
+        bindings.registerReflectionHints(hints.reflection(), OpenAiBatchClient.Batch.class,
+                OpenAiBatchClient.FileObject.class, OpenAiBatchClient.RequestCounts.class);
+
+        // images statiques de /describe, /ask et du préchauffage
+        hints.resources().registerPattern("images/*");
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.Test_AI_LLM.config;
+
+import com.example.Test_AI_LLM.service.Bulkhead;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Construit des {@link OpenAiChatModel} (OpenAI ou endpoint compatible) branchés
+ * sur le pool de connexions d'un bulkhead.
+ */
+@Component
+public class ProviderChatModelFactory {
+
+    private final ObjectProvider<RestClient.Builder> restClientBuilder;
+    private final ObjectProvider<WebClient.Builder> webClientBuilder;
+    private final ResponseErrorHandler responseErrorHandler;
+    private final ToolCallingManager toolCallingManager;
+    private final ObservationRegistry observationRegistry;
+
+    public ProviderChatModelFactory(ObjectProvider<RestClient.Builder> restClientBuilder,
+                                    ObjectProvider<WebClient.Builder> webClientBuilder,
+                                    ResponseErrorHandler responseErrorHandler,
+                                    ToolCallingManager toolCallingManager,
+                                    ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.restClientBuilder = restClientBuilder;
+        this.webClientBuilder = webClientBuilder;
+        this.responseErrorHandler = responseErrorHandler;
+        this.toolCallingManager = toolCallingManager;
+        this.observationRegistry = observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP);
+    }
+
+    public OpenAiChatModel create(Bulkhead bulkhead, String baseUrl, String apiKey, String completionsPath,
+                                  OpenAiChatOptions options, RetryTemplate retryTemplate) {
+        OpenAiApi openAiApi = OpenAiApi.builder()
+                .baseUrl(baseUrl)
+                .apiKey(apiKey)
+                .completionsPath(completionsPath)
+                .restClientBuilder(restClientBuilder.getIfAvailable(RestClient::builder)
+                        .requestFactory(bulkhead.requestFactory()))
+                .webClientBuilder(webClientBuilder.getObject().clientConnector(bulkhead.connector()))
+                .responseErrorHandler(responseErrorHandler)
+                .build();
+
+        return OpenAiChatModel.builder()
+                .openAiApi(openAiApi)
+                .defaultOptions(options)
+                .toolCallingManager(toolCallingManager)
+                .retryTemplate(retryTemplate)
+                .observationRegistry(observationRegistry)
+                .build();
+    }
+}
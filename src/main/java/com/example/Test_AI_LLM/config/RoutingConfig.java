@@ -0,0 +1,68 @@
+package com.example.Test_AI_LLM.config;
+
+import com.example.Test_AI_LLM.service.Bulkhead;
+import com.example.Test_AI_LLM.service.ProviderRoute;
+import com.example.Test_AI_LLM.service.RoutingChatModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiChatProperties;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiConnectionProperties;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.Test_AI_LLM.config.BulkheadConfig.resolve;
+
+/**
+ * Le modèle de chat principal (texte) : OpenAI en premier fournisseur, suivi des
+ * endpoints déclarés sous {@code routing.providers}, tous sur le pool du bulkhead texte.
+ */
+@Slf4j
+@Configuration
+public class RoutingConfig {
+
+    @Bean
+    @Primary
+    public RoutingChatModel routingChatModel(@Qualifier("textBulkhead") Bulkhead bulkhead,
+                                             RoutingProperties routingProperties,
+                                             OpenAiConnectionProperties connectionProperties,
+                                             OpenAiChatProperties chatProperties,
+                                             ProviderChatModelFactory chatModelFactory,
+                                             RetryTemplate retryTemplate,
+                                             MeterRegistry meterRegistry) {
+        // Avec plusieurs fournisseurs, la bascule remplace les tentatives répétées
+        RetryTemplate routeRetry = routingProperties.getProviders().isEmpty()
+                ? retryTemplate
+                : RetryTemplate.builder().maxAttempts(1).build();
+
+        List<ProviderRoute> routes = new ArrayList<>();
+        routes.add(new ProviderRoute(routingProperties.getPrimaryName(),
+                chatModelFactory.create(bulkhead,
+                        resolve(chatProperties.getBaseUrl(), connectionProperties.getBaseUrl()),
+                        resolve(chatProperties.getApiKey(), connectionProperties.getApiKey()),
+                        chatProperties.getCompletionsPath(),
+                        chatProperties.getOptions(),
+                        routeRetry),
+                null, routingProperties.getWindowSize(), meterRegistry));
+
+        for (RoutingProperties.Provider provider : routingProperties.getProviders()) {
+            log.info("Registering chat provider '{}' at {}", provider.getName(), provider.getBaseUrl());
+            routes.add(new ProviderRoute(provider.getName(),
+                    chatModelFactory.create(bulkhead,
+                            provider.getBaseUrl(),
+                            provider.getApiKey(),
+                            provider.getCompletionsPath(),
+                            OpenAiChatOptions.builder().model(provider.getModel()).build(),
+                            routeRetry),
+                    provider.getModel(), routingProperties.getWindowSize(), meterRegistry));
+        }
+
+        return new RoutingChatModel(routes, routingProperties, meterRegistry);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routage multi-fournisseurs : OpenAI (bulkhead texte) est toujours le premier fournisseur,
+ * les fournisseurs additionnels sont des endpoints compatibles OpenAI (ex: Ollama sur /v1).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "routing")
+public class RoutingProperties {
+    private String primaryName = "openai";
+    private List<Provider> providers = new ArrayList<>();
+    private int windowSize = 50;
+    private double errorPenalty = 4.0;
+    private Duration failurePenalty = Duration.ofSeconds(2);
+    private double explorationRate = 0.05;
+    private double stickyMaxErrorRate = 0.5;
+    private Duration stickyTtl = Duration.ofMinutes(30);
+    private int stickyMaxConversations = 10_000;
+
+    @Data
+    public static class Provider {
+        private String name;
+        private String baseUrl;
+        private String apiKey = "none";
+        private String completionsPath = "/v1/chat/completions";
+        private String model;
+    }
+}
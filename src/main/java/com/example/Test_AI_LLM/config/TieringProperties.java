@@ -0,0 +1,36 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Choix automatique du modèle : les requêtes simples partent sur le petit modèle,
+ * les requêtes complexes ou structurées restent sur le grand modèle. Sans modèle
+ * renseigné, le grand palier est {@code spring.ai.openai.chat.options.model}.
+ * Les prix sont en USD par million de tokens.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "tiering")
+public class TieringProperties {
+    private boolean enabled = true;
+    private double threshold = 0.5;
+    private Tier small = new Tier("gpt-4.1-mini", 0.40, 1.60);
+    private Tier large = new Tier(null, 2.00, 8.00);
+
+    @Data
+    @NoArgsConstructor
+    public static class Tier {
+        private String model;
+        private double inputPricePerMillion;
+        private double outputPricePerMillion;
+
+        public Tier(String model, double inputPricePerMillion, double outputPricePerMillion) {
+            this.model = model;
+            this.inputPricePerMillion = inputPricePerMillion;
+            this.outputPricePerMillion = outputPricePerMillion;
+        }
+    }
+}
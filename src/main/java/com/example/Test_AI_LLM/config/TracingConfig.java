@@ -0,0 +1,37 @@
+package com.example.Test_AI_LLM.config;
+
+import io.opentelemetry.context.Context;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+/**
+ * Propagation du contexte de trace hors du thread de requête :
+ * <ul>
+ *     <li>pipelines Reactor : {@code spring.reactor.context-propagation=auto} ;</li>
+ *     <li>bulkheads et pool de préparation d'images : capture explicite à la soumission ;</li>
+ *     <li>executors de Spring Boot ({@code @Async}, planificateur), y compris sur threads
+ *     virtuels avec {@code spring.threads.virtual.enabled=true} : décorateur ci-dessous.</li>
+ * </ul>
+ * Les spans partent vers tout bean {@code SpanExporter}, et en OTLP dès que
+ * {@code management.otlp.tracing.endpoint} est renseigné.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public ContextPropagatingTaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+
+    /**
+     * Le stockage du contexte OpenTelemetry se charge au premier accès, par un {@code ServiceLoader}
+     * qui lit les jars : au démarrage plutôt que sur une boucle d'événements Netty, où cette lecture
+     * bloquante est interdite (et, rejetée par BlockHound, laisserait la classe inutilisable).
+     */
+    @Bean
+    public SmartInitializingSingleton openTelemetryContextStorage() {
+        return Context::current;
+    }
+}
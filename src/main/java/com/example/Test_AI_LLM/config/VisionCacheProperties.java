@@ -0,0 +1,23 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Cache des réponses vision, indexé par le SHA-256 de l'image, le prompt système et la question :
+ * un niveau mémoire LRU borné, puis un niveau disque qui survit aux redémarrages.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "vision.cache")
+public class VisionCacheProperties {
+    private boolean enabled = true;
+    private int maxEntries = 1_000;
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "vision-cache");
+    private int maxDiskEntries = 20_000;
+    private Duration ttl = Duration.ofDays(30);
+}
@@ -0,0 +1,34 @@
+package com.example.Test_AI_LLM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Phase de chauffe au démarrage, avant que l'application ne se déclare prête : images fixes,
+ * connexions vers le fournisseur et, sur demande, chemins chauds exercés contre un bouchon.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "warmup")
+public class WarmUpProperties {
+    private boolean enabled = true;
+    /**
+     * Bouchon compatible OpenAI (serveur de rejeu, mock) contre lequel exercer les chemins chauds ;
+     * sans valeur, cette étape est sautée. Ne jamais y mettre le vrai fournisseur : chaque itération
+     * serait facturée.
+     */
+    private String stubBaseUrl;
+    /** Appels sur les chemins chauds contre le bouchon ; la première itération est « à froid ». */
+    private int iterations = 30;
+    /** Connexions ouvertes à l'avance par bulkhead (texte et vision). */
+    private int connections = 4;
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private List<String> staticImages = new ArrayList<>(List.of(
+            "classpath:/images/CarteVitale.jpg",
+            "classpath:/images/1.jpg"));
+}
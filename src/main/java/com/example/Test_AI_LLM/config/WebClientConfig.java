@@ -1,30 +1,19 @@
 package com.example.Test_AI_LLM.config;
 
-import io.netty.channel.ChannelOption;
+import com.example.Test_AI_LLM.service.Bulkhead;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.netty.http.client.HttpClient;
-import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 public class WebClientConfig {
 
-
+    // même pool réglé que les appels texte vers le fournisseur (HTTP/2, délais, éviction, métriques)
     @Bean
-    public WebClient webClient(WebClient.Builder builder) {
-        // Créer un ConnectionProvider pour gérer le pool de connexions
-        ConnectionProvider provider = ConnectionProvider.builder("custom")
-                .maxConnections(50) // nombre max de connexions simultanées
-                .pendingAcquireMaxCount(100) // max demandes en attente
-                .build();
-
-        HttpClient httpClient = HttpClient.create(provider)
-                .tcpConfiguration(tcp -> tcp.option(ChannelOption.SO_KEEPALIVE, true));
-
+    public WebClient webClient(WebClient.Builder builder, @Qualifier("textBulkhead") Bulkhead bulkhead) {
         return builder
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .clientConnector(bulkhead.connector())
                 .build();
     }
 }
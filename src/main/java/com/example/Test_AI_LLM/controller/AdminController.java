@@ -0,0 +1,65 @@
+package com.example.Test_AI_LLM.controller;
+
+import com.example.Test_AI_LLM.config.AdminProperties;
+import com.example.Test_AI_LLM.dto.RuntimeConfigPatch;
+import com.example.Test_AI_LLM.exception.AdminAccessException;
+import com.example.Test_AI_LLM.service.RuntimeConfigService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réglage à chaud des pools, délais et modèles, protégé par le jeton {@code admin.token}
+ * (en-tête {@code X-Admin-Token}). L'auteur tracé est l'en-tête {@code X-Admin-User},
+ * à défaut {@code anonymous} (même code sous servlet et WebFlux).
+ */
+@RestController
+@RequestMapping("/admin/config")
+@RequiredArgsConstructor
+public class AdminController {
+
+    static final String TOKEN_HEADER = "X-Admin-Token";
+    static final String USER_HEADER = "X-Admin-User";
+
+    private final RuntimeConfigService configService;
+    private final AdminProperties adminProperties;
+
+    // changements en mémoire uniquement, sans entrée/sortie : valeurs simples sous les deux piles
+    @GetMapping
+    public Map<String, Object> effective(@RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        authenticate(token);
+        return configService.effective();
+    }
+
+    @PatchMapping
+    public Map<String, Object> update(@RequestHeader(value = TOKEN_HEADER, required = false) String token,
+                                      @RequestHeader(value = USER_HEADER, required = false) String user,
+                                      @RequestBody RuntimeConfigPatch patch) {
+        authenticate(token);
+        return configService.apply(patch, user != null && !user.isBlank() ? user : "anonymous");
+    }
+
+    @GetMapping("/audit")
+    public List<RuntimeConfigService.AuditEntry> audit(
+            @RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        authenticate(token);
+        return configService.audit();
+    }
+
+    private void authenticate(String token) {
+        String expected = adminProperties.getToken();
+        if (expected == null || expected.isBlank()) {
+            throw new AdminAccessException(HttpStatus.FORBIDDEN, "Admin API is disabled");
+        }
+        // comparaison en temps constant
+        if (token == null || !MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8))) {
+            throw new AdminAccessException(HttpStatus.UNAUTHORIZED, "Invalid admin token");
+        }
+    }
+}
@@ -1,42 +1,48 @@
 package com.example.Test_AI_LLM.controller;
 
+import com.example.Test_AI_LLM.advisor.AdvisorParams;
+import com.example.Test_AI_LLM.advisor.StablePrefixAdvisor;
+import com.example.Test_AI_LLM.service.Bulkheads;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
-import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
-import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
 @RestController
 public class AiAgentController {
 
+    // exemples few-shot marqués pour rester dans le préfixe stable du prompt
+    private static final List<Message> EXEMPLES = List.of(
+            StablePrefixAdvisor.fewShotUser("6+4"),
+            StablePrefixAdvisor.fewShotAssistant("le résultats est : 10")
+    );
 
     private ChatClient chatClient;
+    private final Bulkheads bulkheads;
 
-    public AiAgentController(ChatClient.Builder builder, ChatMemory chatMemory) {
+    public AiAgentController(ChatClient.Builder builder, ChatMemory chatMemory, Bulkheads bulkheads) {
+        this.bulkheads = bulkheads;
         this.chatClient = builder
-                .defaultAdvisors(new SimpleLoggerAdvisor(),
-                        MessageChatMemoryAdvisor.builder(chatMemory).build()
-                )
+                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).build())
                 .build();
     }
 
     @GetMapping("/chat")
-    public String askLLM(String query){
-        List<Message> exemples = List.of(
-                new UserMessage("6+4"),
-                new AssistantMessage("le résultats est : 10")
-        );
-        return chatClient.prompt()
+    public Mono<String> askLLM(String query,
+                               @RequestParam(required = false) String conversationId){
+        return Mono.fromFuture(() -> bulkheads.text().submit(() -> chatClient.prompt()
                 .system("répond toujours en Majuscule")
-                .messages(exemples)
+                .messages(EXEMPLES)
                 .user(query)
+                .advisors(a -> a.param(AdvisorParams.ENDPOINT, "/chat"))
+                .advisors(a -> AdvisorParams.conversation(a, conversationId))
                 .call()
-                .content();
+                .content()));
     }
 }
@@ -1,8 +1,9 @@
 package com.example.Test_AI_LLM.controller;
 
+import com.example.Test_AI_LLM.advisor.AdvisorParams;
+import com.example.Test_AI_LLM.service.Bulkheads;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
-import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,35 +12,41 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.http.MediaType;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RestController
 @CrossOrigin("*")
 public class AiAgentStreamingController {
 
     private final ChatClient chatClient;
+    private final Bulkheads bulkheads;
 
-    public AiAgentStreamingController(ChatClient.Builder builder, ChatMemory chatMemory) {
+    public AiAgentStreamingController(ChatClient.Builder builder, ChatMemory chatMemory, Bulkheads bulkheads) {
+        this.bulkheads = bulkheads;
         this.chatClient = builder
-                .defaultAdvisors(
-                        new SimpleLoggerAdvisor(),
-                        MessageChatMemoryAdvisor.builder(chatMemory).build()
-                )
+                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).build())
                 .build();
     }
 
     @GetMapping("/nostream")
-    public String nostream(@RequestParam String query) {
-        return chatClient
+    public Mono<String> nostream(@RequestParam String query,
+                                 @RequestParam(required = false) String conversationId) {
+        return Mono.fromFuture(() -> bulkheads.text().submit(() -> chatClient
                 .prompt()
                 .user(query)
+                .advisors(a -> a.param(AdvisorParams.ENDPOINT, "/nostream"))
+                .advisors(a -> AdvisorParams.conversation(a, conversationId))
                 .call()
-                .content();
+                .content()));
     }
 
     @GetMapping(value="/stream", produces = MediaType.TEXT_PLAIN_VALUE)
-    public Flux<String> stream(@RequestParam String query) {
+    public Flux<String> stream(@RequestParam String query,
+                               @RequestParam(required = false) String conversationId) {
         return chatClient.prompt()
                 .user(query)
+                .advisors(a -> a.param(AdvisorParams.ENDPOINT, "/stream"))
+                .advisors(a -> AdvisorParams.conversation(a, conversationId))
                 .stream()
                 .content();
     }
@@ -1,40 +1,149 @@
 package com.example.Test_AI_LLM.controller;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
-import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
+import com.example.Test_AI_LLM.advisor.AdvisorParams;
+import com.example.Test_AI_LLM.config.FanOutProperties;
+import com.example.Test_AI_LLM.exception.StructuredOutputException;
+import com.example.Test_AI_LLM.outputs.Movie;
 import com.example.Test_AI_LLM.outputs.MovieList;
+import com.example.Test_AI_LLM.service.Bulkheads;
+import com.example.Test_AI_LLM.service.FanOutService;
+import com.example.Test_AI_LLM.service.IncrementalJsonObjectScanner;
+import com.example.Test_AI_LLM.service.MovieKnowledgeService;
+import com.example.Test_AI_LLM.service.StructuredExtractionService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+@Slf4j
 @RestController
 public class AiAgentStructuredController {
 
+    private static final String SYSTEM_MESSAGE = """
+                Vous étes spécialiste dans le domaine de cinema
+                Répond a mla question des ulisateur a ce propos
+                """;
 
     private ChatClient chatClient;
+    // sous-requêtes du fan-out : sans mémoire, pour qu'elles restent indépendantes
+    private final ChatClient legClient;
+    private final Bulkheads bulkheads;
+    private final StructuredExtractionService extraction;
+    private final FanOutService fanOutService;
+    private final FanOutProperties fanOutProperties;
+    private final MovieKnowledgeService knowledge;
+    private final MeterRegistry meterRegistry;
+    private final Timer timeToFirstMovie;
 
-    public AiAgentStructuredController(ChatClient.Builder builder, ChatMemory chatMemory){
+    public AiAgentStructuredController(ChatClient.Builder builder, ChatMemory chatMemory, Bulkheads bulkheads,
+                                       StructuredExtractionService extraction, MeterRegistry meterRegistry,
+                                       FanOutService fanOutService, FanOutProperties fanOutProperties,
+                                       MovieKnowledgeService knowledge){
+        this.knowledge = knowledge;
+        this.bulkheads = bulkheads;
+        this.extraction = extraction;
+        this.fanOutService = fanOutService;
+        this.fanOutProperties = fanOutProperties;
+        this.meterRegistry = meterRegistry;
+        this.timeToFirstMovie = Timer.builder("askagent.stream.first.movie")
+                .description("Délai entre la requête et le premier film émis")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+        this.legClient = builder.clone().build();
         this.chatClient = builder
-                .defaultAdvisors(new SimpleLoggerAdvisor())
                 .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).build())
                 .build();
     }
 
     @GetMapping("/askAgent")
-    public MovieList askLLM(String query){
-        String sytemMessages = """
-                Vous étes spécialiste dans le domaine de cinema
-                Répond a mla question des ulisateur a ce propos
-                """;
-        return chatClient.prompt()
-                .system(sytemMessages)
+    public Mono<MovieList> askLLM(String query, Boolean fanOut){
+        if (!knowledge.isEnabled()) {
+            return Mono.fromFuture(() -> askModel(query, fanOut));
+        }
+        // base locale (JPA, bloquante) : consultée hors des threads d'entrée/sortie
+        return Mono.fromCallable(() -> knowledge.resolve(query))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(known -> known.map(Mono::just).orElseGet(() ->
+                        // l'écriture non plus ne doit pas occuper un thread du bulkhead ou du minuteur
+                        Mono.fromFuture(() -> askModel(query, fanOut))
+                                .publishOn(Schedulers.boundedElastic())
+                                .doOnNext(result -> knowledge.record(query, result))));
+    }
+
+    private CompletableFuture<MovieList> askModel(String query, Boolean fanOut) {
+        if (fanOut != null ? fanOut : fanOutProperties.isEnabled()) {
+            List<String> plan = fanOutService.plan(query);
+            if (plan.size() > 1) {
+                log.info("Fanning out /askAgent query into {} sub-queries", plan.size());
+                return fanOutService.gather(plan, subQuery -> extraction.call(legClient.prompt()
+                        .system(SYSTEM_MESSAGE)
+                        .user(subQuery)
+                        .advisors(a -> a.param(AdvisorParams.ENDPOINT, "/askAgent/fanout")), MovieList.class));
+            }
+        }
+        return bulkheads.text().submit(() -> extraction.call(chatClient.prompt()
+                .system(SYSTEM_MESSAGE)
                 .user(query)
-                .call()
-                .entity(MovieList.class);
+                .advisors(a -> a.param(AdvisorParams.ENDPOINT, "/askAgent")), MovieList.class));
+    }
+
+    /**
+     * Variante en flux : chaque film est émis (NDJSON ou SSE) dès que son objet JSON est complet.
+     */
+    @GetMapping(value = "/askAgent/stream",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Movie> askLLMStream(String query){
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            IncrementalJsonObjectScanner scanner = new IncrementalJsonObjectScanner();
+            return extraction.withFormat(chatClient.prompt()
+                            .system(SYSTEM_MESSAGE)
+                            .user(query)
+                            .advisors(a -> a.param(AdvisorParams.ENDPOINT, "/askAgent/stream")), MovieList.class)
+                    .stream()
+                    .content()
+                    .concatMapIterable(scanner::feed)
+                    .concatWith(Flux.defer(() -> {
+                        if (scanner.hasPartial()) {
+                            log.warn("Structured stream ended inside a movie object, dropping the truncated tail");
+                            Counter.builder("askagent.stream.truncated").register(meterRegistry).increment();
+                        }
+                        return Flux.empty();
+                    }))
+                    .mapNotNull(this::toMovie)
+                    .doOnNext(movie -> {
+                        if (first.compareAndSet(true, false)) {
+                            timeToFirstMovie.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    });
+        });
+    }
+
+    private Movie toMovie(String json) {
+        try {
+            return extraction.parse(json, Movie.class);
+        } catch (StructuredOutputException e) {
+            log.warn("Skipping malformed movie object: {}", e.getMessage());
+            Counter.builder("askagent.stream.malformed").register(meterRegistry).increment();
+            return null;
+        }
     }
 }
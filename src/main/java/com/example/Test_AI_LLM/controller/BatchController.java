@@ -0,0 +1,76 @@
+package com.example.Test_AI_LLM.controller;
+
+import com.example.Test_AI_LLM.dto.BatchItemResponse;
+import com.example.Test_AI_LLM.dto.BatchJobResponse;
+import com.example.Test_AI_LLM.entity.BatchJob;
+import com.example.Test_AI_LLM.repository.BatchItemRepository;
+import com.example.Test_AI_LLM.service.BatchExtractionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Soumission de requêtes en lot (une requête par ligne du fichier) et consultation des résultats.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/batches")
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchExtractionService batchService;
+    private final BatchItemRepository itemRepository;
+
+    // le fichier est lu comme texte par les deux piles (servlet et WebFlux) ; JPA et l'envoi au
+    // fournisseur sont bloquants, donc exécutés hors des threads d'entrée/sortie
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<BatchJobResponse>> submit(@RequestPart("file") String file,
+                                                         @RequestParam(defaultValue = "MovieList") String target) {
+        return blocking(() -> {
+            List<String> queries = file.lines().toList();
+            log.info("Received batch of {} lines for target {}", queries.size(), target);
+            BatchJob job = batchService.submit(target, queries);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(BatchJobResponse.from(job));
+        });
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<BatchJobResponse>> status(@PathVariable Long id) {
+        return blocking(() -> batchService.find(id)
+                .map(job -> ResponseEntity.ok(BatchJobResponse.from(job)))
+                .orElse(ResponseEntity.notFound().build()));
+    }
+
+    @PostMapping("/{id}/refresh")
+    public Mono<ResponseEntity<BatchJobResponse>> refresh(@PathVariable Long id) {
+        return blocking(() -> batchService.find(id)
+                .map(job -> ResponseEntity.ok(BatchJobResponse.from(batchService.refresh(job))))
+                .orElse(ResponseEntity.notFound().build()));
+    }
+
+    @GetMapping("/{id}/results")
+    public Mono<ResponseEntity<List<BatchItemResponse>>> results(@PathVariable Long id,
+                                                                 @RequestParam(defaultValue = "0") int page,
+                                                                 @RequestParam(defaultValue = "100") int size) {
+        return blocking(() -> batchService.find(id)
+                .map(job -> ResponseEntity.ok(itemRepository
+                        .findByJob(job, PageRequest.of(page, Math.min(size, 1000), Sort.by("id")))
+                        .map(BatchItemResponse::from)
+                        .getContent()))
+                .orElse(ResponseEntity.notFound().build()));
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -2,6 +2,8 @@ package com.example.Test_AI_LLM.controller;
 
 import com.example.Test_AI_LLM.dto.ImageGenerationRequest;
 import com.example.Test_AI_LLM.dto.ImageGenerationResponse;
+import com.example.Test_AI_LLM.exception.BulkheadFullException;
+import com.example.Test_AI_LLM.service.Bulkheads;
 import com.example.Test_AI_LLM.service.ImageGenerationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +11,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletionException;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/images")
@@ -16,28 +22,35 @@ import org.springframework.web.bind.annotation.*;
 public class ImageGenerationController {
 
     private final ImageGenerationService imageGenerationService;
+    private final Bulkheads bulkheads;
 
     @PostMapping("/generate")
-    public ResponseEntity<ImageGenerationResponse> generateImage(
+    public Mono<ResponseEntity<ImageGenerationResponse>> generateImage(
             @Valid @RequestBody ImageGenerationRequest request) {
 
         log.info("Received image generation request: {}", request.prompt());
 
-        try {
-            ImageGenerationResponse response = imageGenerationService.generateImage(request);
-            log.info("Image generated successfully");
-            return ResponseEntity.ok(response);
+        return Mono.fromFuture(() -> bulkheads.image().submit(() -> imageGenerationService.generateImage(request)))
+                .map(response -> {
+                    log.info("Image generated successfully");
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> !(e instanceof BulkheadFullException),
+                        e -> Mono.just(toErrorResponse(request, e)));
+    }
 
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid request: {}", e.getMessage());
+    private ResponseEntity<ImageGenerationResponse> toErrorResponse(ImageGenerationRequest request, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        if (cause instanceof IllegalArgumentException) {
+            log.error("Invalid request: {}", cause.getMessage());
             return ResponseEntity.badRequest()
-                    .body(new ImageGenerationResponse(null, request.prompt(), e.getMessage()));
-
-        } catch (Exception e) {
-            log.error("Error generating image", e);
-            return ResponseEntity.internalServerError()
-                    .body(new ImageGenerationResponse(null, request.prompt(),
-                            "Internal error: " + e.getMessage()));
+                    .body(new ImageGenerationResponse(null, request.prompt(), cause.getMessage()));
         }
+
+        log.error("Error generating image", cause);
+        return ResponseEntity.internalServerError()
+                .body(new ImageGenerationResponse(null, request.prompt(),
+                        "Internal error: " + cause.getMessage()));
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.example.Test_AI_LLM.controller;
+
+import com.example.Test_AI_LLM.dto.ImageAnswer;
+import com.example.Test_AI_LLM.service.ImageUploadStager;
+import com.example.Test_AI_LLM.service.StagedImage;
+import com.example.Test_AI_LLM.service.VisionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Images envoyées par le client, pile servlet : copie en flux sur disque (type détecté sur les
+ * octets, empreinte calculée au passage) sur le thread de la requête, puis appel au modèle.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ImageUploadController {
+
+    private final VisionService vision;
+    private final ImageUploadStager uploads;
+
+    @PostMapping(value="/askDowload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<String> askImageDowload(@RequestParam(name="file") MultipartFile file, String query) {
+        StagedImage staged = uploads.stage(file);
+        return Mono.fromFuture(() -> vision.ask(staged, query));
+    }
+
+    /**
+     * Mode « packed » : toutes les images dans un seul prompt, pour les questions qui les croisent.
+     */
+    @PostMapping(value = "/askMultiple", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, params = "mode!=parallel")
+    public Mono<String> askMultiplePacked(@RequestParam(name = "files") List<MultipartFile> files, String query) {
+        List<StagedImage> staged = stageAll(files);
+        return Mono.fromFuture(() -> vision.askPacked(staged, query));
+    }
+
+    /**
+     * Mode « parallel » : un appel par image, réponses émises (NDJSON ou SSE) dans l'ordre d'arrivée.
+     */
+    @PostMapping(value = "/askMultiple", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, params = "mode=parallel",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<ImageAnswer> askMultipleParallel(@RequestParam(name = "files") List<MultipartFile> files,
+                                                 String query) {
+        List<StagedImage> staged = stageAll(files);
+        return vision.askParallel(staged, files.stream().map(MultipartFile::getOriginalFilename).toList(), query);
+    }
+
+    /**
+     * Copie toutes les images puis vérifie le budget de pixels sur leurs en-têtes, avant toute préparation.
+     */
+    private List<StagedImage> stageAll(List<MultipartFile> files) {
+        vision.checkCount(files == null ? 0 : files.size());
+        List<StagedImage> staged = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                staged.add(uploads.stage(file));
+            }
+        } catch (RuntimeException e) {
+            staged.forEach(StagedImage::close);
+            throw e;
+        }
+        return vision.checkBudget(staged);
+    }
+}
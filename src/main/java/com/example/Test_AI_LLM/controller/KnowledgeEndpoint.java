@@ -0,0 +1,26 @@
+package com.example.Test_AI_LLM.controller;
+
+import com.example.Test_AI_LLM.service.MovieKnowledgeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/knowledge} : taille de la base locale de films et taux de réponses servies
+ * sans appel au modèle ; le détail par issue est dans {@code knowledge.lookups}.
+ */
+@Component
+@Endpoint(id = "knowledge")
+@RequiredArgsConstructor
+public class KnowledgeEndpoint {
+
+    private final MovieKnowledgeService knowledgeService;
+
+    @ReadOperation
+    public Map<String, Object> knowledge() {
+        return knowledgeService.snapshot();
+    }
+}
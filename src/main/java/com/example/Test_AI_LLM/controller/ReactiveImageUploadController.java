@@ -0,0 +1,77 @@
+package com.example.Test_AI_LLM.controller;
+
+import com.example.Test_AI_LLM.dto.ImageAnswer;
+import com.example.Test_AI_LLM.service.ImageUploadStager;
+import com.example.Test_AI_LLM.service.StagedImage;
+import com.example.Test_AI_LLM.service.VisionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Images envoyées par le client, pile WebFlux : mêmes routes et mêmes réponses que
+ * {@link ImageUploadController}. La question peut venir de l'URL ou d'un champ du formulaire.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveImageUploadController {
+
+    private final VisionService vision;
+    private final ImageUploadStager uploads;
+
+    @PostMapping(value = "/askDowload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<String> askImageDowload(@RequestPart(name = "file") FilePart file,
+                                        @RequestParam(name = "query", required = false) String query,
+                                        @RequestPart(name = "query", required = false) String queryPart) {
+        return uploads.stage(file)
+                .flatMap(staged -> Mono.fromFuture(() -> vision.ask(staged, query(query, queryPart))));
+    }
+
+    @PostMapping(value = "/askMultiple", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, params = "mode!=parallel")
+    public Mono<String> askMultiplePacked(@RequestPart(name = "files") List<FilePart> files,
+                                          @RequestParam(name = "query", required = false) String query,
+                                          @RequestPart(name = "query", required = false) String queryPart) {
+        return stageAll(files)
+                .flatMap(staged -> Mono.fromFuture(() -> vision.askPacked(staged, query(query, queryPart))));
+    }
+
+    @PostMapping(value = "/askMultiple", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, params = "mode=parallel",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<ImageAnswer> askMultipleParallel(@RequestPart(name = "files") List<FilePart> files,
+                                                 @RequestParam(name = "query", required = false) String query,
+                                                 @RequestPart(name = "query", required = false) String queryPart) {
+        return stageAll(files)
+                .flatMapMany(staged -> vision.askParallel(staged,
+                        files.stream().map(FilePart::filename).toList(), query(query, queryPart)));
+    }
+
+    /**
+     * Copie les images une à une puis vérifie le budget de pixels ; en cas d'échec, les copies
+     * déjà faites sont supprimées.
+     */
+    private Mono<List<StagedImage>> stageAll(List<FilePart> files) {
+        return Mono.defer(() -> {
+            vision.checkCount(files == null ? 0 : files.size());
+            List<StagedImage> staged = new CopyOnWriteArrayList<>();
+            return Flux.fromIterable(files)
+                    .concatMap(uploads::stage)
+                    .doOnNext(staged::add)
+                    .then(Mono.fromCallable(() -> vision.checkBudget(List.copyOf(staged)))
+                            .subscribeOn(Schedulers.boundedElastic()))
+                    .doOnError(e -> staged.forEach(StagedImage::close));
+        });
+    }
+
+    private static String query(String query, String queryPart) {
+        return query != null ? query : queryPart;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.Test_AI_LLM.controller;
+
+import com.example.Test_AI_LLM.service.RoutingChatModel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/routing} : état courant de chaque fournisseur (latence moyenne,
+ * taux d'erreur, score) ; les décisions et histogrammes sont dans {@code /actuator/metrics}.
+ */
+@Component
+@Endpoint(id = "routing")
+@RequiredArgsConstructor
+public class RoutingEndpoint {
+
+    private final RoutingChatModel routingChatModel;
+
+    @ReadOperation
+    public Map<String, Object> routing() {
+        return routingChatModel.snapshot();
+    }
+}
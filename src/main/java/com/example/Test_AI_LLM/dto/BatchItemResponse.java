@@ -0,0 +1,20 @@
+package com.example.Test_AI_LLM.dto;
+
+import com.example.Test_AI_LLM.entity.BatchItem;
+import com.example.Test_AI_LLM.entity.BatchItemStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResponse(
+        String customId,
+        String query,
+        BatchItemStatus status,
+        @JsonRawValue String result,
+        String error
+) {
+    public static BatchItemResponse from(BatchItem item) {
+        return new BatchItemResponse(item.getCustomId(), item.getQuery(), item.getStatus(),
+                item.getResultJson(), item.getError());
+    }
+}
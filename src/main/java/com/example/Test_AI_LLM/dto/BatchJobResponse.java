@@ -0,0 +1,26 @@
+package com.example.Test_AI_LLM.dto;
+
+import com.example.Test_AI_LLM.entity.BatchJob;
+import com.example.Test_AI_LLM.entity.BatchJobStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchJobResponse(
+        Long id,
+        String target,
+        BatchJobStatus status,
+        String providerStatus,
+        int totalItems,
+        int succeededItems,
+        int failedItems,
+        Instant createdAt,
+        Instant completedAt
+) {
+    public static BatchJobResponse from(BatchJob job) {
+        return new BatchJobResponse(job.getId(), job.getTarget(), job.getStatus(), job.getProviderStatus(),
+                job.getTotalItems(), job.getSucceededItems(), job.getFailedItems(),
+                job.getCreatedAt(), job.getCompletedAt());
+    }
+}
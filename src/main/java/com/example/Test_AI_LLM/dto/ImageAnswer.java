@@ -0,0 +1,20 @@
+package com.example.Test_AI_LLM.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Réponse pour une image de {@code /askMultiple} en mode parallèle, émise dès qu'elle arrive.
+ *
+ * @param index position de l'image dans la requête
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImageAnswer(int index, String filename, String answer, String error) {
+
+    public static ImageAnswer success(int index, String filename, String answer) {
+        return new ImageAnswer(index, filename, answer, null);
+    }
+
+    public static ImageAnswer failure(int index, String filename, String error) {
+        return new ImageAnswer(index, filename, null, error);
+    }
+}
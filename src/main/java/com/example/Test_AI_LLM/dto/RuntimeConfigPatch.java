@@ -0,0 +1,33 @@
+package com.example.Test_AI_LLM.dto;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Changement partiel de configuration pour {@code PATCH /admin/config} : seuls les champs
+ * renseignés sont appliqués. Les durées sont au format ISO-8601 ({@code "PT10S"}).
+ *
+ * @param bulkheads limites par bulkhead ({@code text}, {@code vision}, {@code image})
+ * @param http      réglages communs à tous les pools de connexions
+ * @param models    modèles utilisés par les clients
+ */
+public record RuntimeConfigPatch(Map<String, Pool> bulkheads, Http http, Models models) {
+
+    public record Pool(Integer coreThreads, Integer maxThreads, Integer maxConnections,
+                       Integer pendingAcquireMaxCount, Duration pendingAcquireTimeout) {
+    }
+
+    public record Http(Boolean http2, Duration connectTimeout, Duration readTimeout, Duration responseTimeout,
+                       Duration writeTimeout, Duration maxIdleTime, Duration maxLifeTime,
+                       Duration evictionInterval, Duration drainTimeout) {
+    }
+
+    /**
+     * @param chat  modèle par défaut du chat et de la vision
+     * @param small petit modèle du routage par complexité
+     * @param large grand modèle du routage par complexité
+     * @param image modèle de génération d'images
+     */
+    public record Models(String chat, String small, String large, String image) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.Test_AI_LLM.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Une requête d'un lot et son résultat structuré (JSON validé) une fois le lot terminé.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "batch_item",
+        indexes = {
+                @Index(name = "idx_batch_item_job", columnList = "job_id"),
+                @Index(name = "idx_batch_item_job_status", columnList = "job_id, status")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_batch_item_custom_id", columnNames = {"job_id", "customId"}))
+public class BatchItem {
+
+    // séquence plutôt qu'IDENTITY pour que Hibernate puisse regrouper les insertions
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "batch_item_seq")
+    @SequenceGenerator(name = "batch_item_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "job_id")
+    private BatchJob job;
+
+    @Column(nullable = false)
+    private String customId;
+
+    @Column(nullable = false, length = 4000)
+    private String query;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BatchItemStatus status = BatchItemStatus.PENDING;
+
+    @Lob
+    private String resultJson;
+
+    @Column(length = 2000)
+    private String error;
+
+    public BatchItem(BatchJob job, String customId, String query) {
+        this.job = job;
+        this.customId = customId;
+        this.query = query;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.Test_AI_LLM.entity;
+
+public enum BatchItemStatus {
+    PENDING,
+    SUCCEEDED,
+    FAILED
+}
@@ -0,0 +1,44 @@
+package com.example.Test_AI_LLM.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Un lot de requêtes soumis à l'API batch du fournisseur.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "batch_job", indexes = @Index(name = "idx_batch_job_status", columnList = "status"))
+public class BatchJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String target;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BatchJobStatus status = BatchJobStatus.SUBMITTED;
+
+    private String providerBatchId;
+    private String providerStatus;
+    private String inputFileId;
+    private String outputFileId;
+    private String errorFileId;
+
+    private int totalItems;
+    private int succeededItems;
+    private int failedItems;
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+    private Instant completedAt;
+}
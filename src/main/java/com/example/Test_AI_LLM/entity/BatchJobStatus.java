@@ -0,0 +1,19 @@
+package com.example.Test_AI_LLM.entity;
+
+/**
+ * Cycle de vie d'un lot côté application. {@code PENDING} est enregistré avant tout appel
+ * au fournisseur, {@code COMPLETED} n'est posé qu'une fois les résultats importés en base.
+ */
+public enum BatchJobStatus {
+    PENDING,
+    SUBMITTED,
+    IN_PROGRESS,
+    COMPLETED,
+    FAILED,
+    EXPIRED,
+    CANCELLED;
+
+    public boolean isActive() {
+        return this == SUBMITTED || this == IN_PROGRESS;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.Test_AI_LLM.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Film extrait d'une réponse du modèle. Les colonnes {@code *_key} portent les valeurs
+ * normalisées utilisées pour dédoublonner et rechercher.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "movie",
+        indexes = {
+                @Index(name = "idx_movie_director", columnList = "directorKey"),
+                @Index(name = "idx_movie_genre", columnList = "genreKey"),
+                @Index(name = "idx_movie_year", columnList = "releaseYear")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_movie_identity",
+                columnNames = {"titleKey", "releaseYear", "directorKey"}))
+public class MovieEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+    private String director;
+    private String genre;
+
+    // « year » est un mot réservé H2
+    @Column(nullable = false)
+    private String releaseYear;
+
+    @Column(nullable = false)
+    private String titleKey;
+    @Column(nullable = false)
+    private String directorKey;
+    @Column(nullable = false)
+    private String genreKey;
+
+    @Column(nullable = false)
+    private Instant firstSeen;
+    @Column(nullable = false)
+    private Instant lastSeen;
+}
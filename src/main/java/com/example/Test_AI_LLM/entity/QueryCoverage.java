@@ -0,0 +1,41 @@
+package com.example.Test_AI_LLM.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Combinaison de critères (réalisateur, genre, année) à laquelle le modèle a déjà répondu :
+ * tant qu'elle est récente, les requêtes sur ces critères sont servies depuis la base.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "query_coverage")
+public class QueryCoverage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String facetKey;
+
+    @Column(nullable = false)
+    private Instant resolvedAt;
+
+    private int movieCount;
+
+    /**
+     * Réponse complète pour ces critères (filmographie), qui sert aussi les requêtes plus précises.
+     */
+    private boolean exhaustive;
+
+    public QueryCoverage(String facetKey) {
+        this.facetKey = facetKey;
+    }
+}
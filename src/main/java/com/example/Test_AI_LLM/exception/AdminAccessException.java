@@ -0,0 +1,21 @@
+package com.example.Test_AI_LLM.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Appel à l'API d'administration refusé : jeton absent ou invalide (401),
+ * ou API désactivée faute de jeton configuré (403).
+ */
+public class AdminAccessException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public AdminAccessException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -2,12 +2,16 @@ package com.example.Test_AI_LLM.exception;
 
 import com.example.Test_AI_LLM.dto.ImageGenerationResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -19,9 +23,18 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
+        return validationErrors(ex.getBindingResult());
+    }
+
+    // équivalent WebFlux de MethodArgumentNotValidException (profil reactive)
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleValidationExceptions(WebExchangeBindException ex) {
+        return validationErrors(ex.getBindingResult());
+    }
 
+    private ResponseEntity<Map<String, String>> validationErrors(BindingResult bindingResult) {
         Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
+        bindingResult.getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
             String errorMessage = error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
@@ -31,6 +44,49 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errors);
     }
 
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ImageGenerationResponse> handleBulkheadFull(BulkheadFullException ex) {
+        log.warn("Request rejected by bulkhead '{}'", ex.getBulkhead());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ImageGenerationResponse.error(null, ex.getMessage()));
+    }
+
+    @ExceptionHandler(StructuredOutputException.class)
+    public ResponseEntity<ImageGenerationResponse> handleStructuredOutput(StructuredOutputException ex) {
+        log.warn("Model returned an unusable {}: {}", ex.getTargetType().getSimpleName(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .body(ImageGenerationResponse.error(null, ex.getMessage()));
+    }
+
+    @ExceptionHandler(ImageUploadException.class)
+    public ResponseEntity<ImageGenerationResponse> handleImageUpload(ImageUploadException ex) {
+        log.warn("Image upload rejected: {}", ex.getMessage());
+        return ResponseEntity.status(ex.getStatus())
+                .body(ImageGenerationResponse.error(null, ex.getMessage()));
+    }
+
+    @ExceptionHandler(AdminAccessException.class)
+    public ResponseEntity<Map<String, String>> handleAdminAccess(AdminAccessException ex) {
+        log.warn("Admin API access refused: {}", ex.getMessage());
+        return ResponseEntity.status(ex.getStatus()).body(Map.of("error", ex.getMessage()));
+    }
+
+    // paramètres refusés par un contrôleur ou un service (image illisible, lot invalide, changement
+    // de configuration refusé...)
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
+        log.warn("Invalid request: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(ex.getMessage())));
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ImageGenerationResponse> handleMaxUploadSize(MaxUploadSizeExceededException ex) {
+        log.warn("Multipart upload too large: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(ImageGenerationResponse.error(null, "Upload exceeds the maximum size"));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ImageGenerationResponse> handleGenericException(Exception ex) {
         log.error("Unexpected error", ex);
@@ -0,0 +1,21 @@
+package com.example.Test_AI_LLM.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Image envoyée refusée avant tout appel au modèle : trop grande (413) ou d'un type
+ * non reconnu d'après ses premiers octets (415).
+ */
+public class ImageUploadException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public ImageUploadException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.Test_AI_LLM.exception;
+
+/**
+ * La réponse du modèle ne peut pas être convertie (JSON illisible ou incomplet)
+ * ou ne respecte pas les contraintes de validation du type cible.
+ */
+public class StructuredOutputException extends RuntimeException {
+
+    private final Class<?> targetType;
+
+    public StructuredOutputException(Class<?> targetType, String reason) {
+        this(targetType, reason, null);
+    }
+
+    public StructuredOutputException(Class<?> targetType, String reason, Throwable cause) {
+        super("Invalid structured output for " + targetType.getSimpleName() + ": " + reason, cause);
+        this.targetType = targetType;
+    }
+
+    public Class<?> getTargetType() {
+        return targetType;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.Test_AI_LLM.logging;
+
+import org.springframework.ai.chat.messages.Message;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Appel au modèle tel que capturé sur le thread de requête : seulement des références (messages,
+ * texte de réponse), la troncature, le caviardage et la sérialisation sont faits par {@link AsyncLogWriter}.
+ *
+ * @param mode      {@code call} ou {@code stream}
+ * @param outcome   {@code success}, {@code error} ou {@code cancelled}
+ * @param sampled   {@code false} pour un échec journalisé hors échantillon
+ */
+public record AdvisorLogEvent(
+        Instant timestamp,
+        String endpoint,
+        String mode,
+        String model,
+        String conversationId,
+        List<Message> messages,
+        String response,
+        Integer promptTokens,
+        Integer completionTokens,
+        long durationNanos,
+        String outcome,
+        String error,
+        boolean sampled
+) {
+}
@@ -0,0 +1,166 @@
+package com.example.Test_AI_LLM.logging;
+
+import com.example.Test_AI_LLM.config.LlmLoggingProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.content.Media;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Appender asynchrone des événements {@link AdvisorLogEvent} : les threads de requête déposent
+ * l'événement dans un {@link DroppingRingBuffer} et repartent ; un thread dédié tronque, caviarde,
+ * sérialise en JSON et écrit sur le logger {@code llm.events}. Tampon plein : l'événement est perdu
+ * et compté ({@code llm.log.dropped}), jamais attendu.
+ */
+@Slf4j
+public class AsyncLogWriter implements AutoCloseable {
+
+    private static final Logger events = LoggerFactory.getLogger("llm.events");
+    private static final String REDACTED = "[caviardé]";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final DroppingRingBuffer<AdvisorLogEvent> buffer;
+    private final ObjectMapper objectMapper;
+    private final int maxChars;
+    private final List<Pattern> redactions;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean parked;
+    private long reportedDrops;
+
+    public AsyncLogWriter(LlmLoggingProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.buffer = new DroppingRingBuffer<>(properties.getBufferSize());
+        this.objectMapper = objectMapper;
+        this.maxChars = properties.getMaxChars();
+        this.redactions = properties.getRedactPatterns().stream().map(Pattern::compile).toList();
+
+        FunctionCounter.builder("llm.log.dropped", buffer, DroppingRingBuffer::dropped)
+                .description("Événements de journalisation perdus, tampon plein")
+                .register(meterRegistry);
+        Gauge.builder("llm.log.buffer.size", buffer, DroppingRingBuffer::size)
+                .register(meterRegistry);
+
+        this.thread = Thread.ofPlatform().name("llm-log-writer").daemon().start(this::drain);
+    }
+
+    /**
+     * Ne bloque jamais : renvoie {@code false} si l'événement a été perdu.
+     */
+    public boolean publish(AdvisorLogEvent event) {
+        if (!buffer.offer(event)) {
+            return false;
+        }
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    public long dropped() {
+        return buffer.dropped();
+    }
+
+    private void drain() {
+        while (running || !buffer.isEmpty()) {
+            AdvisorLogEvent event = buffer.poll();
+            if (event != null) {
+                write(event);
+                continue;
+            }
+            reportDrops();
+            parked = true;
+            // revérifie après avoir signalé l'attente : un producteur a pu publier entre-temps
+            if (buffer.isEmpty() && running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            parked = false;
+        }
+        reportDrops();
+    }
+
+    private void write(AdvisorLogEvent event) {
+        try {
+            events.info(objectMapper.writeValueAsString(format(event)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not write LLM log event for {}: {}", event.endpoint(), e.toString());
+        }
+    }
+
+    Map<String, Object> format(AdvisorLogEvent event) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("timestamp", event.timestamp().toString());
+        json.put("endpoint", event.endpoint());
+        json.put("mode", event.mode());
+        json.put("model", event.model());
+        json.put("conversationId", event.conversationId());
+        json.put("outcome", event.outcome());
+        json.put("durationMs", Duration.ofNanos(event.durationNanos()).toMillis());
+        json.put("promptTokens", event.promptTokens());
+        json.put("completionTokens", event.completionTokens());
+        json.put("sampled", event.sampled());
+        if (event.error() != null) {
+            json.put("error", clean(event.error()));
+        }
+        json.put("messages", event.messages().stream().map(this::format).toList());
+        if (event.response() != null) {
+            json.put("response", clean(event.response()));
+        }
+        return json;
+    }
+
+    private Map<String, Object> format(Message message) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("role", message.getMessageType().getValue());
+        json.put("text", clean(message.getText()));
+        // les médias ne sont jamais écrits, seulement leur type
+        if (message instanceof UserMessage user && !user.getMedia().isEmpty()) {
+            json.put("media", user.getMedia().stream().map(Media::getMimeType).map(Object::toString).toList());
+        }
+        return json;
+    }
+
+    // caviardage sur le texte entier avant la coupe : un secret à cheval sur la limite ne doit
+    // pas échapper aux motifs en perdant sa fin
+    String clean(String text) {
+        if (text == null) {
+            return null;
+        }
+        String redacted = text;
+        for (Pattern pattern : redactions) {
+            redacted = pattern.matcher(redacted).replaceAll(REDACTED);
+        }
+        return redacted.length() > maxChars
+                ? redacted.substring(0, maxChars) + "…(+" + (redacted.length() - maxChars) + ")"
+                : redacted;
+    }
+
+    private void reportDrops() {
+        long drops = buffer.dropped();
+        if (drops > reportedDrops) {
+            log.warn("{} LLM log events dropped, buffer full ({} total)", drops - reportedDrops, drops);
+            reportedDrops = drops;
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.Test_AI_LLM.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tampon circulaire borné, plusieurs producteurs et un seul consommateur, sans verrou.
+ * Un producteur réserve une case par CAS sur la queue ; si le tampon est plein, l'élément est
+ * compté comme perdu et {@link #offer} rend la main immédiatement, sans jamais attendre le consommateur.
+ */
+public class DroppingRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    // écrit par le seul consommateur, une fois la case libérée
+    private volatile long head;
+
+    public DroppingRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return {@code false} si le tampon est plein (l'élément est compté dans {@link #dropped()})
+     */
+    public boolean offer(E element) {
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head >= slots.length()) {
+                dropped.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+        slots.setRelease((int) claimed & mask, element);
+        return true;
+    }
+
+    /**
+     * Réservé au consommateur. Renvoie {@code null} si le tampon est vide, ou si le producteur
+     * de la case suivante ne l'a pas encore remplie (elle sera lue au prochain appel).
+     */
+    public E poll() {
+        long current = head;
+        int index = (int) current & mask;
+        E element = slots.getAcquire(index);
+        if (element == null) {
+            return null;
+        }
+        slots.setRelease(index, null);
+        head = current + 1;
+        return element;
+    }
+
+    public boolean isEmpty() {
+        return tail.get() == head;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head);
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+}
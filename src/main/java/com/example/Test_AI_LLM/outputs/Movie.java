@@ -1,5 +1,6 @@
 package com.example.Test_AI_LLM.outputs;
 
+import jakarta.validation.constraints.NotBlank;
 
-public record Movie(String title, String year, String director, String genre) {
-}
\ No newline at end of file
+public record Movie(@NotBlank String title, String year, String director, String genre) {
+}
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.example.Test_AI_LLM.outputs;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
 import java.util.List;
 
-public record MovieList(List<Movie> movies) {
-}
\ No newline at end of file
+public record MovieList(@NotNull List<@Valid Movie> movies) {
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.example.Test_AI_LLM.repository;
+
+import com.example.Test_AI_LLM.entity.BatchItem;
+import com.example.Test_AI_LLM.entity.BatchJob;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface BatchItemRepository extends JpaRepository<BatchItem, Long> {
+
+    List<BatchItem> findByJobOrderById(BatchJob job);
+
+    Page<BatchItem> findByJob(BatchJob job, Pageable pageable);
+}
@@ -0,0 +1,26 @@
+package com.example.Test_AI_LLM.repository;
+
+import com.example.Test_AI_LLM.entity.BatchJob;
+import com.example.Test_AI_LLM.entity.BatchJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BatchJobRepository extends JpaRepository<BatchJob, Long> {
+
+    List<BatchJob> findByStatusIn(Collection<BatchJobStatus> statuses);
+
+    /**
+     * Passe le lot au statut {@code to} seulement s'il est encore dans l'un des statuts {@code from}.
+     * Renvoie 0 si un autre appel a déjà effectué la transition.
+     */
+    @Modifying
+    @Query("update BatchJob j set j.status = :to where j.id = :id and j.status in :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") Collection<BatchJobStatus> from,
+                   @Param("to") BatchJobStatus to);
+}
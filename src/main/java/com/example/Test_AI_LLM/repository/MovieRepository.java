@@ -0,0 +1,29 @@
+package com.example.Test_AI_LLM.repository;
+
+import com.example.Test_AI_LLM.entity.MovieEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface MovieRepository extends JpaRepository<MovieEntity, Long> {
+
+    Optional<MovieEntity> findByTitleKeyAndReleaseYearAndDirectorKey(String titleKey, String releaseYear,
+                                                                     String directorKey);
+
+    /**
+     * Critères optionnels ; le réalisateur correspond au nom complet ou au nom de famille.
+     */
+    @Query("""
+            select m from MovieEntity m
+            where (:director is null or m.directorKey = :director or m.directorKey like concat('% ', :director))
+              and (:genre is null or m.genreKey = :genre)
+              and (:year is null or m.releaseYear = :year)
+            order by m.releaseYear, m.title
+            """)
+    List<MovieEntity> search(@Param("director") String director,
+                             @Param("genre") String genre,
+                             @Param("year") String year);
+}
@@ -0,0 +1,15 @@
+package com.example.Test_AI_LLM.repository;
+
+import com.example.Test_AI_LLM.entity.QueryCoverage;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface QueryCoverageRepository extends JpaRepository<QueryCoverage, Long> {
+
+    Optional<QueryCoverage> findByFacetKey(String facetKey);
+
+    List<QueryCoverage> findByFacetKeyIn(Collection<String> facetKeys);
+}
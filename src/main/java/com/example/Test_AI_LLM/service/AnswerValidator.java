@@ -0,0 +1,14 @@
+package com.example.Test_AI_LLM.service;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+
+/**
+ * Décide si la réponse du petit modèle peut être gardée ; un refus déclenche l'escalade
+ * vers le grand modèle. Déclarer un autre bean de ce type remplace la validation par défaut.
+ */
+@FunctionalInterface
+public interface AnswerValidator {
+
+    boolean accept(ChatClientRequest request, ChatClientResponse response);
+}
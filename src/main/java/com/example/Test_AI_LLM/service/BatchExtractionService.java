@@ -0,0 +1,335 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.BatchProperties;
+import com.example.Test_AI_LLM.entity.BatchItem;
+import com.example.Test_AI_LLM.entity.BatchItemStatus;
+import com.example.Test_AI_LLM.entity.BatchJob;
+import com.example.Test_AI_LLM.entity.BatchJobStatus;
+import com.example.Test_AI_LLM.exception.StructuredOutputException;
+import com.example.Test_AI_LLM.outputs.MovieList;
+import com.example.Test_AI_LLM.repository.BatchItemRepository;
+import com.example.Test_AI_LLM.repository.BatchJobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Extraction structurée en lot : empaquette les requêtes au format JSONL de l'API batch,
+ * suit le lot puis importe, valide et enregistre les résultats en base.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchExtractionService {
+
+    static final String ENDPOINT = "/v1/chat/completions";
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final EnumSet<BatchJobStatus> ACTIVE = EnumSet.of(BatchJobStatus.SUBMITTED, BatchJobStatus.IN_PROGRESS);
+
+    private static final String MOVIE_SYSTEM = """
+            Vous étes spécialiste dans le domaine de cinema
+            Répond a mla question des ulisateur a ce propos
+            """;
+
+    private final OpenAiBatchClient batchClient;
+    private final BatchJobRepository jobRepository;
+    private final BatchItemRepository itemRepository;
+    private final BatchProperties properties;
+    private final ObjectMapper objectMapper;
+    private final StructuredExtractionService extraction;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // cibles structurées acceptées en lot
+    private final Map<String, Target> targets = Map.of(
+            "MovieList", new Target(MOVIE_SYSTEM, MovieList.class));
+
+    public BatchJob submit(String target, List<String> queries) {
+        Target spec = target(target);
+        List<String> cleaned = queries.stream()
+                .filter(StringUtils::hasText)
+                .map(String::strip)
+                .toList();
+        if (cleaned.isEmpty()) {
+            throw new IllegalArgumentException("Batch contains no query");
+        }
+        if (cleaned.size() > properties.getMaxQueries()) {
+            throw new IllegalArgumentException("Batch contains " + cleaned.size()
+                    + " queries, maximum is " + properties.getMaxQueries());
+        }
+
+        BatchJob job = new BatchJob();
+        job.setTarget(target);
+        job.setStatus(BatchJobStatus.PENDING);
+        job.setTotalItems(cleaned.size());
+        List<BatchItem> items = new ArrayList<>(cleaned.size());
+        for (int i = 0; i < cleaned.size(); i++) {
+            items.add(new BatchItem(job, "q-" + i, cleaned.get(i)));
+        }
+        // le lot est tracé en base avant tout appel payant au fournisseur
+        transactionTemplate.executeWithoutResult(status -> {
+            jobRepository.save(job);
+            itemRepository.saveAll(items);
+        });
+
+        OpenAiBatchClient.Batch batch;
+        try {
+            String fileId = batchClient.uploadInput(toJsonl(spec, items), "batch-" + target + ".jsonl");
+            job.setInputFileId(fileId);
+            batch = batchClient.createBatch(fileId, ENDPOINT, properties.getCompletionWindow());
+        } catch (RuntimeException e) {
+            abandon(job, items, "Submission failed: " + e.getMessage());
+            throw e;
+        }
+        job.setProviderBatchId(batch.id());
+        job.setProviderStatus(batch.status());
+        job.setStatus(BatchJobStatus.SUBMITTED);
+        try {
+            jobRepository.save(job);
+        } catch (RuntimeException e) {
+            // sans ligne à jour, personne ne suivrait ce lot : on l'annule plutôt que de le payer
+            cancelQuietly(batch.id());
+            throw e;
+        }
+        log.info("Submitted batch job {} ({} queries, provider batch {})", job.getId(), items.size(), batch.id());
+        return job;
+    }
+
+    public Optional<BatchJob> find(Long id) {
+        return jobRepository.findById(id);
+    }
+
+    /**
+     * Met à jour le lot depuis le fournisseur. Appelé à la fois par le poller et par l'API :
+     * seul l'appel qui fait passer le lot à son statut final importe les résultats.
+     */
+    public BatchJob refresh(BatchJob job) {
+        if (!job.getStatus().isActive()) {
+            return job;
+        }
+        OpenAiBatchClient.Batch batch = batchClient.retrieveBatch(job.getProviderBatchId());
+        job.setProviderStatus(batch.status());
+        job.setOutputFileId(batch.outputFileId());
+        job.setErrorFileId(batch.errorFileId());
+
+        return switch (batch.status()) {
+            case "completed" -> ingest(job, BatchJobStatus.COMPLETED);
+            case "expired" -> ingest(job, BatchJobStatus.EXPIRED);
+            case "failed" -> ingest(job, BatchJobStatus.FAILED);
+            case "cancelled" -> ingest(job, BatchJobStatus.CANCELLED);
+            case "validating" -> progress(job, job.getStatus());
+            default -> progress(job, BatchJobStatus.IN_PROGRESS);
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${batch.poll-interval:1m}", initialDelayString = "${batch.poll-interval:1m}")
+    public void pollActiveJobs() {
+        for (BatchJob job : jobRepository.findByStatusIn(ACTIVE)) {
+            try {
+                refresh(job);
+            } catch (RuntimeException e) {
+                log.warn("Cannot refresh batch job {}: {}", job.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private BatchJob progress(BatchJob job, BatchJobStatus next) {
+        // une réponse « en cours » arrivée après l'import ne doit pas rouvrir le lot
+        BatchJob saved = transactionTemplate.execute(status -> {
+            if (jobRepository.transition(job.getId(), ACTIVE, next) == 0) {
+                return null;
+            }
+            job.setStatus(next);
+            return jobRepository.save(job);
+        });
+        return saved != null ? saved : jobRepository.findById(job.getId()).orElse(job);
+    }
+
+    private BatchJob ingest(BatchJob job, BatchJobStatus finalStatus) {
+        Target spec = target(job.getTarget());
+        Map<String, BatchItem> items = itemRepository.findByJobOrderById(job).stream()
+                .collect(Collectors.toMap(BatchItem::getCustomId, Function.identity()));
+
+        if (job.getOutputFileId() != null) {
+            batchClient.readLines(job.getOutputFileId(), line -> applyResult(spec, items, line));
+        }
+        if (job.getErrorFileId() != null) {
+            batchClient.readLines(job.getErrorFileId(), line -> applyResult(spec, items, line));
+        }
+
+        int succeeded = 0;
+        int failed = 0;
+        for (BatchItem item : items.values()) {
+            if (item.getStatus() == BatchItemStatus.PENDING) {
+                fail(item, "No result returned by provider (batch " + job.getProviderStatus() + ")");
+            }
+            if (item.getStatus() == BatchItemStatus.SUCCEEDED) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+        job.setSucceededItems(succeeded);
+        job.setFailedItems(failed);
+        job.setStatus(finalStatus);
+        job.setCompletedAt(Instant.now());
+
+        Boolean claimed = transactionTemplate.execute(status -> {
+            // transition conditionnelle : un refresh concurrent qui l'a déjà faite n'écrit rien
+            if (jobRepository.transition(job.getId(), ACTIVE, finalStatus) == 0) {
+                return false;
+            }
+            itemRepository.saveAll(items.values());
+            jobRepository.save(job);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(claimed)) {
+            log.debug("Batch job {} already ingested by another refresh", job.getId());
+            return jobRepository.findById(job.getId()).orElse(job);
+        }
+        itemCounter(job.getTarget(), "succeeded").increment(succeeded);
+        itemCounter(job.getTarget(), "failed").increment(failed);
+        log.info("Batch job {} {}: {} succeeded, {} failed", job.getId(), finalStatus, succeeded, failed);
+        return job;
+    }
+
+    private void abandon(BatchJob job, List<BatchItem> items, String error) {
+        items.forEach(item -> fail(item, error));
+        job.setStatus(BatchJobStatus.FAILED);
+        job.setFailedItems(items.size());
+        job.setCompletedAt(Instant.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                itemRepository.saveAll(items);
+                jobRepository.save(job);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Cannot mark batch job {} as failed: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void cancelQuietly(String batchId) {
+        try {
+            batchClient.cancelBatch(batchId);
+            log.warn("Cancelled provider batch {} after failing to record it", batchId);
+        } catch (RuntimeException e) {
+            log.error("Provider batch {} is not tracked and could not be cancelled: {}", batchId, e.getMessage());
+        }
+    }
+
+    private void applyResult(Target spec, Map<String, BatchItem> items, String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable batch result line: {}", e.getOriginalMessage());
+            return;
+        }
+        BatchItem item = items.get(node.path("custom_id").asText());
+        if (item == null) {
+            log.warn("Batch result for unknown custom_id '{}'", node.path("custom_id").asText());
+            return;
+        }
+
+        JsonNode error = node.path("error");
+        JsonNode response = node.path("response");
+        if (!error.isMissingNode() && !error.isNull()) {
+            fail(item, error.path("message").asText("Provider error"));
+        } else if (response.path("status_code").asInt() != 200) {
+            fail(item, "HTTP " + response.path("status_code").asInt() + ": "
+                    + response.path("body").path("error").path("message").asText(""));
+        } else {
+            String content = response.path("body").path("choices").path(0).path("message").path("content").asText(null);
+            parse(spec, item, content);
+        }
+    }
+
+    private void parse(Target spec, BatchItem item, String content) {
+        if (!StringUtils.hasText(content)) {
+            fail(item, "Empty response");
+            return;
+        }
+        try {
+            Object value = extraction.parse(content, spec.type());
+            item.setResultJson(objectMapper.writeValueAsString(value));
+            item.setStatus(BatchItemStatus.SUCCEEDED);
+            item.setError(null);
+        } catch (StructuredOutputException e) {
+            fail(item, e.getMessage());
+        } catch (JsonProcessingException e) {
+            fail(item, "Cannot store result: " + e.getOriginalMessage());
+        }
+    }
+
+    private byte[] toJsonl(Target spec, List<BatchItem> items) {
+        // même message système pour toutes les lignes : préfixe commun mis en cache par le fournisseur
+        boolean strict = extraction.isStrictSchema();
+        String system = strict ? spec.system() : spec.system() + "\n" + extraction.instructions(spec.type());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            for (BatchItem item : items) {
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("model", properties.getModel());
+                body.put("messages", List.of(
+                        Map.of("role", "system", "content", system),
+                        Map.of("role", "user", "content", item.getQuery())));
+                if (strict) {
+                    body.put("response_format", extraction.spec(spec.type()).responseFormat());
+                }
+                objectMapper.writeValue(out, Map.of(
+                        "custom_id", item.getCustomId(),
+                        "method", "POST",
+                        "url", ENDPOINT,
+                        "body", body));
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot build batch input file", e);
+        }
+        return out.toByteArray();
+    }
+
+    private Target target(String name) {
+        Target spec = targets.get(name);
+        if (spec == null) {
+            throw new IllegalArgumentException("Unsupported batch target '" + name + "', expected one of " + targets.keySet());
+        }
+        return spec;
+    }
+
+    private static void fail(BatchItem item, String error) {
+        item.setStatus(BatchItemStatus.FAILED);
+        item.setResultJson(null);
+        item.setError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+    }
+
+    private Counter itemCounter(String target, String outcome) {
+        return Counter.builder("batch.items")
+                .tag("target", target)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Target(String system, Class<?> type) {
+    }
+}
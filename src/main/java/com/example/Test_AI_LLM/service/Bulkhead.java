@@ -0,0 +1,301 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.BulkheadProperties;
+import com.example.Test_AI_LLM.config.HttpClientProperties;
+import com.example.Test_AI_LLM.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Compartiment isolé pour une charge de travail (texte, vision, image) :
+ * un executor borné et un pool de connexions HTTP dédié vers le fournisseur, réglé par
+ * {@link HttpClientProperties} et partagé par les clients bloquants et de streaming.
+ * Quand la file est pleine, les appels sont rejetés au lieu d'affamer les autres charges.
+ * <p>
+ * Traces : l'attente en file ({@code bulkhead.queue}) et l'attente d'une connexion du pool
+ * ({@code http.client.pool.acquire}) ont chacune leur span ; le contexte de l'appelant
+ * (observation courante, MDC) est restauré sur le thread du bulkhead.
+ */
+@Slf4j
+public class Bulkhead implements AutoCloseable {
+
+    private static final ContextSnapshotFactory SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private final String name;
+    private final ObservationRegistry observationRegistry;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    private final Timer queueWait;
+    private volatile Connections connections;
+
+    public Bulkhead(String name, BulkheadProperties.Pool pool, MeterRegistry meterRegistry) {
+        this(name, pool, new HttpClientProperties(), meterRegistry);
+    }
+
+    public Bulkhead(String name, BulkheadProperties.Pool pool, HttpClientProperties http,
+                    MeterRegistry meterRegistry) {
+        this(name, pool, http, meterRegistry, ObservationRegistry.NOOP);
+    }
+
+    public Bulkhead(String name, BulkheadProperties.Pool pool, HttpClientProperties http,
+                    MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.name = name;
+        this.observationRegistry = observationRegistry;
+        this.executor = new ThreadPoolExecutor(
+                pool.getCoreThreads(),
+                pool.getMaxThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(pool.getQueueCapacity()),
+                threadFactory(name),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.connections = connections(pool, http);
+
+        Tags tags = Tags.of("bulkhead", name);
+        Gauge.builder("bulkhead.threads.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tags(tags).register(meterRegistry);
+        Gauge.builder("bulkhead.threads.max", executor, ThreadPoolExecutor::getMaximumPoolSize)
+                .tags(tags).register(meterRegistry);
+        Gauge.builder("bulkhead.queue.size", executor, e -> e.getQueue().size())
+                .tags(tags).register(meterRegistry);
+        Gauge.builder("bulkhead.queue.remaining", executor, e -> e.getQueue().remainingCapacity())
+                .tags(tags).register(meterRegistry);
+        Gauge.builder("bulkhead.saturation", this, Bulkhead::saturation)
+                .tags(tags).register(meterRegistry);
+        this.rejected = Counter.builder("bulkhead.rejected")
+                .tags(tags).register(meterRegistry);
+        this.queueWait = Timer.builder("bulkhead.queue.wait")
+                .description("Attente dans la file du bulkhead avant exécution")
+                .tags(tags).register(meterRegistry);
+    }
+
+    /**
+     * Exécute la tâche sur l'executor du bulkhead, dans le contexte de l'appelant, étapes
+     * dépendantes du résultat comprises ; l'attente en file est mesurée par
+     * {@code bulkhead.queue.wait} et tracée par {@code bulkhead.queue}. Annuler le futur renvoyé
+     * retire la tâche de la file, ou interrompt son thread si elle a démarré (appel au fournisseur
+     * compris) : une échéance dépassée ne garde ni thread ni connexion.
+     *
+     * @throws BulkheadFullException si tous les threads sont occupés et la file est pleine
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        ContextSnapshot snapshot = SNAPSHOTS.captureAll();
+        Observation queued = Observation.createNotStarted("bulkhead.queue", observationRegistry)
+                .contextualName("bulkhead " + name + " queue")
+                .lowCardinalityKeyValue("bulkhead", name)
+                .start();
+        try {
+            long submitted = System.nanoTime();
+            CompletableFuture<T> future = new CompletableFuture<>();
+            AtomicBoolean started = new AtomicBoolean();
+            Future<?> execution = executor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return;
+                }
+                queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                queued.stop();
+                try (ContextSnapshot.Scope scope = snapshot.setThreadLocals()) {
+                    future.complete(task.get());
+                } catch (Throwable e) {
+                    // même forme que supplyAsync
+                    future.completeExceptionally(e instanceof CompletionException ? e : new CompletionException(e));
+                }
+            });
+            future.whenComplete((result, error) -> {
+                if (future.isCancelled()) {
+                    if (started.compareAndSet(false, true)) {
+                        queued.stop();
+                    }
+                    execution.cancel(true);
+                    // libère aussi la place dans la file
+                    executor.remove((Runnable) execution);
+                }
+            });
+            return future;
+        } catch (RejectedExecutionException e) {
+            queued.error(e);
+            queued.stop();
+            rejected.increment();
+            log.warn("Bulkhead '{}' saturated: active={}, queued={}",
+                    name, executor.getActiveCount(), executor.getQueue().size());
+            throw new BulkheadFullException(name);
+        }
+    }
+
+    /**
+     * Applique de nouvelles limites sans redémarrer : les threads sont redimensionnés sur place,
+     * le pool de connexions est remplacé. Les requêtes en cours gardent leur connexion ; l'ancien
+     * pool n'est fermé qu'après {@code http.drain-timeout}. La capacité de la file n'est pas modifiable.
+     */
+    public void reconfigure(BulkheadProperties.Pool pool, HttpClientProperties http) {
+        if (pool.getMaxThreads() >= executor.getCorePoolSize()) {
+            executor.setMaximumPoolSize(pool.getMaxThreads());
+            executor.setCorePoolSize(pool.getCoreThreads());
+        } else {
+            executor.setCorePoolSize(pool.getCoreThreads());
+            executor.setMaximumPoolSize(pool.getMaxThreads());
+        }
+
+        Connections previous = connections;
+        connections = connections(pool, http);
+        Mono.delay(http.getDrainTimeout())
+                .then(previous.provider().disposeLater())
+                .subscribe(null, e -> log.warn("Bulkhead '{}' could not dispose its previous pool", name, e));
+        log.info("Bulkhead '{}' reconfigured: threads {}-{}, connections {}, pending {}",
+                name, pool.getCoreThreads(), pool.getMaxThreads(), pool.getMaxConnections(),
+                pool.getPendingAcquireMaxCount());
+    }
+
+    /**
+     * Ouvre à l'avance jusqu'à {@code connections} connexions vers {@code baseUrl} (requêtes HEAD
+     * simultanées, statut ignoré) ; elles restent dans le pool pour les premiers vrais appels.
+     *
+     * @return le nombre de connexions établies
+     */
+    public Mono<Integer> preconnect(String baseUrl, int connections, Duration timeout) {
+        HttpClient httpClient = this.connections.client();
+        return httpClient.warmup()
+                .thenMany(Flux.range(0, connections)
+                        .flatMap(i -> httpClient.responseTimeout(timeout)
+                                .head()
+                                .uri(baseUrl)
+                                .response()
+                                .map(response -> 1)
+                                .timeout(timeout)
+                                .onErrorResume(e -> {
+                                    log.debug("Bulkhead '{}' could not preconnect to {}: {}", name, baseUrl, e.toString());
+                                    return Mono.just(0);
+                                }), connections))
+                .reduce(0, Integer::sum);
+    }
+
+    /**
+     * Fabrique de requêtes bloquantes qui suit le pool courant (voir {@link #reconfigure}).
+     */
+    public ClientHttpRequestFactory requestFactory() {
+        return (uri, method) -> connections.requestFactory().createRequest(uri, method);
+    }
+
+    /**
+     * Connecteur réactif qui suit le pool courant (voir {@link #reconfigure}).
+     */
+    public ClientHttpConnector connector() {
+        return (method, uri, requestCallback) -> connections.connector().connect(method, uri, requestCallback);
+    }
+
+    /**
+     * Taux d'occupation entre 0 et 1 (threads actifs + tâches en attente).
+     */
+    public double saturation() {
+        int capacity = executor.getMaximumPoolSize()
+                + executor.getQueue().size() + executor.getQueue().remainingCapacity();
+        return (double) (executor.getActiveCount() + executor.getQueue().size()) / capacity;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        connections.provider().dispose();
+    }
+
+    private Connections connections(BulkheadProperties.Pool pool, HttpClientProperties http) {
+        ConnectionProvider provider = ConnectionProvider.builder("bulkhead-" + name)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(http.getMaxIdleTime())
+                .maxLifeTime(http.getMaxLifeTime())
+                .evictInBackground(http.getEvictionInterval())
+                // reactor.netty.connection.provider.{active,idle,pending}.connections, pending.connections.time
+                .metrics(true)
+                .build();
+
+        HttpClient client = HttpClient.create(provider)
+                .protocol(http.isHttp2()
+                        ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11})
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectTimeout().toMillis())
+                .responseTimeout(http.getResponseTimeout())
+                .doOnConnected(connection -> connection
+                        .addHandlerLast(new ReadTimeoutHandler(http.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(http.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS)))
+                .mapConnect(this::observeAcquire);
+
+        return new Connections(provider, client,
+                new ReactorClientHttpRequestFactory(client), new ReactorClientHttpConnector(client));
+    }
+
+    /**
+     * Span {@code http.client.pool.acquire} : de la demande de connexion au pool jusqu'à son
+     * obtention (attente d'une connexion libre, ou ouverture d'une nouvelle), rattaché à
+     * l'observation portée par le contexte Reactor, à défaut à celle du thread appelant.
+     */
+    private Mono<? extends Connection> observeAcquire(Mono<? extends Connection> acquire) {
+        if (observationRegistry.isNoop()) {
+            return acquire;
+        }
+        return Mono.deferContextual(context -> {
+            Observation observation = Observation.createNotStarted("http.client.pool.acquire", observationRegistry)
+                    .contextualName("bulkhead " + name + " pool acquire")
+                    .lowCardinalityKeyValue("bulkhead", name)
+                    .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY,
+                            observationRegistry.getCurrentObservation()))
+                    .start();
+            return acquire
+                    .doOnError(observation::error)
+                    .doFinally(signal -> observation.stop());
+        });
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "bulkhead-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Connections(ConnectionProvider provider, HttpClient client,
+                               ClientHttpRequestFactory requestFactory, ClientHttpConnector connector) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.Test_AI_LLM.service;
+
+/**
+ * Les trois compartiments de l'application, injectables sans qualifier.
+ */
+public record Bulkheads(Bulkhead text, Bulkhead vision, Bulkhead image) {
+}
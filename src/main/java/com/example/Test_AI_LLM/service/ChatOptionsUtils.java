@@ -0,0 +1,36 @@
+package com.example.Test_AI_LLM.service;
+
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.DefaultChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+
+public final class ChatOptionsUtils {
+
+    private ChatOptionsUtils() {
+    }
+
+    /**
+     * Copie le prompt en remplaçant le modèle, sans toucher aux autres options.
+     */
+    public static Prompt withModel(Prompt prompt, String model) {
+        ChatOptions options = prompt.getOptions();
+        ChatOptions updated;
+        if (options instanceof OpenAiChatOptions openAiOptions) {
+            OpenAiChatOptions copy = openAiOptions.copy();
+            copy.setModel(model);
+            updated = copy;
+        } else if (options instanceof DefaultChatOptions defaultOptions) {
+            DefaultChatOptions copy = (DefaultChatOptions) defaultOptions.copy();
+            copy.setModel(model);
+            updated = copy;
+        } else {
+            updated = OpenAiChatOptions.builder().model(model).build();
+        }
+        return prompt.mutate().chatOptions(updated).build();
+    }
+
+    public static String model(Prompt prompt) {
+        return prompt.getOptions() != null ? prompt.getOptions().getModel() : null;
+    }
+}
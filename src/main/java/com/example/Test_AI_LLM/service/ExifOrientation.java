@@ -0,0 +1,134 @@
+package com.example.Test_AI_LLM.service;
+
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Balise EXIF Orientation (0x0112) d'un JPEG : les téléphones enregistrent les pixels du capteur
+ * et l'indication de rotation à part. Le ré-encodage supprimant les métadonnées, la rotation
+ * doit être appliquée aux pixels pour que le modèle voie l'image à l'endroit.
+ */
+final class ExifOrientation {
+
+    static final int NORMAL = 1;
+
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.ISO_8859_1);
+    private static final int SOI = 0xFFD8;
+    private static final int APP1 = 0xFFE1;
+    private static final int SOS = 0xFFDA;
+    private static final int EOI = 0xFFD9;
+    private static final int ORIENTATION_TAG = 0x0112;
+    private static final int MAX_ENTRIES = 1_000;
+
+    private ExifOrientation() {
+    }
+
+    /**
+     * Orientation lue dans le segment APP1 Exif, {@link #NORMAL} si absente, illisible ou hors JPEG.
+     * Le flux est remis à sa position de départ.
+     */
+    static int read(ImageInputStream in) throws IOException {
+        long start = in.getStreamPosition();
+        ByteOrder order = in.getByteOrder();
+        try {
+            in.setByteOrder(ByteOrder.BIG_ENDIAN);
+            if (in.readUnsignedShort() != SOI) {
+                return NORMAL;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00 || marker == SOS || marker == EOI) {
+                    return NORMAL;
+                }
+                int length = in.readUnsignedShort();
+                long next = in.getStreamPosition() + length - 2;
+                if (marker == APP1 && length > 2 + EXIF_HEADER.length + 8) {
+                    byte[] header = new byte[EXIF_HEADER.length];
+                    in.readFully(header);
+                    if (Arrays.equals(header, EXIF_HEADER)) {
+                        return tiffOrientation(in, next);
+                    }
+                }
+                in.seek(next);
+            }
+        } catch (EOFException e) {
+            return NORMAL;
+        } finally {
+            in.setByteOrder(order);
+            in.seek(start);
+        }
+    }
+
+    // en-tête TIFF (ordre des octets, 42, décalage du premier IFD) puis entrées de l'IFD0
+    private static int tiffOrientation(ImageInputStream in, long end) throws IOException {
+        long tiff = in.getStreamPosition();
+        int byteOrder = in.readUnsignedShort();
+        if (byteOrder == 0x4949) {
+            in.setByteOrder(ByteOrder.LITTLE_ENDIAN);
+        } else if (byteOrder != 0x4D4D) {
+            return NORMAL;
+        }
+        if (in.readUnsignedShort() != 42) {
+            return NORMAL;
+        }
+        long ifd = tiff + in.readUnsignedInt();
+        if (ifd + 2 > end) {
+            return NORMAL;
+        }
+        in.seek(ifd);
+        int entries = Math.min(in.readUnsignedShort(), MAX_ENTRIES);
+        for (int i = 0; i < entries && in.getStreamPosition() + 12 <= end; i++) {
+            int tag = in.readUnsignedShort();
+            in.skipBytes(6);
+            if (tag == ORIENTATION_TAG) {
+                int value = in.readUnsignedShort();
+                return value >= 1 && value <= 8 ? value : NORMAL;
+            }
+            in.skipBytes(4);
+        }
+        return NORMAL;
+    }
+
+    /**
+     * Les orientations 5 à 8 échangent largeur et hauteur.
+     */
+    static boolean swapsAxes(int orientation) {
+        return orientation >= 5;
+    }
+
+    /**
+     * Pixels remis à l'endroit : miroirs (2, 4, 5, 7) et rotations (3, 6, 8) de la norme EXIF.
+     */
+    static BufferedImage apply(BufferedImage source, int orientation) {
+        if (orientation == NORMAL) {
+            return source;
+        }
+        int w = source.getWidth();
+        int h = source.getHeight();
+        boolean swap = swapsAxes(orientation);
+        int type = source.getType() != BufferedImage.TYPE_CUSTOM ? source.getType() : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage target = new BufferedImage(swap ? h : w, swap ? w : h, type);
+        int[] row = new int[w];
+        for (int y = 0; y < h; y++) {
+            source.getRGB(0, y, w, 1, row, 0, w);
+            for (int x = 0; x < w; x++) {
+                switch (orientation) {
+                    case 2 -> target.setRGB(w - 1 - x, y, row[x]);
+                    case 3 -> target.setRGB(w - 1 - x, h - 1 - y, row[x]);
+                    case 4 -> target.setRGB(x, h - 1 - y, row[x]);
+                    case 5 -> target.setRGB(y, x, row[x]);
+                    case 6 -> target.setRGB(h - 1 - y, x, row[x]);
+                    case 7 -> target.setRGB(h - 1 - y, w - 1 - x, row[x]);
+                    case 8 -> target.setRGB(y, w - 1 - x, row[x]);
+                    default -> target.setRGB(x, y, row[x]);
+                }
+            }
+        }
+        return target;
+    }
+}
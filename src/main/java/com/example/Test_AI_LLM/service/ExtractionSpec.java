@@ -0,0 +1,20 @@
+package com.example.Test_AI_LLM.service;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.openai.api.ResponseFormat;
+
+/**
+ * Tout ce qui est nécessaire pour extraire un type cible, calculé une seule fois :
+ * schéma JSON, instructions de format (et le message système correspondant),
+ * {@code response_format} strict, lecteur Jackson.
+ */
+public record ExtractionSpec<T>(
+        Class<T> type,
+        String jsonSchema,
+        String formatInstructions,
+        SystemMessage formatMessage,
+        ResponseFormat responseFormat,
+        ObjectReader reader
+) {
+}
@@ -0,0 +1,112 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.FanOutProperties;
+import com.example.Test_AI_LLM.outputs.Movie;
+import com.example.Test_AI_LLM.outputs.MovieList;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * Scatter-gather pour les requêtes larges : les sous-requêtes du {@link QueryPlanner}
+ * partent en parallèle sur le bulkhead texte (concurrence bornée), les {@link MovieList}
+ * partielles sont fusionnées sans doublons (titre, année, réalisateur). À l'échéance
+ * globale, on renvoie ce qui est déjà terminé et les sous-requêtes restantes sont annulées
+ * (thread du bulkhead interrompu, appel au fournisseur abandonné).
+ */
+@Slf4j
+@Service
+public class FanOutService {
+
+    private final QueryPlanner planner;
+    private final Bulkheads bulkheads;
+    private final FanOutProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary legs;
+
+    public FanOutService(QueryPlanner planner, Bulkheads bulkheads, FanOutProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.planner = planner;
+        this.bulkheads = bulkheads;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.legs = DistributionSummary.builder("fanout.legs")
+                .description("Nombre de sous-requêtes par requête découpée")
+                .register(meterRegistry);
+    }
+
+    public List<String> plan(String query) {
+        return planner.plan(query);
+    }
+
+    public CompletableFuture<MovieList> gather(List<String> subQueries, Function<String, MovieList> leg) {
+        legs.record(subQueries.size());
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        return Flux.fromIterable(subQueries)
+                .index()
+                .flatMap(indexed -> Mono.fromFuture(() -> bulkheads.text().submit(() -> leg.apply(indexed.getT2())))
+                        .map(result -> Tuples.of(indexed.getT1(), result))
+                        .onErrorResume(e -> {
+                            String subQuery = indexed.getT2();
+                            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                            log.warn("Fan-out leg failed for '{}': {}", subQuery, cause.getMessage());
+                            Counter.builder("fanout.legs.failed").register(meterRegistry).increment();
+                            errors.add(cause);
+                            return Mono.empty();
+                        }), properties.getMaxConcurrency())
+                .take(properties.getDeadline())
+                // fusion dans l'ordre du plan, quel que soit l'ordre d'arrivée
+                .collectSortedList(Comparator.comparing(Tuple2::getT1))
+                .map(indexed -> indexed.stream().map(Tuple2::getT2).toList())
+                .flatMap(parts -> {
+                    if (parts.isEmpty() && !errors.isEmpty()) {
+                        return Mono.error(errors.peek());
+                    }
+                    if (parts.size() + errors.size() < subQueries.size()) {
+                        log.warn("Fan-out deadline reached: {}/{} sub-queries completed", parts.size(), subQueries.size());
+                        Counter.builder("fanout.deadline.exceeded").register(meterRegistry).increment();
+                    }
+                    return Mono.just(merge(parts));
+                })
+                .toFuture();
+    }
+
+    MovieList merge(List<MovieList> parts) {
+        Map<String, Movie> unique = new LinkedHashMap<>();
+        int total = 0;
+        for (MovieList part : parts) {
+            if (part == null || part.movies() == null) {
+                continue;
+            }
+            for (Movie movie : part.movies()) {
+                total++;
+                unique.putIfAbsent(key(movie), movie);
+            }
+        }
+        Counter.builder("fanout.duplicates").register(meterRegistry).increment(total - unique.size());
+        return new MovieList(new ArrayList<>(unique.values()));
+    }
+
+    private static String key(Movie movie) {
+        return MovieKeys.normalize(movie.title()) + '|' + MovieKeys.normalize(movie.year())
+                + '|' + MovieKeys.normalize(movie.director());
+    }
+}
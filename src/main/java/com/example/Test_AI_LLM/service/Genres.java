@@ -0,0 +1,64 @@
+package com.example.Test_AI_LLM.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Genres reconnus dans les requêtes et les réponses, avec leurs variantes français / anglais.
+ */
+public final class Genres {
+
+    private static final Map<String, Pattern> GENRES = new LinkedHashMap<>();
+
+    static {
+        genre("science-fiction", "science-fiction|science fiction|sci-fi|scifi|sf");
+        genre("horreur", "horreur|horror");
+        genre("comédie", "comédies?|comedies?|comedy");
+        genre("drame", "drames?|drama");
+        genre("action", "action");
+        genre("thriller", "thrillers?");
+        genre("animation", "animation");
+        genre("western", "westerns?");
+        genre("fantastique", "fantastique|fantasy");
+        genre("aventure", "aventures?|adventure");
+        genre("romance", "romance|romantiques?");
+        genre("policier", "policiers?|crime");
+        genre("documentaire", "documentaires?|documentary");
+    }
+
+    private Genres() {
+    }
+
+    /**
+     * Genres (forme canonique) cités dans le texte, dans l'ordre de la table.
+     */
+    public static List<String> find(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        List<String> found = new ArrayList<>();
+        GENRES.forEach((genre, aliases) -> {
+            if (aliases.matcher(lower).find()) {
+                found.add(genre);
+            }
+        });
+        return found;
+    }
+
+    /**
+     * Forme canonique d'un genre renvoyé par le modèle, ou sa forme normalisée s'il est inconnu.
+     */
+    public static String canonical(String genre) {
+        if (genre == null) {
+            return "";
+        }
+        List<String> found = find(genre);
+        return found.isEmpty() ? MovieKeys.normalize(genre) : found.get(0);
+    }
+
+    private static void genre(String genre, String aliases) {
+        GENRES.put(genre, Pattern.compile("(?<![\\p{L}-])(?:" + aliases + ")(?![\\p{L}-])"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.advisor.AdvisorParams;
+import org.springframework.ai.chat.client.ChatClientAttributes;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Heuristique par défaut : longueur, structure du texte et type de sortie attendu.
+ * Une sortie structurée ou une image force le grand modèle.
+ */
+public class HeuristicPromptComplexityClassifier implements PromptComplexityClassifier {
+
+    private static final int LONG_PROMPT_CHARS = 800;
+
+    private static final Pattern LIST_ITEM = Pattern.compile("(?m)^\\s*([-*•]|\\d+[.)])\\s+");
+
+    private static final List<String> REASONING_WORDS = List.of(
+            "explique", "pourquoi", "compare", "analyse", "démontre", "justifie", "résume", "rédige",
+            "explain", "why", "analyze", "analyse", "prove", "step by step", "summarize", "write");
+
+    @Override
+    public double score(ChatClientRequest request) {
+        if (request.context().containsKey(ChatClientAttributes.OUTPUT_FORMAT.getKey())
+                || request.context().containsKey(AdvisorParams.OUTPUT_TYPE)) {
+            return 1.0;
+        }
+
+        UserMessage userMessage = request.prompt().getUserMessage();
+        if (userMessage == null || userMessage.getText() == null) {
+            return 0.0;
+        }
+        if (!userMessage.getMedia().isEmpty()) {
+            return 1.0;
+        }
+
+        String text = userMessage.getText();
+        String lower = text.toLowerCase(Locale.ROOT);
+
+        double score = 0.5 * Math.min(1.0, text.length() / (double) LONG_PROMPT_CHARS);
+        if (text.contains("```") || text.contains("{")) {
+            score += 0.3;
+        }
+        if (LIST_ITEM.matcher(text).find() || text.lines().count() > 3) {
+            score += 0.2;
+        }
+        if (REASONING_WORDS.stream().anyMatch(lower::contains)) {
+            score += 0.3;
+        }
+        if (text.chars().filter(c -> c == '?').count() > 1) {
+            score += 0.15;
+        }
+        return Math.min(1.0, score);
+    }
+}
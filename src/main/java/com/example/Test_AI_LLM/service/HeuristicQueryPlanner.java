@@ -0,0 +1,94 @@
+package com.example.Test_AI_LLM.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Planificateur par défaut : découpe par décennie (« années 80 et 90 », « 80s », « 1980-1999 »)
+ * puis, si la requête cite plusieurs genres, par genre. Au-delà de {@code maxFanOut}
+ * sous-requêtes, seul le découpage par décennie est gardé.
+ */
+public class HeuristicQueryPlanner implements QueryPlanner {
+
+    private static final Pattern YEAR_RANGE =
+            Pattern.compile("\\b((?:19|20)\\d{2})\\s*(?:-|–|à|a|to|and|et)\\s*((?:19|20)\\d{2})\\b");
+    private static final Pattern DECADE_SUFFIX = Pattern.compile("\\b((?:19|20)?\\d0)\\s*['’]?s\\b");
+    private static final Pattern DECADE_FRENCH =
+            Pattern.compile("\\bann[ée]es\\s+((?:19|20)?\\d0(?:\\s*(?:,|et|and)\\s*(?:19|20)?\\d0)*)\\b");
+    private static final Pattern DECADE_NUMBER = Pattern.compile("(?:19|20)?\\d0");
+
+    private final int maxFanOut;
+
+    public HeuristicQueryPlanner(int maxFanOut) {
+        this.maxFanOut = maxFanOut;
+    }
+
+    @Override
+    public List<String> plan(String query) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        String text = query.toLowerCase(Locale.ROOT);
+        List<Integer> decades = List.copyOf(decades(text));
+        List<String> genres = Genres.find(text);
+
+        List<String> byDecade = decades.size() > 1 ? decades.stream().map(HeuristicQueryPlanner::decadeClause).toList() : List.of("");
+        List<String> byGenre = genres.size() > 1 ? genres.stream().map(g -> " — uniquement le genre " + g).toList() : List.of("");
+
+        if (byDecade.size() * byGenre.size() > maxFanOut) {
+            byGenre = List.of("");
+        }
+        if (byDecade.size() * byGenre.size() <= 1 || byDecade.size() > maxFanOut) {
+            return List.of(query);
+        }
+
+        List<String> plan = new ArrayList<>(byDecade.size() * byGenre.size());
+        for (String decade : byDecade) {
+            for (String genre : byGenre) {
+                plan.add(query + decade + genre);
+            }
+        }
+        return plan;
+    }
+
+    private static TreeSet<Integer> decades(String text) {
+        TreeSet<Integer> decades = new TreeSet<>();
+        Matcher range = YEAR_RANGE.matcher(text);
+        while (range.find()) {
+            int from = Integer.parseInt(range.group(1)) / 10 * 10;
+            int to = Integer.parseInt(range.group(2)) / 10 * 10;
+            for (int d = Math.min(from, to); d <= Math.max(from, to); d += 10) {
+                decades.add(d);
+            }
+        }
+        Matcher suffix = DECADE_SUFFIX.matcher(text);
+        while (suffix.find()) {
+            decades.add(decade(suffix.group(1)));
+        }
+        Matcher french = DECADE_FRENCH.matcher(text);
+        while (french.find()) {
+            Matcher numbers = DECADE_NUMBER.matcher(french.group(1));
+            while (numbers.find()) {
+                decades.add(decade(numbers.group()));
+            }
+        }
+        return decades;
+    }
+
+    private static int decade(String value) {
+        int number = Integer.parseInt(value);
+        if (number >= 100) {
+            return number;
+        }
+        // « 80 » -> 1980, « 10 » -> 2010
+        return number >= 30 ? 1900 + number : 2000 + number;
+    }
+
+    private static String decadeClause(int decade) {
+        return " — uniquement les films sortis entre " + decade + " et " + (decade + 9);
+    }
+}
@@ -4,6 +4,8 @@ package com.example.Test_AI_LLM.service;
 import com.example.Test_AI_LLM.config.OpenAiImageProperties;
 import com.example.Test_AI_LLM.dto.ImageGenerationRequest;
 import com.example.Test_AI_LLM.dto.ImageGenerationResponse;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.image.ImageOptions;
@@ -20,8 +22,20 @@ public class ImageGenerationService {
 
     private final OpenAiImageModel openAiImageModel;
     private final OpenAiImageProperties imageProperties;
+    private final ObservationRegistry observationRegistry;
 
+    /**
+     * Span {@code image.generation} : validation, appel au fournisseur (span du modèle d'images
+     * en enfant) et lecture de la réponse.
+     */
     public ImageGenerationResponse generateImage(ImageGenerationRequest request) {
+        return Observation.createNotStarted("image.generation", observationRegistry)
+                .contextualName("image generation")
+                .lowCardinalityKeyValue("model", String.valueOf(imageProperties.getModel()))
+                .observe(() -> generate(request));
+    }
+
+    private ImageGenerationResponse generate(ImageGenerationRequest request) {
 
         validateRequest(request);
 
@@ -75,4 +89,4 @@ public class ImageGenerationService {
     private int extractHeight(String size) {
         return Integer.parseInt(size.split("x")[1]);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,373 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.ImagePreprocessingProperties;
+import com.example.Test_AI_LLM.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Prépare les images avant les appels vision : réduction aux dimensions de tuiles du modèle,
+ * suppression des métadonnées (EXIF, GPS, profils) par ré-encodage, et format compact.
+ * L'orientation EXIF, perdue au ré-encodage, est appliquée aux pixels.
+ * Le décodage et l'encodage tournent sur un pool borné, séparé des threads d'appel au modèle,
+ * dans le contexte de l'appelant ; chaque préparation est tracée par {@code vision.image.prepare}.
+ */
+@Slf4j
+@Service
+public class ImagePreprocessor implements AutoCloseable {
+
+    static final int TILE = 512;
+
+    private static final ContextSnapshotFactory SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private final ImagePreprocessingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final ThreadPoolExecutor executor;
+    private final Timer duration;
+    private final DistributionSummary ratio;
+    // images du classpath : préparées une seule fois
+    private final Map<String, CompletableFuture<PreparedImage>> statics = new ConcurrentHashMap<>();
+
+    public ImagePreprocessor(ImagePreprocessingProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, ObservationRegistry.NOOP);
+    }
+
+    @Autowired
+    public ImagePreprocessor(ImagePreprocessingProperties properties, MeterRegistry meterRegistry,
+                             ObservationRegistry observationRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-preprocess-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.duration = Timer.builder("vision.preprocess.duration")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+        this.ratio = DistributionSummary.builder("vision.preprocess.ratio")
+                .description("Taille envoyée / taille d'origine")
+                .register(meterRegistry);
+        Gauge.builder("vision.preprocess.queue.size", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Prépare l'image sur le pool de préparation.
+     *
+     * @throws BulkheadFullException si le pool et sa file sont pleins
+     */
+    public CompletableFuture<PreparedImage> prepareAsync(byte[] bytes, MimeType declared) {
+        return submit("memory", () -> prepare(bytes, declared));
+    }
+
+    /**
+     * Image fixe de l'application : préparée au premier appel puis réutilisée. Un échec n'est pas
+     * gardé : l'appel suivant prépare de nouveau l'image.
+     */
+    public CompletableFuture<PreparedImage> prepareStatic(Resource resource, MimeType declared) {
+        String key = resource.getDescription();
+        CompletableFuture<PreparedImage> prepared = statics.computeIfAbsent(key, description -> {
+            try (InputStream in = resource.getInputStream()) {
+                return prepareAsync(in.readAllBytes(), declared);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + description, e);
+            }
+        });
+        prepared.whenComplete((image, error) -> {
+            if (error != null) {
+                statics.remove(key, prepared);
+            }
+        });
+        return prepared;
+    }
+
+    /**
+     * Variante pour une image déjà sur disque : lue en flux, sans copie complète en mémoire.
+     *
+     * @throws BulkheadFullException si le pool et sa file sont pleins
+     */
+    public CompletableFuture<PreparedImage> prepareAsync(Path file, MimeType declared) {
+        return submit("file", () -> prepare(file, declared));
+    }
+
+    // le résultat est publié dans le contexte de l'appelant : les étapes enchaînées en héritent
+    private CompletableFuture<PreparedImage> submit(String source, Supplier<PreparedImage> task) {
+        ContextSnapshot snapshot = SNAPSHOTS.captureAll();
+        try {
+            CompletableFuture<PreparedImage> future = new CompletableFuture<>();
+            executor.execute(() -> {
+                try (ContextSnapshot.Scope scope = snapshot.setThreadLocals()) {
+                    future.complete(Observation.createNotStarted("vision.image.prepare", observationRegistry)
+                            .contextualName("image prepare")
+                            .lowCardinalityKeyValue("source", source)
+                            .observe(task));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e instanceof CompletionException ? e : new CompletionException(e));
+                }
+            });
+            return future;
+        } catch (RejectedExecutionException e) {
+            Counter.builder("vision.preprocess.rejected").register(meterRegistry).increment();
+            throw new BulkheadFullException("preprocess");
+        }
+    }
+
+    public PreparedImage prepare(byte[] bytes, MimeType declared) {
+        return prepare(() -> ImageIO.createImageInputStream(new ByteArrayInputStream(bytes)),
+                () -> bytes, bytes.length, declared);
+    }
+
+    public PreparedImage prepare(Path file, MimeType declared) {
+        try {
+            return prepare(() -> ImageIO.createImageInputStream(file.toFile()),
+                    () -> Files.readAllBytes(file), Files.size(file), declared);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + file, e);
+        }
+    }
+
+    private PreparedImage prepare(IoSupplier<ImageInputStream> source, IoSupplier<byte[]> original,
+                                  long originalSize, MimeType declared) {
+        if (!properties.isEnabled()) {
+            return passthrough(original, declared, "disabled");
+        }
+        long start = System.nanoTime();
+        try (ImageInputStream in = source.get()) {
+            int orientation = ExifOrientation.read(in);
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return passthrough(original, declared, "unsupported");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > properties.getMaxPixels()) {
+                    throw new IllegalArgumentException("Image is " + width + "x" + height
+                            + ", maximum is " + properties.getMaxPixels() + " pixels");
+                }
+                // dimensions calculées sur l'image à l'endroit, réduction faite avant la rotation
+                boolean swap = ExifOrientation.swapsAxes(orientation);
+                int[] target = swap
+                        ? targetSize(height, width, properties.getMaxLongSide(), properties.getMaxShortSide(),
+                                properties.getTileSnapTolerance())
+                        : targetSize(width, height, properties.getMaxLongSide(), properties.getMaxShortSide(),
+                                properties.getTileSnapTolerance());
+                int decodedWidth = swap ? target[1] : target[0];
+                int decodedHeight = swap ? target[0] : target[1];
+
+                // sous-échantillonnage au décodage : on ne garde qu'environ 2x la cible en mémoire
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.min(width / (2 * decodedWidth), height / (2 * decodedHeight)));
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage image = reader.read(0, param);
+
+                BufferedImage scaled = ExifOrientation.apply(scale(image, decodedWidth, decodedHeight), orientation);
+                byte[] encoded = encode(scaled);
+                ratio.record(encoded.length / (double) originalSize);
+                return new PreparedImage(outputType(), encoded, target[0], target[1], originalSize);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            log.warn("Cannot preprocess image, sending it unchanged: {}", e.getMessage());
+            return passthrough(original, declared, "unreadable");
+        } finally {
+            duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Pixels qui seront envoyés pour cette image, lus dans l'en-tête sans décoder l'image.
+     * Un format illisible compte pour le maximum (le fournisseur le réduira de toute façon).
+     */
+    public long plannedPixels(Path file) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (readers.hasNext()) {
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(in, true, true);
+                    int[] target = targetSize(reader.getWidth(0), reader.getHeight(0), properties.getMaxLongSide(),
+                            properties.getMaxShortSide(), properties.getTileSnapTolerance());
+                    return (long) target[0] * target[1];
+                } finally {
+                    reader.dispose();
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Cannot read image header of {}: {}", file, e.getMessage());
+        }
+        return (long) properties.getMaxLongSide() * properties.getMaxShortSide();
+    }
+
+    /**
+     * Dimensions d'envoi : mêmes règles que le redimensionnement côté modèle (côté long ≤ max,
+     * puis côté court ≤ max), puis une tuile de 512 px de moins si cela coûte peu de résolution.
+     */
+    static int[] targetSize(int width, int height, int maxLongSide, int maxShortSide, double snapTolerance) {
+        double scale = Math.min(1.0, Math.min(
+                maxLongSide / (double) Math.max(width, height),
+                maxShortSide / (double) Math.min(width, height)));
+        double w = width * scale;
+        double h = height * scale;
+
+        double snap = 0;
+        for (double side : new double[]{w, h}) {
+            int tiles = (int) Math.ceil(side / TILE);
+            if (tiles > 1) {
+                snap = Math.max(snap, TILE * (tiles - 1) / side);
+            }
+        }
+        if (snap >= 1 - snapTolerance && snap < 1) {
+            w *= snap;
+            h *= snap;
+        }
+        // epsilon : 4032 x (768 / 3024) doit donner 1024 et non 1023
+        return new int[]{Math.max(1, (int) Math.floor(w + 1e-6)), Math.max(1, (int) Math.floor(h + 1e-6))};
+    }
+
+    /**
+     * Tokens image en détail « high » : 85 + 170 par tuile de 512 px, après le
+     * redimensionnement du fournisseur (2048 px, puis 768 px sur le côté court).
+     */
+    public static int estimateTokens(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return 0;
+        }
+        int[] size = targetSize(width, height, 2048, 768, 0);
+        int tiles = (int) (Math.ceil(size[0] / (double) TILE) * Math.ceil(size[1] / (double) TILE));
+        return 85 + 170 * tiles;
+    }
+
+    private BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        // réductions par moitié successives puis passe finale bilinéaire : évite le crénelage
+        while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() != width || current.getHeight() != height || current.getType() != outputImageType()) {
+            current = draw(current, width, height);
+        }
+        return current;
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, outputImageType());
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG n'a pas de transparence : fond blanc plutôt que noir
+            graphics.drawImage(source, 0, 0, width, height, isJpeg() ? Color.WHITE : null, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!isJpeg()) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getQuality());
+            param.setProgressiveMode(ImageWriteParam.MODE_DISABLED);
+            // aucune métadonnée recopiée : ni EXIF, ni GPS, ni miniature
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private PreparedImage passthrough(IoSupplier<byte[]> original, MimeType declared, String reason) {
+        Counter.builder("vision.preprocess.skipped").tag("reason", reason).register(meterRegistry).increment();
+        try {
+            byte[] bytes = original.get();
+            return new PreparedImage(declared, bytes, -1, -1, bytes.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read image", e);
+        }
+    }
+
+    private boolean isJpeg() {
+        return !"png".equalsIgnoreCase(properties.getFormat());
+    }
+
+    private int outputImageType() {
+        return isJpeg() ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+    }
+
+    private MimeType outputType() {
+        return isJpeg() ? MimeTypeUtils.IMAGE_JPEG : MimeTypeUtils.IMAGE_PNG;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface IoSupplier<T> {
+        T get() throws IOException;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.ImageUploadProperties;
+import com.example.Test_AI_LLM.exception.ImageUploadException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Copie une image reçue en flux vers un fichier temporaire, par blocs de 64 Ko : la taille est
+ * vérifiée au fil de l'eau, le SHA-256 calculé au passage et le type détecté sur les octets magiques.
+ */
+@Service
+public class ImageUploadStager {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HEADER_SIZE = 12;
+
+    private final ImageUploadProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary sizes;
+
+    public ImageUploadStager(ImageUploadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.sizes = DistributionSummary.builder("vision.upload.size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws ImageUploadException si l'image dépasse la taille maximale ou n'est pas une image reconnue
+     */
+    public StagedImage stage(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return stage(in, file.getSize(), file.getOriginalFilename());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot stage upload " + file.getOriginalFilename(), e);
+        }
+    }
+
+    /**
+     * Variante WebFlux : les blocs reçus alimentent la même copie en flux, sur un thread
+     * {@code boundedElastic} pour ne jamais bloquer une boucle d'événements.
+     */
+    public Mono<StagedImage> stage(FilePart file) {
+        return Mono.fromCallable(() -> {
+                    try (InputStream in = DataBufferUtils.subscriberInputStream(file.content(), 4)) {
+                        return stage(in, file.headers().getContentLength(), file.filename());
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private StagedImage stage(InputStream in, long declaredSize, String filename) {
+        long maxSize = properties.getMaxSize().toBytes();
+        if (declaredSize > maxSize) {
+            throw rejected("too_large", HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Image is " + declaredSize + " bytes, maximum is " + maxSize);
+        }
+        Path path = createTempFile();
+        try (OutputStream out = Files.newOutputStream(path)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[BUFFER_SIZE];
+            byte[] header = null;
+            long size = 0;
+            for (int read; (read = in.readNBytes(buffer, 0, buffer.length)) > 0; ) {
+                if (header == null) {
+                    header = Arrays.copyOf(buffer, Math.min(read, HEADER_SIZE));
+                }
+                size += read;
+                // la taille annoncée peut mentir : on compte ce qui arrive vraiment
+                if (size > maxSize) {
+                    throw rejected("too_large", HttpStatus.PAYLOAD_TOO_LARGE,
+                            "Image exceeds the maximum of " + maxSize + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+            MimeType mimeType = sniff(header).orElseThrow(() -> rejected("unsupported_type",
+                    HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Upload is not a JPEG, PNG, GIF or WebP image"));
+            sizes.record(size);
+            return new StagedImage(path, mimeType, size, HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException e) {
+            delete(path);
+            throw new UncheckedIOException("Cannot stage upload " + filename, e);
+        } catch (RuntimeException e) {
+            delete(path);
+            throw e;
+        } catch (NoSuchAlgorithmException e) {
+            delete(path);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Type d'image d'après les octets magiques, quel que soit le type annoncé par le client.
+     */
+    public static Optional<MimeType> sniff(byte[] header) {
+        if (header == null) {
+            return Optional.empty();
+        }
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return Optional.of(MimeTypeUtils.IMAGE_JPEG);
+        }
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return Optional.of(MimeTypeUtils.IMAGE_PNG);
+        }
+        if (ascii(header, 0, "GIF87a") || ascii(header, 0, "GIF89a")) {
+            return Optional.of(MimeTypeUtils.IMAGE_GIF);
+        }
+        if (ascii(header, 0, "RIFF") && ascii(header, 8, "WEBP")) {
+            return Optional.of(new MimeType("image", "webp"));
+        }
+        return Optional.empty();
+    }
+
+    private Path createTempFile() {
+        try {
+            Files.createDirectories(properties.getDirectory());
+            return Files.createTempFile(properties.getDirectory(), "upload-", ".img");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create staging file", e);
+        }
+    }
+
+    private ImageUploadException rejected(String reason, HttpStatus status, String message) {
+        Counter.builder("vision.upload.rejected").tag("reason", reason).register(meterRegistry).increment();
+        return new ImageUploadException(status, message);
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // fichier temporaire : le nettoyage du système prendra le relais
+        }
+    }
+
+    private static boolean startsWith(byte[] header, int offset, int... expected) {
+        if (header.length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if ((header[offset + i] & 0xFF) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean ascii(byte[] header, int offset, String expected) {
+        return startsWith(header, offset, expected.chars().toArray());
+    }
+}
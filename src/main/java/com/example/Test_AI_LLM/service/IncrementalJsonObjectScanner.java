@@ -0,0 +1,89 @@
+package com.example.Test_AI_LLM.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Découpe un flux de texte JSON, reçu morceau par morceau, en objets complets :
+ * chaque objet élément d'un tableau est renvoyé dès que son accolade fermante arrive.
+ * Le texte hors de la structure JSON (balises de code, phrases d'introduction ou de fin)
+ * est ignoré, y compris ses crochets ou accolades : une structure refermée sans avoir produit
+ * d'objet (« Films [2010s] : ») est oubliée et le balayage reprend. Un objet incomplet en fin
+ * de flux est signalé par {@link #hasPartial()}.
+ * Non thread-safe : une instance par flux.
+ */
+public class IncrementalJsonObjectScanner {
+
+    private final StringBuilder current = new StringBuilder();
+    private final Deque<Character> containers = new ArrayDeque<>();
+    private boolean inString;
+    private boolean escaped;
+    private boolean finished;
+    // objets émis depuis l'ouverture de la structure de premier niveau
+    private int emitted;
+    // profondeur à laquelle l'objet en cours a été ouvert, -1 hors objet
+    private int objectDepth = -1;
+
+    public List<String> feed(CharSequence chunk) {
+        List<String> completed = new ArrayList<>(1);
+        if (chunk == null) {
+            return completed;
+        }
+        for (int i = 0; i < chunk.length() && !finished; i++) {
+            char c = chunk.charAt(i);
+            if (objectDepth >= 0) {
+                current.append(c);
+            }
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> inString = !containers.isEmpty();
+                case '{' -> {
+                    if (objectDepth < 0 && !containers.isEmpty() && containers.peek() == '[') {
+                        objectDepth = containers.size();
+                        current.setLength(0);
+                        current.append(c);
+                    }
+                    containers.push('{');
+                }
+                case '[' -> containers.push('[');
+                case '}', ']' -> {
+                    if (containers.isEmpty()) {
+                        continue;
+                    }
+                    containers.pop();
+                    if (c == '}' && objectDepth == containers.size()) {
+                        completed.add(current.toString());
+                        current.setLength(0);
+                        objectDepth = -1;
+                        emitted++;
+                    }
+                    if (containers.isEmpty()) {
+                        // structure vide ou simple texte entre crochets : on attend la suivante
+                        finished = emitted > 0;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Vrai si le flux s'est arrêté au milieu d'un objet (réponse tronquée).
+     */
+    public boolean hasPartial() {
+        return objectDepth >= 0;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.Test_AI_LLM.service;
+
+public enum ModelTier {
+    SMALL,
+    LARGE
+}
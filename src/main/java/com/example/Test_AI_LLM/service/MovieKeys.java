@@ -0,0 +1,21 @@
+package com.example.Test_AI_LLM.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normalisation des champs d'un film pour les comparer : sans accents, casse ni ponctuation.
+ */
+public final class MovieKeys {
+
+    private MovieKeys() {
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("[^\\p{Alnum}]+", " ").strip();
+    }
+}
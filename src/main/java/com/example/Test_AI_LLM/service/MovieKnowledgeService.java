@@ -0,0 +1,195 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.KnowledgeProperties;
+import com.example.Test_AI_LLM.entity.MovieEntity;
+import com.example.Test_AI_LLM.entity.QueryCoverage;
+import com.example.Test_AI_LLM.outputs.Movie;
+import com.example.Test_AI_LLM.outputs.MovieList;
+import com.example.Test_AI_LLM.repository.MovieRepository;
+import com.example.Test_AI_LLM.repository.QueryCoverageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Base locale des films renvoyés par le modèle. Une requête simple (réalisateur, genre, année)
+ * dont les critères ont déjà été résolus récemment est servie depuis H2 sans appel au modèle ;
+ * sinon la réponse du modèle est enregistrée pour les suivantes.
+ */
+@Slf4j
+@Service
+public class MovieKnowledgeService {
+
+    private final MovieRepository movieRepository;
+    private final QueryCoverageRepository coverageRepository;
+    private final KnowledgeProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final MovieQueryParser parser = new MovieQueryParser();
+
+    public MovieKnowledgeService(MovieRepository movieRepository, QueryCoverageRepository coverageRepository,
+                                 KnowledgeProperties properties, TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry) {
+        this.movieRepository = movieRepository;
+        this.coverageRepository = coverageRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("knowledge.movies", movieRepository, MovieRepository::count)
+                .description("Films connus de la base locale")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Réponse locale si la requête est reconnue et que ses critères, ou des critères plus larges
+     * résolus de façon exhaustive, l'ont été par le modèle depuis moins de {@code ttl}.
+     */
+    public Optional<MovieList> resolve(String query) {
+        Optional<MovieQuery> parsed = parser.parse(query);
+        if (parsed.isEmpty()) {
+            lookup("unparsed");
+            return Optional.empty();
+        }
+        MovieQuery movieQuery = parsed.get();
+        String exactKey = movieQuery.coverageKey();
+        // un échantillon par genre ou par année ne répond pas à « genre + année » : seuls les
+        // critères exacts ou une couverture exhaustive comptent
+        List<QueryCoverage> coverages = coverageRepository.findByFacetKeyIn(movieQuery.coverageKeys()).stream()
+                .filter(coverage -> coverage.getFacetKey().equals(exactKey) || coverage.isExhaustive())
+                .toList();
+        Instant freshAfter = Instant.now().minus(properties.getTtl());
+        List<QueryCoverage> fresh = coverages.stream()
+                .filter(coverage -> coverage.getResolvedAt().isAfter(freshAfter))
+                .toList();
+        if (fresh.isEmpty()) {
+            lookup(coverages.isEmpty() ? "miss" : "stale");
+            return Optional.empty();
+        }
+
+        List<Movie> movies = movieRepository.search(movieQuery.director(), movieQuery.genre(), movieQuery.year())
+                .stream()
+                .map(MovieKnowledgeService::toMovie)
+                .toList();
+        // couverture enregistrée avec des films mais aucun ne correspond : on préfère redemander
+        if (movies.isEmpty() && fresh.stream().anyMatch(coverage -> coverage.getMovieCount() > 0)) {
+            lookup("miss");
+            return Optional.empty();
+        }
+        lookup("hit");
+        log.debug("Knowledge hit for '{}' ({} movies)", query, movies.size());
+        return Optional.of(new MovieList(movies));
+    }
+
+    /**
+     * Enregistre les films d'une réponse du modèle et marque les critères de la requête comme résolus.
+     * Les requêtes non reconnues ne couvrent rien mais leurs films sont conservés. Chaque film et la
+     * couverture ont leur propre transaction : un doublon inséré par une requête concurrente ne fait
+     * pas perdre le reste de la réponse.
+     */
+    public void record(String query, MovieList result) {
+        if (result == null || result.movies() == null) {
+            return;
+        }
+        Optional<MovieQuery> parsed = parser.parse(query);
+        Instant now = Instant.now();
+        result.movies().forEach(movie -> inTransaction(query, () -> upsert(movie, now)));
+        parsed.ifPresent(movieQuery -> inTransaction(query, () -> {
+            String key = movieQuery.coverageKey();
+            QueryCoverage coverage = coverageRepository.findByFacetKey(key)
+                    .orElseGet(() -> new QueryCoverage(key));
+            coverage.setResolvedAt(now);
+            coverage.setMovieCount(result.movies().size());
+            coverage.setExhaustive(movieQuery.exhaustive());
+            coverageRepository.save(coverage);
+        }));
+    }
+
+    // en cas de conflit, la ligne insérée entre-temps par une requête concurrente est relue et mise à jour
+    private void inTransaction(String query, Runnable work) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> work.run());
+        } catch (DataIntegrityViolationException first) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> work.run());
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Concurrent knowledge update for '{}' ignored: {}", query,
+                        e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        double hits = lookups("hit");
+        double misses = lookups("miss");
+        double stale = lookups("stale");
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", properties.isEnabled());
+        snapshot.put("ttl", properties.getTtl().toString());
+        snapshot.put("movies", movieRepository.count());
+        snapshot.put("coverages", coverageRepository.count());
+        snapshot.put("hits", (long) hits);
+        snapshot.put("misses", (long) misses);
+        snapshot.put("stale", (long) stale);
+        snapshot.put("unparsed", (long) lookups("unparsed"));
+        double lookups = hits + misses + stale;
+        snapshot.put("hitRate", lookups > 0 ? hits / lookups : 0.0);
+        return snapshot;
+    }
+
+    private void upsert(Movie movie, Instant now) {
+        if (!StringUtils.hasText(movie.title())) {
+            return;
+        }
+        String titleKey = MovieKeys.normalize(movie.title());
+        String releaseYear = movie.year() != null ? movie.year().strip() : "";
+        String directorKey = MovieKeys.normalize(movie.director());
+        MovieEntity entity = movieRepository.findByTitleKeyAndReleaseYearAndDirectorKey(
+                        titleKey, releaseYear, directorKey)
+                .orElseGet(() -> {
+                    MovieEntity created = new MovieEntity();
+                    created.setTitle(movie.title());
+                    created.setDirector(movie.director());
+                    created.setReleaseYear(releaseYear);
+                    created.setTitleKey(titleKey);
+                    created.setDirectorKey(directorKey);
+                    created.setFirstSeen(now);
+                    return created;
+                });
+        if (StringUtils.hasText(movie.genre())) {
+            entity.setGenre(movie.genre());
+            entity.setGenreKey(Genres.canonical(movie.genre()));
+        } else if (entity.getGenreKey() == null) {
+            entity.setGenreKey("");
+        }
+        entity.setLastSeen(now);
+        movieRepository.save(entity);
+    }
+
+    private static Movie toMovie(MovieEntity entity) {
+        return new Movie(entity.getTitle(), entity.getReleaseYear(), entity.getDirector(), entity.getGenre());
+    }
+
+    private void lookup(String outcome) {
+        Counter.builder("knowledge.lookups").tag("outcome", outcome).register(meterRegistry).increment();
+    }
+
+    private double lookups(String outcome) {
+        Counter counter = meterRegistry.find("knowledge.lookups").tag("outcome", outcome).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.Test_AI_LLM.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Critères d'une requête simple sur les films ; les valeurs sont normalisées, {@code null} si absentes.
+ */
+public record MovieQuery(String director, String genre, String year) {
+
+    /**
+     * Clés de couverture de toutes les combinaisons non vides de critères : une couverture
+     * plus large (ex. tout un réalisateur) répond aussi à une requête plus précise, si elle est
+     * {@link #exhaustive() exhaustive}.
+     */
+    public List<String> coverageKeys() {
+        List<String> keys = new ArrayList<>();
+        for (int mask = 1; mask < 8; mask++) {
+            String key = key((mask & 1) != 0 ? director : null,
+                    (mask & 2) != 0 ? genre : null,
+                    (mask & 4) != 0 ? year : null);
+            if (key != null && !keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * La réponse du modèle est complète quand elle porte sur un réalisateur (sa filmographie) ;
+     * pour un genre ou une année seuls, ce n'est qu'un échantillon d'une dizaine de films.
+     */
+    public boolean exhaustive() {
+        return director != null;
+    }
+
+    public String coverageKey() {
+        return key(director, genre, year);
+    }
+
+    private static String key(String director, String genre, String year) {
+        if (director == null && genre == null && year == null) {
+            return null;
+        }
+        return "director=" + (director != null ? director : "*")
+                + "|genre=" + (genre != null ? genre : "*")
+                + "|year=" + (year != null ? year : "*");
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.Test_AI_LLM.service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reconnaît les requêtes simples que la base locale peut servir : films d'un réalisateur,
+ * d'un genre et/ou d'une année (« films de Stanley Kubrick », « sci-fi movies from 1982 »).
+ * Toute autre demande (plages, décennies, questions ouvertes) n'est pas reconnue.
+ */
+public class MovieQueryParser {
+
+    private static final Pattern YEAR = Pattern.compile("\\b(?:19|20)\\d{2}\\b");
+    // préfixe en début de mot : « by » de « Nobody » ou « de » de « Dude » n'annoncent pas un réalisateur
+    static final Pattern DIRECTOR = Pattern.compile(
+            "(?<![\\p{L}])(?:réalisés?\\s+par|directed\\s+by|by|de|d'|du|of)\\s*"
+                    + "(\\p{Lu}[\\p{L}'’.-]*(?:\\s+(?:de\\s+|van\\s+|von\\s+)?\\p{Lu}[\\p{L}'’.-]*)*)");
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}'’-]+");
+
+    private static final Set<String> FILLER = Set.of(
+            "films", "film", "movies", "movie", "liste", "list", "tous", "toutes", "all", "les", "le", "la",
+            "the", "des", "de", "du", "d'", "of", "by", "from", "in", "en", "par", "réalisés", "réalisé",
+            "directed", "sortis", "sorti", "released", "donne", "moi", "donne-moi", "quels", "sont",
+            "genre", "année", "year", "what", "are", "show", "me", "give", "donnez", "donnez-moi", "et", "and");
+
+    public Optional<MovieQuery> parse(String query) {
+        if (query == null || query.isBlank()) {
+            return Optional.empty();
+        }
+        String remaining = query.strip();
+
+        List<String> genres = Genres.find(remaining);
+        if (genres.size() > 1) {
+            return Optional.empty();
+        }
+
+        String year = null;
+        Matcher years = YEAR.matcher(remaining);
+        if (years.find()) {
+            year = years.group();
+            if (years.find()) {
+                return Optional.empty();
+            }
+            remaining = remaining.replace(year, " ");
+        }
+
+        String director = null;
+        Matcher directors = DIRECTOR.matcher(remaining);
+        while (directors.find()) {
+            String candidate = directors.group(1);
+            if (Genres.find(candidate).isEmpty()) {
+                director = MovieKeys.normalize(candidate);
+                remaining = remaining.substring(0, directors.start(1)) + " " + remaining.substring(directors.end(1));
+                break;
+            }
+        }
+
+        String genre = genres.isEmpty() ? null : genres.get(0);
+        if (director == null && genre == null && year == null) {
+            return Optional.empty();
+        }
+        return onlyFiller(remaining) ? Optional.of(new MovieQuery(director, genre, year)) : Optional.empty();
+    }
+
+    private static boolean onlyFiller(String text) {
+        Matcher words = WORD.matcher(text.toLowerCase(Locale.ROOT));
+        while (words.find()) {
+            String word = words.group();
+            if (!FILLER.contains(word) && Genres.find(word).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.Test_AI_LLM.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Accès minimal à l'API batch OpenAI : dépôt du fichier JSONL, création et suivi du lot,
+ * lecture ligne à ligne des fichiers de résultats.
+ */
+public class OpenAiBatchClient {
+
+    private final RestClient restClient;
+
+    public OpenAiBatchClient(RestClient restClient) {
+        this.restClient = restClient;
+    }
+
+    public String uploadInput(byte[] jsonl, String filename) {
+        MultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
+        parts.add("purpose", "batch");
+        parts.add("file", new ByteArrayResource(jsonl) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        });
+
+        FileObject file = restClient.post()
+                .uri("/v1/files")
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(parts)
+                .retrieve()
+                .body(FileObject.class);
+        if (file == null || file.id() == null) {
+            throw new IllegalStateException("Batch input upload returned no file id");
+        }
+        return file.id();
+    }
+
+    public Batch createBatch(String inputFileId, String endpoint, String completionWindow) {
+        return restClient.post()
+                .uri("/v1/batches")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of(
+                        "input_file_id", inputFileId,
+                        "endpoint", endpoint,
+                        "completion_window", completionWindow))
+                .retrieve()
+                .body(Batch.class);
+    }
+
+    public Batch retrieveBatch(String batchId) {
+        return restClient.get()
+                .uri("/v1/batches/{id}", batchId)
+                .retrieve()
+                .body(Batch.class);
+    }
+
+    public Batch cancelBatch(String batchId) {
+        return restClient.post()
+                .uri("/v1/batches/{id}/cancel", batchId)
+                .retrieve()
+                .body(Batch.class);
+    }
+
+    /**
+     * Lit un fichier de résultats sans le charger entièrement en mémoire.
+     */
+    public void readLines(String fileId, Consumer<String> consumer) {
+        restClient.get()
+                .uri("/v1/files/{id}/content", fileId)
+                .exchange((request, response) -> {
+                    if (response.getStatusCode().isError()) {
+                        throw new IllegalStateException("Cannot download batch file " + fileId
+                                + ": HTTP " + response.getStatusCode().value());
+                    }
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                        reader.lines().filter(StringUtils::hasText).forEach(consumer);
+                    }
+                    return null;
+                });
+    }
+
+    public record FileObject(String id) {
+    }
+
+    public record Batch(
+            String id,
+            String status,
+            @JsonProperty("input_file_id") String inputFileId,
+            @JsonProperty("output_file_id") String outputFileId,
+            @JsonProperty("error_file_id") String errorFileId,
+            @JsonProperty("request_counts") RequestCounts requestCounts
+    ) {
+    }
+
+    public record RequestCounts(int total, int completed, int failed) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.Test_AI_LLM.service;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.MimeType;
+
+/**
+ * Image prête à être envoyée au modèle vision.
+ *
+ * @param originalSize taille en octets de l'image d'origine
+ */
+public record PreparedImage(MimeType mimeType, byte[] bytes, int width, int height, long originalSize) {
+
+    public Resource resource() {
+        return new ByteArrayResource(bytes);
+    }
+
+    /**
+     * Tokens image facturés en détail « high » pour ces dimensions.
+     */
+    public int estimatedTokens() {
+        return ImagePreprocessor.estimateTokens(width, height);
+    }
+}
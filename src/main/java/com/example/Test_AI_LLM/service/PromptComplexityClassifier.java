@@ -0,0 +1,15 @@
+package com.example.Test_AI_LLM.service;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+
+/**
+ * Estime la complexité d'une requête pour choisir le palier de modèle.
+ * Déclarer un autre bean de ce type remplace l'heuristique par défaut.
+ */
+public interface PromptComplexityClassifier {
+
+    /**
+     * @return un score entre 0 (trivial) et 1 (complexe)
+     */
+    double score(ChatClientRequest request);
+}
@@ -0,0 +1,122 @@
+package com.example.Test_AI_LLM.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.time.Duration;
+
+/**
+ * Un fournisseur candidat du {@link RoutingChatModel} avec sa fenêtre glissante
+ * de latences et d'erreurs.
+ */
+public class ProviderRoute {
+
+    private final String name;
+    private final ChatModel chatModel;
+    private final String pinnedModel;
+    private final long[] latencies;
+    private final boolean[] failures;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private int next;
+    private int size;
+
+    public ProviderRoute(String name, ChatModel chatModel, String pinnedModel,
+                         int windowSize, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.chatModel = chatModel;
+        this.pinnedModel = pinnedModel;
+        this.latencies = new long[windowSize];
+        this.failures = new boolean[windowSize];
+        this.successTimer = latencyTimer(meterRegistry, "success");
+        this.failureTimer = latencyTimer(meterRegistry, "error");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ChatModel getChatModel() {
+        return chatModel;
+    }
+
+    /**
+     * Les fournisseurs avec un modèle fixé (ex: Ollama) ignorent le modèle OpenAI du prompt.
+     */
+    public Prompt adapt(Prompt prompt) {
+        if (pinnedModel == null) {
+            return prompt;
+        }
+        return ChatOptionsUtils.withModel(prompt, pinnedModel);
+    }
+
+    public void recordSuccess(long nanos) {
+        record(nanos, false);
+        successTimer.record(Duration.ofNanos(nanos));
+    }
+
+    public void recordFailure(long nanos) {
+        record(nanos, true);
+        failureTimer.record(Duration.ofNanos(nanos));
+    }
+
+    public synchronized int samples() {
+        return size;
+    }
+
+    /**
+     * Latence moyenne des appels réussis : un refus de connexion en 1 ms ne rend pas une route rapide.
+     */
+    public synchronized double meanLatencyMillis() {
+        long total = 0;
+        int successes = 0;
+        for (int i = 0; i < size; i++) {
+            if (!failures[i]) {
+                total += latencies[i];
+                successes++;
+            }
+        }
+        return successes == 0 ? 0 : total / (double) successes / 1_000_000;
+    }
+
+    public synchronized double errorRate() {
+        if (size == 0) {
+            return 0;
+        }
+        int errors = 0;
+        for (int i = 0; i < size; i++) {
+            if (failures[i]) {
+                errors++;
+            }
+        }
+        return errors / (double) size;
+    }
+
+    /**
+     * Plus le score est bas, meilleur est le fournisseur. Un fournisseur sans mesure
+     * obtient 0 pour être essayé en priorité. Chaque erreur coûte en plus une bascule :
+     * {@code failurePenalty} pondéré par le taux d'erreur, pour qu'une route qui échoue vite
+     * passe derrière une route saine même sans latence mesurée.
+     */
+    public double score(double errorPenalty, Duration failurePenalty) {
+        double errorRate = errorRate();
+        return meanLatencyMillis() * (1 + errorPenalty * errorRate) + failurePenalty.toMillis() * errorRate;
+    }
+
+    private synchronized void record(long nanos, boolean failure) {
+        latencies[next] = nanos;
+        failures[next] = failure;
+        next = (next + 1) % latencies.length;
+        size = Math.min(size + 1, latencies.length);
+    }
+
+    private Timer latencyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("routing.provider.latency")
+                .tag("provider", name)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
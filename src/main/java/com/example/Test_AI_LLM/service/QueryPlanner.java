@@ -0,0 +1,12 @@
+package com.example.Test_AI_LLM.service;
+
+import java.util.List;
+
+/**
+ * Découpe une requête en sous-requêtes indépendantes. Une liste d'un seul élément
+ * signifie que la requête n'est pas découpée.
+ */
+public interface QueryPlanner {
+
+    List<String> plan(String query);
+}
@@ -0,0 +1,202 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.RoutingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link ChatModel} qui choisit un fournisseur par requête à partir d'une fenêtre glissante
+ * de latences et d'erreurs, bascule sur le suivant en cas d'échec et garde une conversation
+ * sur le même fournisseur tant qu'il reste sain.
+ */
+@Slf4j
+public class RoutingChatModel implements ChatModel {
+
+    private final List<ProviderRoute> routes;
+    private final RoutingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, StickyRoute> stickyRoutes = new ConcurrentHashMap<>();
+
+    public RoutingChatModel(List<ProviderRoute> routes, RoutingProperties properties, MeterRegistry meterRegistry) {
+        if (routes.isEmpty()) {
+            throw new IllegalArgumentException("At least one provider route is required");
+        }
+        this.routes = List.copyOf(routes);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        String conversationId = RoutingContext.currentConversation();
+        List<Candidate> candidates = candidates(conversationId);
+
+        RuntimeException lastError = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            ProviderRoute route = candidate.route();
+            long start = System.nanoTime();
+            try {
+                ChatResponse response = route.getChatModel().call(route.adapt(prompt));
+                route.recordSuccess(System.nanoTime() - start);
+                decided(route, i == 0 ? candidate.reason() : "failover", conversationId);
+                return response;
+            } catch (RuntimeException e) {
+                route.recordFailure(System.nanoTime() - start);
+                log.warn("Provider '{}' failed, trying next route: {}", route.getName(), e.getMessage());
+                lastError = e;
+            }
+        }
+        throw lastError;
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.deferContextual(context -> {
+            String conversationId = context.getOrDefault(RoutingContext.CONVERSATION_KEY, null);
+            return stream(prompt, candidates(conversationId), 0, conversationId);
+        });
+    }
+
+    // Bascule possible tant qu'aucun fragment n'a été émis au client
+    private Flux<ChatResponse> stream(Prompt prompt, List<Candidate> candidates, int index, String conversationId) {
+        Candidate candidate = candidates.get(index);
+        ProviderRoute route = candidate.route();
+        AtomicBoolean emitted = new AtomicBoolean();
+        long start = System.nanoTime();
+
+        return route.getChatModel().stream(route.adapt(prompt))
+                .doOnNext(response -> {
+                    if (emitted.compareAndSet(false, true)) {
+                        decided(route, index == 0 ? candidate.reason() : "failover", conversationId);
+                    }
+                })
+                .doOnComplete(() -> route.recordSuccess(System.nanoTime() - start))
+                .onErrorResume(e -> {
+                    route.recordFailure(System.nanoTime() - start);
+                    if (emitted.get() || index + 1 >= candidates.size()) {
+                        return Flux.error(e);
+                    }
+                    log.warn("Provider '{}' failed before first chunk, trying next route: {}",
+                            route.getName(), e.getMessage());
+                    return stream(prompt, candidates, index + 1, conversationId);
+                });
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return routes.get(0).getChatModel().getDefaultOptions();
+    }
+
+    public List<ProviderRoute> getRoutes() {
+        return routes;
+    }
+
+    public int stickyConversations() {
+        return stickyRoutes.size();
+    }
+
+    /**
+     * Ordre d'essai : route collante si saine, sinon exploration aléatoire occasionnelle,
+     * sinon meilleur score ; les autres routes suivent comme secours.
+     */
+    List<Candidate> candidates(String conversationId) {
+        List<ProviderRoute> ordered = new ArrayList<>(routes);
+        ordered.sort(Comparator.comparingDouble(route -> route.score(properties.getErrorPenalty(),
+                properties.getFailurePenalty())));
+
+        ProviderRoute first = ordered.get(0);
+        String reason = "best";
+
+        ProviderRoute sticky = stickyRoute(conversationId);
+        if (sticky != null && sticky.errorRate() <= properties.getStickyMaxErrorRate()) {
+            first = sticky;
+            reason = "sticky";
+        } else if (ordered.size() > 1 && ThreadLocalRandom.current().nextDouble() < properties.getExplorationRate()) {
+            first = ordered.get(1 + ThreadLocalRandom.current().nextInt(ordered.size() - 1));
+            reason = "explore";
+        }
+
+        ordered.remove(first);
+        List<Candidate> candidates = new ArrayList<>();
+        candidates.add(new Candidate(first, reason));
+        ordered.forEach(route -> candidates.add(new Candidate(route, "failover")));
+        return candidates;
+    }
+
+    /**
+     * Instantané exposé par l'endpoint actuator {@code routing}.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> providers = new LinkedHashMap<>();
+        for (ProviderRoute route : routes) {
+            providers.put(route.getName(), Map.of(
+                    "samples", route.samples(),
+                    "meanLatencyMs", route.meanLatencyMillis(),
+                    "errorRate", route.errorRate(),
+                    "score", route.score(properties.getErrorPenalty(), properties.getFailurePenalty())));
+        }
+        return Map.of("providers", providers, "stickyConversations", stickyConversations());
+    }
+
+    private ProviderRoute stickyRoute(String conversationId) {
+        if (conversationId == null) {
+            return null;
+        }
+        StickyRoute sticky = stickyRoutes.get(conversationId);
+        if (sticky == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - sticky.lastUsed() > properties.getStickyTtl().toMillis()) {
+            stickyRoutes.remove(conversationId, sticky);
+            return null;
+        }
+        return sticky.route();
+    }
+
+    private void decided(ProviderRoute route, String reason, String conversationId) {
+        Counter.builder("routing.decisions")
+                .tag("provider", route.getName())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        log.debug("Routed request to '{}' ({})", route.getName(), reason);
+
+        if (conversationId != null) {
+            if (stickyRoutes.size() >= properties.getStickyMaxConversations()) {
+                evictExpired();
+            }
+            if (stickyRoutes.size() < properties.getStickyMaxConversations()
+                    || stickyRoutes.containsKey(conversationId)) {
+                stickyRoutes.put(conversationId, new StickyRoute(route, System.currentTimeMillis()));
+            }
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        long ttl = properties.getStickyTtl().toMillis();
+        stickyRoutes.values().removeIf(sticky -> now - sticky.lastUsed() > ttl);
+    }
+
+    record Candidate(ProviderRoute route, String reason) {
+    }
+
+    private record StickyRoute(ProviderRoute route, long lastUsed) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.Test_AI_LLM.service;
+
+/**
+ * Transporte l'identifiant de conversation jusqu'au {@link RoutingChatModel}.
+ * Appels bloquants : ThreadLocal ; flux : clé {@link #CONVERSATION_KEY} du contexte Reactor.
+ */
+public final class RoutingContext {
+
+    public static final String CONVERSATION_KEY = "routing.conversation-id";
+
+    private static final ThreadLocal<String> CONVERSATION = new ThreadLocal<>();
+
+    private RoutingContext() {
+    }
+
+    public static String currentConversation() {
+        return CONVERSATION.get();
+    }
+
+    public static void setConversation(String conversationId) {
+        CONVERSATION.set(conversationId);
+    }
+
+    public static void clear() {
+        CONVERSATION.remove();
+    }
+}
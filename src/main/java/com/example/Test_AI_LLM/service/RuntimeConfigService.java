@@ -0,0 +1,249 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.AdminProperties;
+import com.example.Test_AI_LLM.config.BulkheadProperties;
+import com.example.Test_AI_LLM.config.HttpClientProperties;
+import com.example.Test_AI_LLM.config.OpenAiImageProperties;
+import com.example.Test_AI_LLM.config.TieringProperties;
+import com.example.Test_AI_LLM.dto.RuntimeConfigPatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiChatProperties;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Modifie à chaud les limites des pools, les délais HTTP et les modèles, sans redéploiement.
+ * Un changement est validé en entier avant d'être appliqué ; les bulkheads concernés
+ * remplacent alors leur pool (voir {@link Bulkhead#reconfigure}). Chaque valeur modifiée
+ * est tracée dans le journal {@code audit.admin} et dans l'historique en mémoire.
+ */
+@Service
+public class RuntimeConfigService {
+
+    private static final Logger audit = LoggerFactory.getLogger("audit.admin");
+
+    private final BulkheadProperties bulkheadProperties;
+    private final HttpClientProperties httpProperties;
+    private final Bulkheads bulkheads;
+    private final TieringProperties tieringProperties;
+    private final OpenAiChatProperties chatProperties;
+    private final OpenAiImageProperties imageProperties;
+    private final AdminProperties adminProperties;
+    private final Deque<AuditEntry> history = new ArrayDeque<>();
+
+    public RuntimeConfigService(BulkheadProperties bulkheadProperties, HttpClientProperties httpProperties,
+                                Bulkheads bulkheads, TieringProperties tieringProperties,
+                                OpenAiChatProperties chatProperties, OpenAiImageProperties imageProperties,
+                                AdminProperties adminProperties) {
+        this.bulkheadProperties = bulkheadProperties;
+        this.httpProperties = httpProperties;
+        this.bulkheads = bulkheads;
+        this.tieringProperties = tieringProperties;
+        this.chatProperties = chatProperties;
+        this.imageProperties = imageProperties;
+        this.adminProperties = adminProperties;
+    }
+
+    /**
+     * Applique les champs renseignés du changement et renvoie la configuration effective.
+     *
+     * @throws IllegalArgumentException si une valeur est invalide ; rien n'est alors appliqué
+     */
+    public synchronized Map<String, Object> apply(RuntimeConfigPatch patch, String actor) {
+        List<Change> changes = new ArrayList<>();
+        Set<String> reconfigured = new LinkedHashSet<>();
+
+        if (patch.bulkheads() != null) {
+            patch.bulkheads().forEach((name, value) -> {
+                BulkheadProperties.Pool pool = pool(name);
+                validate(name, pool, value);
+                String prefix = "bulkhead." + name + ".";
+                int before = changes.size();
+                change(changes, prefix + "core-threads", pool.getCoreThreads(), value.coreThreads(), pool::setCoreThreads);
+                change(changes, prefix + "max-threads", pool.getMaxThreads(), value.maxThreads(), pool::setMaxThreads);
+                change(changes, prefix + "max-connections", pool.getMaxConnections(), value.maxConnections(),
+                        pool::setMaxConnections);
+                change(changes, prefix + "pending-acquire-max-count", pool.getPendingAcquireMaxCount(),
+                        value.pendingAcquireMaxCount(), pool::setPendingAcquireMaxCount);
+                change(changes, prefix + "pending-acquire-timeout", pool.getPendingAcquireTimeout(),
+                        positive(value.pendingAcquireTimeout()), pool::setPendingAcquireTimeout);
+                if (changes.size() > before) {
+                    reconfigured.add(name);
+                }
+            });
+        }
+
+        RuntimeConfigPatch.Http http = patch.http();
+        if (http != null) {
+            int before = changes.size();
+            HttpClientProperties p = httpProperties;
+            change(changes, "http.client.http2", p.isHttp2(), http.http2(), p::setHttp2);
+            change(changes, "http.client.connect-timeout", p.getConnectTimeout(), positive(http.connectTimeout()),
+                    p::setConnectTimeout);
+            change(changes, "http.client.read-timeout", p.getReadTimeout(), positive(http.readTimeout()),
+                    p::setReadTimeout);
+            change(changes, "http.client.response-timeout", p.getResponseTimeout(), positive(http.responseTimeout()),
+                    p::setResponseTimeout);
+            change(changes, "http.client.write-timeout", p.getWriteTimeout(), positive(http.writeTimeout()),
+                    p::setWriteTimeout);
+            change(changes, "http.client.max-idle-time", p.getMaxIdleTime(), positive(http.maxIdleTime()),
+                    p::setMaxIdleTime);
+            change(changes, "http.client.max-life-time", p.getMaxLifeTime(), positive(http.maxLifeTime()),
+                    p::setMaxLifeTime);
+            change(changes, "http.client.eviction-interval", p.getEvictionInterval(), positive(http.evictionInterval()),
+                    p::setEvictionInterval);
+            change(changes, "http.client.drain-timeout", p.getDrainTimeout(), positive(http.drainTimeout()),
+                    p::setDrainTimeout);
+            if (changes.size() > before) {
+                reconfigured.addAll(List.of("text", "vision", "image"));
+            }
+        }
+
+        RuntimeConfigPatch.Models models = patch.models();
+        if (models != null) {
+            change(changes, "spring.ai.openai.chat.options.model", chatProperties.getOptions().getModel(),
+                    model(models.chat()), chatProperties.getOptions()::setModel);
+            change(changes, "tiering.small.model", tieringProperties.getSmall().getModel(),
+                    model(models.small()), tieringProperties.getSmall()::setModel);
+            change(changes, "tiering.large.model", tieringProperties.getLarge().getModel(),
+                    model(models.large()), tieringProperties.getLarge()::setModel);
+            change(changes, "openai.image.model", imageProperties.getModel(),
+                    model(models.image()), imageProperties::setModel);
+        }
+
+        // tout est validé : on applique, puis on remplace les pools concernés
+        changes.forEach(change -> change.apply().run());
+        reconfigured.forEach(name -> bulkhead(name).reconfigure(pool(name), httpProperties));
+
+        Instant now = Instant.now();
+        for (Change change : changes) {
+            AuditEntry entry = new AuditEntry(now, actor, change.key(), change.previous(), change.value());
+            audit.info("{} changed {}: {} -> {}", actor, entry.key(), entry.previous(), entry.value());
+            history.addFirst(entry);
+            while (history.size() > adminProperties.getAuditSize()) {
+                history.removeLast();
+            }
+        }
+        return effective();
+    }
+
+    /**
+     * Configuration effectivement en vigueur.
+     */
+    public Map<String, Object> effective() {
+        Map<String, Object> pools = new LinkedHashMap<>();
+        for (String name : List.of("text", "vision", "image")) {
+            BulkheadProperties.Pool pool = pool(name);
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("coreThreads", pool.getCoreThreads());
+            values.put("maxThreads", pool.getMaxThreads());
+            values.put("queueCapacity", pool.getQueueCapacity());
+            values.put("maxConnections", pool.getMaxConnections());
+            values.put("pendingAcquireMaxCount", pool.getPendingAcquireMaxCount());
+            values.put("pendingAcquireTimeout", pool.getPendingAcquireTimeout().toString());
+            values.put("saturation", bulkhead(name).saturation());
+            pools.put(name, values);
+        }
+
+        Map<String, Object> http = new LinkedHashMap<>();
+        http.put("http2", httpProperties.isHttp2());
+        http.put("connectTimeout", httpProperties.getConnectTimeout().toString());
+        http.put("readTimeout", httpProperties.getReadTimeout().toString());
+        http.put("responseTimeout", httpProperties.getResponseTimeout().toString());
+        http.put("writeTimeout", httpProperties.getWriteTimeout().toString());
+        http.put("maxIdleTime", httpProperties.getMaxIdleTime().toString());
+        http.put("maxLifeTime", httpProperties.getMaxLifeTime().toString());
+        http.put("evictionInterval", httpProperties.getEvictionInterval().toString());
+        http.put("drainTimeout", httpProperties.getDrainTimeout().toString());
+
+        Map<String, Object> models = new LinkedHashMap<>();
+        models.put("chat", chatProperties.getOptions().getModel());
+        models.put("small", tieringProperties.getSmall().getModel());
+        String large = tieringProperties.getLarge().getModel();
+        models.put("large", large != null ? large : chatProperties.getOptions().getModel());
+        models.put("image", imageProperties.getModel());
+
+        Map<String, Object> effective = new LinkedHashMap<>();
+        effective.put("bulkheads", pools);
+        effective.put("http", http);
+        effective.put("models", models);
+        return effective;
+    }
+
+    /**
+     * Derniers changements, du plus récent au plus ancien.
+     */
+    public synchronized List<AuditEntry> audit() {
+        return List.copyOf(history);
+    }
+
+    private BulkheadProperties.Pool pool(String name) {
+        return switch (name) {
+            case "text" -> bulkheadProperties.getText();
+            case "vision" -> bulkheadProperties.getVision();
+            case "image" -> bulkheadProperties.getImage();
+            default -> throw new IllegalArgumentException("Unknown bulkhead '" + name + "'");
+        };
+    }
+
+    private Bulkhead bulkhead(String name) {
+        return switch (name) {
+            case "text" -> bulkheads.text();
+            case "vision" -> bulkheads.vision();
+            default -> bulkheads.image();
+        };
+    }
+
+    private static void validate(String name, BulkheadProperties.Pool pool, RuntimeConfigPatch.Pool value) {
+        int core = value.coreThreads() != null ? value.coreThreads() : pool.getCoreThreads();
+        int max = value.maxThreads() != null ? value.maxThreads() : pool.getMaxThreads();
+        if (core < 1 || max < core) {
+            throw new IllegalArgumentException("Bulkhead '" + name + "': need 1 <= core-threads <= max-threads");
+        }
+        if (value.maxConnections() != null && value.maxConnections() < 1) {
+            throw new IllegalArgumentException("Bulkhead '" + name + "': max-connections must be positive");
+        }
+        if (value.pendingAcquireMaxCount() != null && value.pendingAcquireMaxCount() < 1) {
+            throw new IllegalArgumentException("Bulkhead '" + name + "': pending-acquire-max-count must be positive");
+        }
+    }
+
+    private static Duration positive(Duration duration) {
+        if (duration != null && (duration.isNegative() || duration.isZero())) {
+            throw new IllegalArgumentException("Durations must be positive: " + duration);
+        }
+        return duration;
+    }
+
+    private static String model(String model) {
+        if (model != null && model.isBlank()) {
+            throw new IllegalArgumentException("Model names must not be blank");
+        }
+        return model;
+    }
+
+    private static <T> void change(List<Change> changes, String key, T current, T value, Consumer<T> setter) {
+        if (value != null && !Objects.equals(current, value)) {
+            changes.add(new Change(key, String.valueOf(current), String.valueOf(value), () -> setter.accept(value)));
+        }
+    }
+
+    private record Change(String key, String previous, String value, Runnable apply) {
+    }
+
+    public record AuditEntry(Instant at, String actor, String key, String previous, String value) {
+    }
+}
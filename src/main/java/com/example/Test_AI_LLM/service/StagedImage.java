@@ -0,0 +1,27 @@
+package com.example.Test_AI_LLM.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Image reçue, copiée sur disque. Le type vient des premiers octets et non de l'en-tête
+ * du client ; {@link #close()} supprime le fichier.
+ *
+ * @param sha256 empreinte des octets, calculée pendant la copie
+ */
+@Slf4j
+public record StagedImage(Path path, MimeType mimeType, long size, String sha256) implements AutoCloseable {
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Cannot delete staged upload {}: {}", path, e.getMessage());
+        }
+    }
+}
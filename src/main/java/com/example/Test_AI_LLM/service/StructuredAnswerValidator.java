@@ -0,0 +1,34 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.advisor.AdvisorParams;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Validation par défaut : quand la requête attend une sortie structurée
+ * ({@link AdvisorParams#OUTPUT_TYPE}), la réponse doit se lire et se valider comme le fera
+ * {@link StructuredExtractionService} ; les réponses libres sont acceptées.
+ */
+public class StructuredAnswerValidator implements AnswerValidator {
+
+    private final StructuredExtractionService extraction;
+
+    public StructuredAnswerValidator(StructuredExtractionService extraction) {
+        this.extraction = extraction;
+    }
+
+    @Override
+    public boolean accept(ChatClientRequest request, ChatClientResponse response) {
+        if (!(request.context().get(AdvisorParams.OUTPUT_TYPE) instanceof String typeName)) {
+            return true;
+        }
+        ChatResponse chatResponse = response.chatResponse();
+        if (chatResponse == null || chatResponse.getResult() == null) {
+            return false;
+        }
+        Class<?> type = ClassUtils.resolveClassName(typeName, getClass().getClassLoader());
+        return extraction.accepts(chatResponse.getResult().getOutput().getText(), type);
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.advisor.AdvisorParams;
+import com.example.Test_AI_LLM.config.ExtractionProperties;
+import com.example.Test_AI_LLM.exception.StructuredOutputException;
+import com.example.Test_AI_LLM.outputs.CarteVitale;
+import com.example.Test_AI_LLM.outputs.Movie;
+import com.example.Test_AI_LLM.outputs.MovieList;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.converter.BeanOutputConverter;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.ResponseFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Extraction typée des réponses du modèle, en remplacement de {@code .entity(...)} :
+ * le schéma et les instructions de format sont calculés une fois par type, la réponse
+ * est lue directement par un {@link ObjectReader} (pas d'arbre intermédiaire), réparée
+ * localement (balises de code, texte autour du JSON, virgules finales) puis validée.
+ * En mode {@code extraction.strict-schema}, le schéma part dans {@code response_format}.
+ */
+@Slf4j
+@Service
+public class StructuredExtractionService {
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+    private final ExtractionProperties properties;
+    private final ObservationRegistry observationRegistry;
+    private final Map<Class<?>, ExtractionSpec<?>> specs = new ConcurrentHashMap<>();
+
+    public StructuredExtractionService(ObjectMapper objectMapper, Validator validator, MeterRegistry meterRegistry,
+                                       ExtractionProperties properties) {
+        this(objectMapper, validator, meterRegistry, properties, ObservationRegistry.NOOP);
+    }
+
+    @Autowired
+    public StructuredExtractionService(ObjectMapper objectMapper, Validator validator, MeterRegistry meterRegistry,
+                                       ExtractionProperties properties, ObservationRegistry observationRegistry) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.observationRegistry = observationRegistry;
+        // types cibles connus préparés au démarrage
+        List.of(MovieList.class, Movie.class, CarteVitale.class).forEach(this::spec);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> ExtractionSpec<T> spec(Class<T> type) {
+        return (ExtractionSpec<T>) specs.computeIfAbsent(type, this::createSpec);
+    }
+
+    public String instructions(Class<?> type) {
+        return spec(type).formatInstructions();
+    }
+
+    public boolean isStrictSchema() {
+        return properties.isStrictSchema();
+    }
+
+    /**
+     * Exécute la requête et convertit la réponse.
+     */
+    public <T> T call(ChatClient.ChatClientRequestSpec request, Class<T> type) {
+        return parse(withFormat(request, type).call().content(), type);
+    }
+
+    /**
+     * Demande le format du type cible : schéma strict dans {@code response_format}, ou
+     * instructions en message système, que {@code StablePrefixAdvisor} fusionne au système
+     * de la requête.
+     */
+    public ChatClient.ChatClientRequestSpec withFormat(ChatClient.ChatClientRequestSpec request, Class<?> type) {
+        ExtractionSpec<?> spec = spec(type);
+        request.advisors(a -> a.param(AdvisorParams.OUTPUT_TYPE, type.getName()));
+        return properties.isStrictSchema()
+                ? request.options(OpenAiChatOptions.builder().responseFormat(spec.responseFormat()).build())
+                : request.messages(spec.formatMessage());
+    }
+
+    /**
+     * Répare, lit et valide la réponse ; la durée est publiée par {@code extraction.parse.duration}
+     * et tracée par {@code extraction.parse}.
+     */
+    public <T> T parse(String text, Class<T> type) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            T value = Observation.createNotStarted("extraction.parse", observationRegistry)
+                    .contextualName("extraction parse")
+                    .lowCardinalityKeyValue("type", type.getSimpleName())
+                    .observe(() -> read(text, type));
+            outcome = "success";
+            return value;
+        } finally {
+            sample.stop(Timer.builder("extraction.parse.duration")
+                    .tag("type", type.getSimpleName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Indique si la réponse se lit et se valide, sans publier de durée : sert à décider d'une
+     * escalade avant la lecture définitive par {@link #parse}.
+     */
+    public boolean accepts(String text, Class<?> type) {
+        try {
+            read(text, type);
+            return true;
+        } catch (StructuredOutputException e) {
+            log.debug("Answer rejected for {}: {}", type.getSimpleName(), e.getMessage());
+            return false;
+        }
+    }
+
+    private <T> T read(String text, Class<T> type) {
+        if (!StringUtils.hasText(text)) {
+            throw failure(type, "parse", "empty response", null);
+        }
+        ExtractionSpec<T> spec = spec(type);
+        String json = trimToJson(text);
+        if (json.length() != text.strip().length()) {
+            Counter.builder("extraction.repairs").tag("type", type.getSimpleName()).register(meterRegistry).increment();
+        }
+
+        T value;
+        try {
+            value = spec.reader().readValue(json);
+        } catch (IOException e) {
+            throw failure(type, "parse", e.getMessage(), e);
+        }
+        if (value == null) {
+            throw failure(type, "parse", "null document", null);
+        }
+
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            throw failure(type, "validation", violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")), null);
+        }
+        return value;
+    }
+
+    private <T> ExtractionSpec<T> createSpec(Class<T> type) {
+        BeanOutputConverter<T> converter = new BeanOutputConverter<>(type, objectMapper);
+        String format = converter.getFormat();
+        ObjectReader reader = objectMapper.readerFor(type).with(JsonReadFeature.ALLOW_TRAILING_COMMA);
+        ResponseFormat responseFormat = ResponseFormat.builder()
+                .type(ResponseFormat.Type.JSON_SCHEMA)
+                .jsonSchema(ResponseFormat.JsonSchema.builder()
+                        .name(type.getSimpleName())
+                        .schema(strict(converter.getJsonSchemaMap()))
+                        .strict(true)
+                        .build())
+                .build();
+        log.debug("Prepared structured extraction for {}", type.getSimpleName());
+        return new ExtractionSpec<>(type, converter.getJsonSchema(), format,
+                SystemMessage.builder().text(format).build(), responseFormat, reader);
+    }
+
+    /**
+     * Le mode strict exige, pour chaque objet du schéma, que toutes les propriétés soient
+     * listées dans {@code required} et que les propriétés additionnelles soient interdites.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> strict(Map<String, Object> schema) {
+        if (schema.get("properties") instanceof Map<?, ?> properties) {
+            schema.put("required", List.copyOf((Set<String>) properties.keySet()));
+            schema.put("additionalProperties", false);
+        }
+        for (Object value : schema.values()) {
+            if (value instanceof Map<?, ?> child) {
+                strict((Map<String, Object>) child);
+            } else if (value instanceof List<?> children) {
+                children.stream()
+                        .filter(Map.class::isInstance)
+                        .forEach(child -> strict((Map<String, Object>) child));
+            }
+        }
+        return schema;
+    }
+
+    /**
+     * Isole la première valeur JSON complète du texte : ignore balises de code, phrases
+     * d'introduction et texte final. Un document non refermé est renvoyé tel quel et
+     * échouera au parsing.
+     */
+    static String trimToJson(String text) {
+        int start = -1;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{' || c == '[') {
+                start = i;
+                break;
+            }
+        }
+        if (start < 0) {
+            return text.strip();
+        }
+
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if ((c == '}' || c == ']') && --depth == 0) {
+                return text.substring(start, i + 1);
+            }
+        }
+        return text.substring(start);
+    }
+
+    private StructuredOutputException failure(Class<?> type, String reason, String message, Throwable cause) {
+        Counter.builder("extraction.failures")
+                .tag("type", type.getSimpleName())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return new StructuredOutputException(type, message, cause);
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.VisionCacheProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Réponses vision déjà payées : même image (SHA-256 des octets), même modèle, même prompt système
+ * et même question normalisée donnent la même réponse ; un changement de modèle (à chaud via
+ * {@code /admin/config}) ne ressert donc pas les réponses de l'ancien. Niveau mémoire LRU borné, puis niveau disque ;
+ * les appels identiques simultanés partagent un seul appel au modèle.
+ */
+@Slf4j
+@Service
+public class VisionResultCache {
+
+    private final VisionCacheProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, String> memory;
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    // images du classpath : hachées une seule fois
+    private final Map<String, String> staticHashes = new ConcurrentHashMap<>();
+
+    public VisionResultCache(VisionCacheProperties properties, ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.memory = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        };
+        Gauge.builder("vision.cache.memory.size", this, VisionResultCache::memorySize)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Réponse en cache pour cette image et cette question, sinon celle du {@code loader},
+     * enregistrée dans les deux niveaux. Les échecs ne sont pas mis en cache.
+     */
+    public <T> CompletableFuture<T> get(String imageHash, String model, String system, String question,
+                                        Class<T> type, Supplier<CompletableFuture<T>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        String key = key(imageHash, model, system, question, type);
+
+        String cached = fromMemory(key);
+        if (cached != null) {
+            lookup("memory");
+            return CompletableFuture.completedFuture(read(cached, type));
+        }
+        cached = fromDisk(key);
+        if (cached != null) {
+            lookup("disk");
+            remember(key, cached);
+            return CompletableFuture.completedFuture(read(cached, type));
+        }
+
+        CompletableFuture<String> flight = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            lookup("coalesced");
+            return existing.thenApply(json -> read(json, type));
+        }
+        lookup("miss");
+        try {
+            loader.get().whenComplete((value, error) -> {
+                try {
+                    if (error != null) {
+                        flight.completeExceptionally(error);
+                        return;
+                    }
+                    String json = write(value);
+                    remember(key, json);
+                    toDisk(key, json);
+                    flight.complete(json);
+                } catch (RuntimeException e) {
+                    flight.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, flight);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        return flight.thenApply(json -> read(json, type));
+    }
+
+    public static String hash(byte[] bytes) {
+        return HexFormat.of().formatHex(sha256().digest(bytes));
+    }
+
+    public String hash(Resource resource) {
+        return staticHashes.computeIfAbsent(resource.getDescription(), description -> {
+            MessageDigest digest = sha256();
+            try (InputStream in = resource.getInputStream()) {
+                byte[] buffer = new byte[8192];
+                for (int read; (read = in.read(buffer)) != -1; ) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + description, e);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        });
+    }
+
+    static String key(String imageHash, String model, String system, String question, Class<?> type) {
+        String material = String.join("\n", imageHash, String.valueOf(model), type.getName(), normalize(system),
+                normalize(question));
+        return HexFormat.of().formatHex(sha256().digest(material.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // casse, espaces et forme Unicode n'influencent pas la réponse attendue
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFC).strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private String fromMemory(String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    private void remember(String key, String json) {
+        synchronized (memory) {
+            memory.put(key, json);
+        }
+    }
+
+    private int memorySize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    private String fromDisk(String key) {
+        Path file = properties.getDirectory().resolve(key + ".json");
+        try {
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            if (Files.getLastModifiedTime(file).toInstant().isBefore(Instant.now().minus(properties.getTtl()))) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            return Files.readString(file);
+        } catch (IOException e) {
+            log.warn("Cannot read vision cache entry {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void toDisk(String key, String json) {
+        Path directory = properties.getDirectory();
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            Files.writeString(temp, json);
+            Files.move(temp, directory.resolve(key + ".json"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            evictDisk(directory);
+        } catch (IOException e) {
+            log.warn("Cannot write vision cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    // les écritures suivent un appel au modèle : lister le répertoire reste négligeable
+    private void evictDisk(Path directory) throws IOException {
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(directory)) {
+            entries = files.filter(file -> file.getFileName().toString().endsWith(".json")).toList();
+        }
+        int excess = entries.size() - properties.getMaxDiskEntries();
+        if (excess <= 0) {
+            return;
+        }
+        List<Path> oldest = entries.stream()
+                .sorted(Comparator.comparing(VisionResultCache::lastModified))
+                .limit(excess)
+                .toList();
+        for (Path file : oldest) {
+            Files.deleteIfExists(file);
+        }
+        Counter.builder("vision.cache.disk.evictions").register(meterRegistry).increment(oldest.size());
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize vision answer", e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot deserialize cached vision answer", e);
+        }
+    }
+
+    private void lookup(String outcome) {
+        Counter.builder("vision.cache.lookups").tag("outcome", outcome).register(meterRegistry).increment();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.advisor.AdvisorParams;
+import com.example.Test_AI_LLM.advisor.LatencyMetricsAdvisor;
+import com.example.Test_AI_LLM.advisor.SampledLoggingAdvisor;
+import com.example.Test_AI_LLM.advisor.StablePrefixAdvisor;
+import com.example.Test_AI_LLM.config.MultiImageProperties;
+import com.example.Test_AI_LLM.dto.ImageAnswer;
+import com.example.Test_AI_LLM.exception.ImageUploadException;
+import com.example.Test_AI_LLM.outputs.CarteVitale;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.content.Media;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Appels au modèle de vision, indépendants de la pile web : les contrôleurs (servlet ou réactif)
+ * ne font que recevoir et copier les images. Chaque méthode qui reçoit des {@link StagedImage}
+ * les ferme une fois la réponse obtenue.
+ */
+@Slf4j
+@Service
+public class VisionService {
+
+    private static final String DESCRIBE_SYSTEM = "Donner moi les informations sur l'image Fourni en détaille svp";
+    private static final String DESCRIBE_USER = " Décrire cette image";
+    private static final String ASK_SYSTEM =
+            "répond a la question d'utilisateur sur l'image manuscrite Fourni en détaille svp";
+    private static final String PACKED_SYSTEM =
+            "répond a la question d'utilisateur en s'appuyant sur l'ensemble des images Fournies, dans l'ordre, en détaille svp";
+
+    private final ChatModel visionChatModel;
+    private final ChatClient chatClient;
+    // plusieurs images : sans mémoire, pour que les appels parallèles restent indépendants
+    private final ChatClient multiClient;
+    private final Bulkheads bulkheads;
+    private final StructuredExtractionService extraction;
+    private final ImagePreprocessor preprocessor;
+    private final VisionResultCache cache;
+    private final MultiImageProperties multiProperties;
+
+    public VisionService(@Qualifier("visionChatModel") ChatModel visionChatModel,
+                         ObjectProvider<ObservationRegistry> observationRegistry,
+                         ChatMemory chatMemory, Bulkheads bulkheads,
+                         StablePrefixAdvisor stablePrefixAdvisor,
+                         SampledLoggingAdvisor sampledLoggingAdvisor,
+                         LatencyMetricsAdvisor latencyMetricsAdvisor,
+                         StructuredExtractionService extraction,
+                         ImagePreprocessor preprocessor, VisionResultCache cache,
+                         MultiImageProperties multiProperties) {
+        this.bulkheads = bulkheads;
+        this.preprocessor = preprocessor;
+        this.cache = cache;
+        this.multiProperties = multiProperties;
+        this.extraction = extraction;
+        this.visionChatModel = visionChatModel;
+        // client dédié au bulkhead vision (threads et connexions séparés du texte)
+        ChatClient.Builder builder = ChatClient.builder(visionChatModel,
+                observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP), null, null);
+        this.multiClient = builder.clone()
+                .defaultAdvisors(sampledLoggingAdvisor, latencyMetricsAdvisor, stablePrefixAdvisor)
+                .build();
+        this.chatClient = builder
+                .defaultAdvisors(sampledLoggingAdvisor, latencyMetricsAdvisor,
+                        MessageChatMemoryAdvisor.builder(chatMemory).build(),
+                        stablePrefixAdvisor
+                )
+                .build();
+    }
+
+    public CompletableFuture<CarteVitale> describe(Resource image) {
+        return cache.get(cache.hash(image), model(), DESCRIBE_SYSTEM, DESCRIBE_USER, CarteVitale.class,
+                () -> preprocessor.prepareStatic(image, MediaType.IMAGE_JPEG)
+                        .thenCompose(prepared -> bulkheads.vision().submit(() -> extraction.call(chatClient
+                                .prompt()
+                                .system(DESCRIBE_SYSTEM)
+                                .user(u -> u.text(DESCRIBE_USER)
+                                        .media(prepared.mimeType(), prepared.resource()))
+                                .advisors(a -> a.param(AdvisorParams.ENDPOINT, "/describe")), CarteVitale.class))));
+    }
+
+    public CompletableFuture<String> ask(Resource image, String query) {
+        return cache.get(cache.hash(image), model(), ASK_SYSTEM, query, String.class,
+                () -> preprocessor.prepareStatic(image, MediaType.IMAGE_JPEG)
+                        .thenCompose(prepared -> ask(chatClient, prepared, query, "/ask")));
+    }
+
+    public CompletableFuture<String> ask(StagedImage staged, String query) {
+        try {
+            return cache.get(staged.sha256(), model(), ASK_SYSTEM, query, String.class,
+                            () -> preprocessor.prepareAsync(staged.path(), staged.mimeType())
+                                    .thenCompose(prepared -> ask(chatClient, prepared, query, "/askDowload")))
+                    .whenComplete((answer, error) -> staged.close());
+        } catch (RuntimeException e) {
+            staged.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Mode « packed » : toutes les images dans un seul prompt, pour les questions qui les croisent.
+     */
+    public CompletableFuture<String> askPacked(List<StagedImage> staged, String query) {
+        try {
+            String key = VisionResultCache.hash(staged.stream()
+                    .map(StagedImage::sha256)
+                    .collect(Collectors.joining("|"))
+                    .getBytes(StandardCharsets.UTF_8));
+            return cache.get(key, model(), PACKED_SYSTEM, query, String.class,
+                            () -> prepareAll(staged).thenCompose(prepared -> bulkheads.vision().submit(() -> multiClient
+                                    .prompt()
+                                    .system(PACKED_SYSTEM)
+                                    .user(u -> u.text(query)
+                                            .media(prepared.stream()
+                                                    .map(image -> new Media(image.mimeType(), image.resource()))
+                                                    .toArray(Media[]::new)))
+                                    .advisors(a -> a.param(AdvisorParams.ENDPOINT, "/askMultiple/packed"))
+                                    .call()
+                                    .content())))
+                    .whenComplete((answer, error) -> staged.forEach(StagedImage::close));
+        } catch (RuntimeException e) {
+            staged.forEach(StagedImage::close);
+            throw e;
+        }
+    }
+
+    /**
+     * Mode « parallel » : un appel par image, concurrence bornée, réponses émises dans l'ordre
+     * d'arrivée ; l'échec d'une image n'interrompt pas les autres.
+     */
+    public Flux<ImageAnswer> askParallel(List<StagedImage> staged, List<String> filenames, String query) {
+        return Flux.range(0, staged.size())
+                .flatMap(index -> {
+                    StagedImage image = staged.get(index);
+                    String filename = filenames.get(index);
+                    return Mono.fromFuture(() -> cache.get(image.sha256(), model(), ASK_SYSTEM, query, String.class,
+                                    () -> preprocessor.prepareAsync(image.path(), image.mimeType())
+                                            .thenCompose(prepared -> ask(multiClient, prepared, query,
+                                                    "/askMultiple/parallel"))))
+                            .map(answer -> ImageAnswer.success(index, filename, answer))
+                            .onErrorResume(e -> {
+                                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                                log.warn("Vision call failed for image {} ({}): {}", index, filename, cause.getMessage());
+                                return Mono.just(ImageAnswer.failure(index, filename, cause.getMessage()));
+                            });
+                }, multiProperties.getMaxConcurrency())
+                .doFinally(signal -> staged.forEach(StagedImage::close));
+    }
+
+    /**
+     * @throws IllegalArgumentException s'il n'y a aucune image ou plus que {@code vision.multi.max-images}
+     */
+    public void checkCount(int count) {
+        if (count == 0) {
+            throw new IllegalArgumentException("At least one image is required");
+        }
+        if (count > multiProperties.getMaxImages()) {
+            throw new IllegalArgumentException("Request contains " + count
+                    + " images, maximum is " + multiProperties.getMaxImages());
+        }
+    }
+
+    /**
+     * Vérifie le budget de pixels sur les en-têtes des images copiées, avant toute préparation ;
+     * les images sont fermées si le budget est dépassé.
+     *
+     * @throws ImageUploadException (413) si le total dépasse {@code vision.multi.max-total-pixels}
+     */
+    public List<StagedImage> checkBudget(List<StagedImage> staged) {
+        try {
+            long pixels = 0;
+            for (StagedImage image : staged) {
+                pixels += preprocessor.plannedPixels(image.path());
+            }
+            if (pixels > multiProperties.getMaxTotalPixels()) {
+                throw new ImageUploadException(HttpStatus.PAYLOAD_TOO_LARGE, "Images total " + pixels
+                        + " pixels after preprocessing, budget is " + multiProperties.getMaxTotalPixels());
+            }
+            return staged;
+        } catch (RuntimeException e) {
+            staged.forEach(StagedImage::close);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<String> ask(ChatClient client, PreparedImage prepared, String query, String endpoint) {
+        return bulkheads.vision().submit(() -> client
+                .prompt()
+                .system(ASK_SYSTEM)
+                .user(u -> u.text(query)
+                        .media(prepared.mimeType(), prepared.resource()))
+                .advisors(a -> a.param(AdvisorParams.ENDPOINT, endpoint))
+                .call()
+                .content());
+    }
+
+    // préparations lancées ensemble sur le pool borné, résultats dans l'ordre des images
+    private CompletableFuture<List<PreparedImage>> prepareAll(List<StagedImage> staged) {
+        List<CompletableFuture<PreparedImage>> futures = staged.stream()
+                .map(image -> preprocessor.prepareAsync(image.path(), image.mimeType()))
+                .toList();
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    // modèle lu à chaque appel : il peut changer à chaud (/admin/config)
+    private String model() {
+        ChatOptions options = visionChatModel.getDefaultOptions();
+        return options != null ? options.getModel() : null;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.advisor.AdvisorParams;
+import com.example.Test_AI_LLM.config.ProviderChatModelFactory;
+import com.example.Test_AI_LLM.config.WarmUpProperties;
+import com.example.Test_AI_LLM.outputs.CarteVitale;
+import com.example.Test_AI_LLM.outputs.Movie;
+import com.example.Test_AI_LLM.outputs.MovieList;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.model.chat.client.autoconfigure.ChatClientBuilderConfigurer;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiChatProperties;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiConnectionProperties;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Chauffe l'application avant qu'elle ne se déclare prête. Les {@link ApplicationRunner} passent
+ * avant {@code ApplicationReadyEvent} : la sonde {@code /actuator/health/readiness} reste donc
+ * à {@code REFUSING_TRAFFIC} jusqu'à la fin de cette phase.
+ * <ol>
+ *     <li>images fixes lues, hachées et préparées une fois pour toutes ;</li>
+ *     <li>connexions ouvertes à l'avance vers le fournisseur, sur les pools texte et vision ;</li>
+ *     <li>si {@code warmup.stub-base-url} désigne un bouchon compatible OpenAI, chemins chauds
+ *     (conseillers, sortie structurée, flux, Jackson, JIT) exercés contre lui, avec mesure de la
+ *     première itération et du p99 des suivantes.</li>
+ * </ol>
+ * Le client de chauffe est construit comme ceux de l'application (même configurateur de
+ * {@code ChatClient.Builder}, mêmes conseillers, pool du bulkhead texte) ; seul le fournisseur
+ * change. Les métriques créées pendant ces appels sont retirées ensuite, pour que latences et
+ * coûts fictifs ne se mêlent pas à ceux de la production.
+ */
+@Slf4j
+@Component
+public class WarmUpRunner implements ApplicationRunner {
+
+    private final WarmUpProperties properties;
+    private final ResourceLoader resourceLoader;
+    private final ImagePreprocessor preprocessor;
+    private final VisionResultCache visionCache;
+    private final Bulkheads bulkheads;
+    private final ProviderChatModelFactory chatModelFactory;
+    private final ChatClientBuilderConfigurer builderConfigurer;
+    private final ObservationRegistry observationRegistry;
+    private final StructuredExtractionService extraction;
+    private final OpenAiConnectionProperties connectionProperties;
+    private final OpenAiChatProperties chatProperties;
+    private final MeterRegistry meterRegistry;
+    private volatile WarmUpReport report;
+
+    public WarmUpRunner(WarmUpProperties properties, ResourceLoader resourceLoader, ImagePreprocessor preprocessor,
+                        VisionResultCache visionCache, Bulkheads bulkheads, ProviderChatModelFactory chatModelFactory,
+                        ChatClientBuilderConfigurer builderConfigurer,
+                        ObjectProvider<ObservationRegistry> observationRegistry, StructuredExtractionService extraction,
+                        OpenAiConnectionProperties connectionProperties, OpenAiChatProperties chatProperties,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+        this.preprocessor = preprocessor;
+        this.visionCache = visionCache;
+        this.bulkheads = bulkheads;
+        this.chatModelFactory = chatModelFactory;
+        this.builderConfigurer = builderConfigurer;
+        this.observationRegistry = observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP);
+        this.extraction = extraction;
+        this.connectionProperties = connectionProperties;
+        this.chatProperties = chatProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        int images = preloadImages();
+        int connections = preconnect();
+        if (!StringUtils.hasText(properties.getStubBaseUrl())) {
+            log.info("Warm-up done in {} ms: {} static images prepared, {} provider connections opened, "
+                            + "hot paths skipped (no warmup.stub-base-url)",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), images, connections);
+            return;
+        }
+        WarmUpReport hotPaths;
+        try {
+            hotPaths = withoutMeters(meterRegistry, this::exerciseHotPaths);
+        } catch (Exception e) {
+            // une chauffe ratée ne doit jamais empêcher l'application de démarrer
+            log.warn("Warm-up of hot paths failed, serving cold: {}", e.toString());
+            return;
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        report = hotPaths;
+        Gauge.builder("warmup.cold.latency", hotPaths, WarmUpReport::coldMillis).baseUnit("milliseconds")
+                .description("Première itération des chemins chauds").register(meterRegistry);
+        Gauge.builder("warmup.warm.p99", hotPaths, WarmUpReport::warmP99Millis).baseUnit("milliseconds")
+                .description("p99 des itérations suivantes").register(meterRegistry);
+        log.info("Warm-up done in {} ms: {} static images prepared, {} provider connections opened, "
+                        + "hot path cold {} ms vs warm p99 {} ms over {} iterations",
+                elapsedMillis, images, connections, String.format("%.1f", hotPaths.coldMillis()),
+                String.format("%.1f", hotPaths.warmP99Millis()), hotPaths.iterations());
+    }
+
+    public WarmUpReport getReport() {
+        return report;
+    }
+
+    private int preloadImages() {
+        int prepared = 0;
+        for (String location : properties.getStaticImages()) {
+            Resource resource = resourceLoader.getResource(location);
+            try {
+                MediaType mediaType = MediaTypeFactory.getMediaType(resource).orElse(MediaType.IMAGE_JPEG);
+                visionCache.hash(resource);
+                preprocessor.prepareStatic(resource, mediaType).join();
+                prepared++;
+            } catch (RuntimeException e) {
+                log.warn("Cannot warm up static image {}: {}", location, e.getMessage());
+            }
+        }
+        return prepared;
+    }
+
+    private int preconnect() {
+        if (properties.getConnections() <= 0) {
+            return 0;
+        }
+        String baseUrl = resolve(chatProperties.getBaseUrl(), connectionProperties.getBaseUrl());
+        int opened = 0;
+        for (Bulkhead bulkhead : List.of(bulkheads.text(), bulkheads.vision())) {
+            try {
+                Integer count = bulkhead.preconnect(baseUrl, properties.getConnections(), properties.getConnectTimeout())
+                        .block(properties.getConnectTimeout().multipliedBy(2));
+                opened += count != null ? count : 0;
+            } catch (RuntimeException e) {
+                log.warn("Cannot preconnect to {}: {}", baseUrl, e.getMessage());
+            }
+        }
+        return opened;
+    }
+
+    private WarmUpReport exerciseHotPaths() {
+        OpenAiChatModel stubModel = chatModelFactory.create(bulkheads.text(), properties.getStubBaseUrl(), "warmup",
+                "/v1/chat/completions", OpenAiChatOptions.builder().model(chatProperties.getOptions().getModel()).build(),
+                RetryTemplate.builder().maxAttempts(1).build());
+        // même construction que le ChatClient.Builder injecté dans les contrôleurs
+        ChatClient chatClient = builderConfigurer
+                .configure(ChatClient.builder(stubModel, observationRegistry, null, null))
+                .build();
+
+        List<Long> durations = new ArrayList<>(properties.getIterations());
+        for (int i = 0; i < Math.max(2, properties.getIterations()); i++) {
+            long start = System.nanoTime();
+            hotPaths(chatClient);
+            durations.add(System.nanoTime() - start);
+        }
+        return WarmUpReport.of(durations);
+    }
+
+    /**
+     * Exécute la tâche puis retire les métriques qu'elle a créées. Les conseillers et services
+     * enregistrent leurs métriques au premier usage : pendant la chauffe, avant la disponibilité,
+     * seules les itérations de chauffe les ont alimentées.
+     */
+    static <T> T withoutMeters(MeterRegistry registry, Callable<T> task) throws Exception {
+        Set<Meter.Id> before = registry.getMeters().stream().map(Meter::getId).collect(Collectors.toSet());
+        try {
+            return task.call();
+        } finally {
+            registry.getMeters().stream()
+                    .filter(meter -> !before.contains(meter.getId()))
+                    .toList()
+                    .forEach(registry::remove);
+        }
+    }
+
+    private void hotPaths(ChatClient chatClient) {
+        extraction.call(chatClient.prompt()
+                .user("films de 1985")
+                .advisors(a -> a.param(AdvisorParams.ENDPOINT, "warmup")), MovieList.class);
+        extraction.call(chatClient.prompt()
+                .user("Décrire cette image")
+                .advisors(a -> a.param(AdvisorParams.ENDPOINT, "warmup")), CarteVitale.class);
+        IncrementalJsonObjectScanner scanner = new IncrementalJsonObjectScanner();
+        extraction.withFormat(chatClient.prompt()
+                        .user("films de 1985")
+                        .advisors(a -> a.param(AdvisorParams.ENDPOINT, "warmup")), MovieList.class)
+                .stream()
+                .content()
+                .concatMapIterable(scanner::feed)
+                .map(json -> extraction.parse(json, Movie.class))
+                .blockLast();
+        new MovieQueryParser().parse("films de Stanley Kubrick");
+    }
+
+    private static String resolve(String specific, String common) {
+        return specific != null && !specific.isBlank() ? specific : common;
+    }
+
+    /**
+     * Latences des itérations de chauffe : la première (à froid) et le p99 des suivantes.
+     */
+    public record WarmUpReport(int iterations, double coldMillis, double warmP99Millis) {
+
+        static WarmUpReport of(List<Long> nanos) {
+            List<Long> warm = nanos.subList(1, nanos.size()).stream().sorted().toList();
+            int index = Math.max(0, (int) Math.ceil(warm.size() * 0.99) - 1);
+            return new WarmUpReport(nanos.size(), nanos.get(0) / 1e6, warm.get(index) / 1e6);
+        }
+    }
+}
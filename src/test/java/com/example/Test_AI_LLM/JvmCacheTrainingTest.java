@@ -0,0 +1,150 @@
+package com.example.Test_AI_LLM;
+
+import com.example.Test_AI_LLM.support.ApplicationProcess;
+import com.example.Test_AI_LLM.support.JvmCache;
+import com.example.Test_AI_LLM.support.StubOpenAiServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Exécution d'entraînement du cache de démarrage de la JVM ({@code mvn -Pjvm-cache verify}) :
+ * extrait le jar dans {@code target/jvm-cache}, lance l'application avec l'enregistrement du cache,
+ * appelle chaque contrôleur contre un fournisseur local, puis arrête proprement la JVM qui écrit le cache.
+ * Démarrage avec le cache : {@code java -XX:SharedArchiveFile=app.jsa -jar Test-AI-LLM-….jar} depuis
+ * {@code target/jvm-cache} ({@code -XX:AOTCache=app.aot} à partir du JDK 25).
+ */
+@Tag("jvm-cache")
+@DisplayName("Cache JVM - Exécution d'entraînement sur tous les contrôleurs")
+class JvmCacheTrainingTest {
+
+    private static final int ROUNDS = 3;
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final String ADMIN_TOKEN = "training";
+    private static final String MOVIES = """
+            {"movies":[{"title":"Brazil","year":"1985","director":"Terry Gilliam","genre":"Science-fiction"}]}""";
+    private static final String CARTE = """
+            {"CouleursPrincipales":"vert","TextePrincipal":"carte Vitale","SousTitre":"","PucesElectroniques":"oui",\
+            "PhotoIdentité":"","DateEmission":"","NumeroSecuSociale":"","Nom":"","Mention":"","NumeroVertical":"",\
+            "MotifsFond":""}""";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("Devrait produire le cache après avoir exercé chaque contrôleur")
+    void shouldWriteCache_AfterTrainingWorkload() throws Exception {
+        // Given
+        Path jar = ApplicationProcess.packagedJar();
+        assumeTrue(jar != null, "jar absent : lancer mvn package");
+        Path extracted = JvmCache.extract(jar);
+        Files.deleteIfExists(JvmCache.file());
+        Path work = Files.createTempDirectory("jvm-cache-training");
+        List<String> command = new ArrayList<>(ApplicationProcess.java(extracted, JvmCache.trainingOptions()));
+        command.addAll(List.of("--admin.token=" + ADMIN_TOKEN,
+                "--vision.cache.directory=" + work.resolve("cache"),
+                "--vision.upload.directory=" + work.resolve("uploads")));
+
+        try (StubOpenAiServer server = new StubOpenAiServer();
+             ApplicationProcess application = ApplicationProcess.start(command, JvmCache.DIRECTORY,
+                     server.baseUrl(), work.resolve("application.log"))) {
+            application.awaitReady(TIMEOUT);
+
+            // When
+            for (int round = 0; round < ROUNDS; round++) {
+                workload(application.baseUrl(), server);
+            }
+            int exitCode = application.stop(TIMEOUT);
+
+            // Then : SIGTERM, code 143
+            assertThat(exitCode).isIn(0, 143);
+        }
+        assertThat(JvmCache.file()).exists().isNotEmptyFile();
+        System.out.printf("cache JVM : %s (%,d Ko)%n", JvmCache.file(), Files.size(JvmCache.file()) / 1024);
+    }
+
+    /**
+     * Un passage sur chaque point d'entrée, réussites et chemins d'erreur (le fournisseur local ne sait
+     * pas générer d'image ni gérer de lot) : ce sont les classes chargées qui alimentent le cache.
+     */
+    private void workload(String baseUrl, StubOpenAiServer server) throws Exception {
+        byte[] image;
+        try (InputStream in = getClass().getResourceAsStream("/images/1.jpg")) {
+            image = in.readAllBytes();
+        }
+
+        server.content("bonjour depuis le stub");
+        call(get(baseUrl, "/chat?query=bonjour"));
+        call(get(baseUrl, "/nostream?query=bonjour"));
+        call(get(baseUrl, "/stream?query=bonjour"));
+
+        server.content(MOVIES);
+        call(get(baseUrl, "/askAgent?query=science-fiction"));
+        call(get(baseUrl, "/askAgent/stream?query=science-fiction"));
+
+        server.content(CARTE);
+        call(get(baseUrl, "/describe"));
+        server.content("une carte Vitale");
+        call(get(baseUrl, "/ask?query=que%20vois-tu"));
+        call(multipart(baseUrl, "/askDowload", "file", image, "image/jpeg"));
+        call(multipart(baseUrl, "/askMultiple", "files", image, "image/jpeg"));
+        call(multipart(baseUrl, "/askMultiple?mode=parallel", "files", image, "image/jpeg"));
+
+        call(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/images/generate"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"prompt\":\"un chat\"}")));
+        call(multipart(baseUrl, "/api/v1/batches",
+                "file", "un film\nun autre film".getBytes(StandardCharsets.UTF_8), "text/plain"));
+        call(get(baseUrl, "/api/v1/batches/1"));
+
+        call(get(baseUrl, "/admin/config").header("X-Admin-Token", ADMIN_TOKEN));
+        call(get(baseUrl, "/actuator/health"));
+    }
+
+    private void call(HttpRequest.Builder request) throws InterruptedException {
+        HttpRequest built = request.timeout(TIMEOUT).build();
+        try {
+            int status = client.send(built, HttpResponse.BodyHandlers.discarding()).statusCode();
+            System.out.printf("entraînement %s %s -> %d%n", built.method(), built.uri().getPath(), status);
+        } catch (IOException e) {
+            System.out.printf("entraînement %s %s -> %s%n", built.method(), built.uri().getPath(), e);
+        }
+    }
+
+    private static HttpRequest.Builder get(String baseUrl, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path));
+    }
+
+    private static HttpRequest.Builder multipart(String baseUrl, String path, String part, byte[] content,
+                                                 String contentType) throws IOException {
+        String boundary = UUID.randomUUID().toString();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + part
+                + "\"; filename=\"training\"\r\nContent-Type: " + contentType + "\r\n\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"query\"\r\n\r\nque vois-tu ?\r\n--"
+                + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.Test_AI_LLM;
+
+import com.example.Test_AI_LLM.outputs.CarteVitale;
+import com.example.Test_AI_LLM.outputs.MovieList;
+import com.example.Test_AI_LLM.support.StubOpenAiServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parcours principaux contre un fournisseur local. Tourne sur la JVM avec le reste des tests,
+ * et seul en natif avec {@code mvn -PnativeTest test} : c'est lui qui valide les métadonnées
+ * d'accessibilité (sorties structurées, images du classpath, clients du fournisseur).
+ */
+@Tag("native")
+// exporte les métriques comme en production (désactivé par défaut sous @SpringBootTest)
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Smoke tests - Application complète contre un fournisseur local")
+class NativeSmokeTest {
+
+    private static final String MOVIES = """
+            {"movies":[{"title":"Brazil","year":"1985","director":"Terry Gilliam","genre":"Science-fiction"}]}""";
+    private static final String CARTE = """
+            {"CouleursPrincipales":"vert","TextePrincipal":"carte Vitale","SousTitre":"","PucesElectroniques":"oui",\
+            "PhotoIdentité":"","DateEmission":"","NumeroSecuSociale":"","Nom":"","Mention":"","NumeroVertical":"",\
+            "MotifsFond":""}""";
+
+    private static StubOpenAiServer server;
+
+    @Autowired
+    private WebTestClient client;
+
+    @DynamicPropertySource
+    static void provider(DynamicPropertyRegistry registry) throws IOException {
+        server = new StubOpenAiServer();
+        Path directory = Files.createTempDirectory("native-smoke");
+        registry.add("spring.ai.openai.base-url", server::baseUrl);
+        registry.add("vision.cache.directory", () -> directory.resolve("cache").toString());
+        registry.add("vision.upload.directory", () -> directory.resolve("uploads").toString());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Devrait être prêt une fois démarré")
+    void shouldBeReady() {
+        // When & Then
+        client.get().uri("/actuator/health/readiness").exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    @DisplayName("Devrait exposer latences et TTFT au format Prometheus")
+    void shouldExposePrometheusMetrics() {
+        // Given
+        server.content("bonjour depuis le stub");
+        client.get().uri("/stream?query=bonjour").exchange().expectStatus().isOk()
+                .returnResult(String.class).getResponseBody().blockLast(Duration.ofSeconds(10));
+
+        // When
+        // les histogrammes dépassent la taille de tampon par défaut du client de test
+        String metrics = client.mutate().codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build()
+                .get().uri("/actuator/prometheus").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        // Then
+        assertThat(metrics)
+                .contains("llm_call_duration_seconds_bucket{endpoint=\"/stream\"")
+                .contains("llm_stream_ttft_seconds_bucket{endpoint=\"/stream\"")
+                .contains("bulkhead_queue_wait_seconds_bucket")
+                .contains("http_server_requests_seconds_bucket");
+    }
+
+    @Test
+    @DisplayName("Devrait répondre à /chat et relayer /stream")
+    void shouldAnswerChatAndStream() {
+        // Given
+        server.content("bonjour depuis le stub");
+
+        // When
+        List<String> chunks = client.get().uri("/stream?query=bonjour").exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseBody()
+                .collectList().block(Duration.ofSeconds(10));
+
+        // Then
+        assertThat(String.join("", chunks)).isEqualTo("bonjour depuis le stub");
+        client.get().uri("/chat?query=bonjour").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("bonjour depuis le stub");
+    }
+
+    @Test
+    @DisplayName("Devrait produire une sortie structurée MovieList")
+    void shouldExtractMovieList() {
+        // Given
+        server.content(MOVIES);
+
+        // When & Then
+        client.get().uri("/askAgent?query=un film de science-fiction de Terry Gilliam").exchange()
+                .expectStatus().isOk()
+                .expectBody(MovieList.class)
+                .value(movies -> assertThat(movies.movies()).singleElement()
+                        .satisfies(movie -> assertThat(movie.title()).isEqualTo("Brazil")));
+    }
+
+    @Test
+    @DisplayName("Devrait décrire l'image du classpath en CarteVitale")
+    void shouldDescribeClasspathImage() {
+        // Given
+        server.content(CARTE);
+
+        // When & Then
+        client.get().uri("/describe").exchange()
+                .expectStatus().isOk()
+                .expectBody(CarteVitale.class)
+                .value(carte -> assertThat(carte.TextePrincipal()).isEqualTo("carte Vitale"));
+    }
+}
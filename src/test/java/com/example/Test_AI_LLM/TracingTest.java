@@ -0,0 +1,158 @@
+package com.example.Test_AI_LLM;
+
+import com.example.Test_AI_LLM.support.StubOpenAiServer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Spans de bout en bout, vérifiés avec un exporteur en mémoire à la place de l'export OTLP.
+ */
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.tracing.sampling.probability=1.0")
+@DisplayName("Traces - de la requête HTTP jusqu'au fournisseur")
+class TracingTest {
+
+    private static final String CARTE = """
+            {"CouleursPrincipales":"vert","TextePrincipal":"carte Vitale","SousTitre":"","PucesElectroniques":"oui",\
+            "PhotoIdentité":"","DateEmission":"","NumeroSecuSociale":"","Nom":"","Mention":"","NumeroVertical":"",\
+            "MotifsFond":""}""";
+
+    private static StubOpenAiServer server;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private InMemorySpanExporter exporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @DynamicPropertySource
+    static void provider(DynamicPropertyRegistry registry) throws IOException {
+        server = new StubOpenAiServer();
+        Path directory = Files.createTempDirectory("tracing");
+        registry.add("spring.ai.openai.base-url", server::baseUrl);
+        registry.add("vision.cache.directory", () -> directory.resolve("cache").toString());
+        registry.add("vision.upload.directory", () -> directory.resolve("uploads").toString());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        exporter.reset();
+    }
+
+    @Test
+    @DisplayName("Devrait tracer chaque étape de /describe dans une seule trace")
+    void shouldTraceEachStage_OfDescribe() {
+        // Given
+        server.content(CARTE);
+
+        // When
+        client.get().uri("/describe").exchange().expectStatus().isOk();
+
+        // Then : l'image de /describe est préparée au démarrage, les autres étapes sont tracées
+        List<SpanData> spans = awaitSpans("http get /describe");
+        SpanData root = span(spans, "http get /describe");
+        assertThat(span(spans, "bulkhead vision queue").getParentSpanId()).isEqualTo(root.getSpanId());
+        assertThat(span(spans, "extraction parse").getParentSpanId()).isEqualTo(root.getSpanId());
+        assertThat(ancestors(spans, span(spans, "bulkhead vision pool acquire")))
+                .containsSubsequence("http post", "chat gpt-4.1", "sampled_logging", "message_chat_memory",
+                        "spring_ai chat_client", "http get /describe");
+    }
+
+    @Test
+    @DisplayName("Devrait tracer la préparation d'une image envoyée, sur le pool de préparation")
+    void shouldTraceImagePreparation_OfUpload() {
+        // Given
+        server.content("un chien");
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("file", new ClassPathResource("images/chien.png")).contentType(MediaType.IMAGE_PNG);
+        body.part("query", "que vois-tu ?");
+
+        // When
+        client.post().uri("/askDowload").body(BodyInserters.fromMultipartData(body.build()))
+                .exchange().expectStatus().isOk();
+
+        // Then
+        List<SpanData> spans = awaitSpans("http post /askDowload");
+        SpanData prepare = span(spans, "image prepare");
+        assertThat(prepare.getAttributes().get(AttributeKey.stringKey("source"))).isEqualTo("file");
+        assertThat(ancestors(spans, prepare)).containsExactly("http post /askDowload");
+        assertThat(ancestors(spans, span(spans, "bulkhead vision pool acquire")))
+                .endsWith("spring_ai chat_client", "http post /askDowload");
+        assertThat(span(spans, "bulkhead vision queue").getParentSpanId()).isEqualTo(prepare.getParentSpanId());
+    }
+
+    // spans de la trace dont la racine est rootName (le préchauffage en produit d'autres)
+    private List<SpanData> awaitSpans(String rootName) {
+        List<SpanData> spans = await().atMost(Duration.ofSeconds(10)).until(() -> {
+            tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+            return exporter.getFinishedSpanItems();
+        }, finished -> finished.stream().anyMatch(span -> span.getName().equals(rootName)));
+        String traceId = span(spans, rootName).getTraceId();
+        return spans.stream().filter(span -> span.getTraceId().equals(traceId)).toList();
+    }
+
+    private static SpanData span(List<SpanData> spans, String name) {
+        return spans.stream().filter(span -> span.getName().equals(name)).findFirst()
+                .orElseThrow(() -> new AssertionError("Span absent : " + name + " dans "
+                        + spans.stream().map(SpanData::getName).toList()));
+    }
+
+    // noms des spans parents, du plus proche à la racine
+    private static List<String> ancestors(List<SpanData> spans, SpanData span) {
+        Map<String, SpanData> byId = spans.stream().collect(Collectors.toMap(SpanData::getSpanId, s -> s));
+        List<String> names = new ArrayList<>();
+        for (SpanData parent = byId.get(span.getParentSpanId()); parent != null; parent = byId.get(parent.getParentSpanId())) {
+            names.add(parent.getName());
+        }
+        return names;
+    }
+
+    @TestConfiguration
+    static class InMemoryExport {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}
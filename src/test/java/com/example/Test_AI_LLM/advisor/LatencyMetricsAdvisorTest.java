@@ -0,0 +1,107 @@
+package com.example.Test_AI_LLM.advisor;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("LatencyMetricsAdvisor - Tests Unitaires")
+class LatencyMetricsAdvisorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Devrait mesurer la durée d'un appel par endpoint, modèle et issue")
+    void shouldRecordCallDuration_ByEndpointModelAndOutcome() {
+        // Given
+        ChatClient chatClient = chatClient(false);
+
+        // When
+        chatClient.prompt().user("bonjour").advisors(a -> a.param(AdvisorParams.ENDPOINT, "/chat")).call().content();
+        assertThatThrownBy(() -> chatClient(true).prompt().user("bonjour")
+                .advisors(a -> a.param(AdvisorParams.ENDPOINT, "/chat")).call().content())
+                .isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(meterRegistry.get("llm.call.duration")
+                .tags("endpoint", "/chat", "model", "gpt-4.1-2025-04-14", "mode", "call", "outcome", "success")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("llm.call.duration")
+                .tags("endpoint", "/chat", "model", "gpt-4.1", "mode", "call", "outcome", "error")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Devrait mesurer le premier fragment et le débit d'un flux")
+    void shouldRecordTimeToFirstTokenAndThroughput_ForStream() {
+        // Given : 200 ms avant le premier fragment, puis 4 fragments espacés de 50 ms
+        ChatClient chatClient = chatClient(false);
+
+        // When
+        chatClient.prompt().user("bonjour").advisors(a -> a.param(AdvisorParams.ENDPOINT, "/stream"))
+                .stream().content().blockLast(Duration.ofSeconds(5));
+
+        // Then
+        Timer ttft = meterRegistry.get("llm.stream.ttft").tags("endpoint", "/stream").timer();
+        assertThat(ttft.totalTime(TimeUnit.MILLISECONDS)).isBetween(180.0, 1_000.0);
+        assertThat(meterRegistry.get("llm.stream.tokens.per.second").tags("endpoint", "/stream")
+                .summary().max()).isBetween(5.0, 30.0);
+        assertThat(meterRegistry.get("llm.call.duration").tags("mode", "stream", "outcome", "success")
+                .timer().count()).isEqualTo(1);
+    }
+
+    private ChatClient chatClient(boolean failing) {
+        ChatModel chatModel = new ChatModel() {
+            @Override
+            public ChatResponse call(Prompt prompt) {
+                if (failing) {
+                    throw new IllegalStateException("fournisseur indisponible");
+                }
+                return answer("salut");
+            }
+
+            @Override
+            public Flux<ChatResponse> stream(Prompt prompt) {
+                return Flux.just(answer("un"), answer(" deux"), answer(" trois"), answer(" quatre"))
+                        .delayElements(Duration.ofMillis(50))
+                        .delaySubscription(Duration.ofMillis(150));
+            }
+
+            @Override
+            public ChatOptions getDefaultOptions() {
+                return OpenAiChatOptions.builder().model("gpt-4.1").build();
+            }
+        };
+        return ChatClient.builder(chatModel)
+                .defaultAdvisors(new LatencyMetricsAdvisor(meterRegistry))
+                .build();
+    }
+
+    private static ChatResponse answer(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))),
+                ChatResponseMetadata.builder().model("gpt-4.1-2025-04-14").build());
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.Test_AI_LLM.advisor;
+
+import com.example.Test_AI_LLM.config.ExtractionProperties;
+import com.example.Test_AI_LLM.config.TieringProperties;
+import com.example.Test_AI_LLM.outputs.MovieList;
+import com.example.Test_AI_LLM.service.AnswerValidator;
+import com.example.Test_AI_LLM.service.HeuristicPromptComplexityClassifier;
+import com.example.Test_AI_LLM.service.PromptComplexityClassifier;
+import com.example.Test_AI_LLM.service.StructuredAnswerValidator;
+import com.example.Test_AI_LLM.service.StructuredExtractionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ModelTieringAdvisor - Tests Unitaires")
+class ModelTieringAdvisorTest {
+
+    private final List<String> models = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private TieringProperties properties;
+    private String chatModel;
+    private PromptComplexityClassifier classifier;
+    private AnswerValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new TieringProperties();
+        chatModel = "gpt-4.1";
+        classifier = new HeuristicPromptComplexityClassifier();
+        validator = (request, response) -> true;
+    }
+
+    @Test
+    @DisplayName("Devrait envoyer une question triviale au petit modèle")
+    void shouldUseSmallModel_ForTrivialPrompt() {
+        // Given
+        ChatClient chatClient = chatClient(model -> answer("10", "STOP"));
+
+        // When
+        String content = chatClient.prompt().user("6+4").call().content();
+
+        // Then
+        assertThat(content).isEqualTo("10");
+        assertThat(models).containsExactly("gpt-4.1-mini");
+        assertThat(meterRegistry.get("tiering.latency").tag("tier", "small").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("tiering.cost").tag("tier", "small").counter().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Devrait garder le grand modèle pour une sortie structurée")
+    void shouldUseLargeModel_ForStructuredOutput() {
+        // Given
+        ChatClient chatClient = chatClient(model -> answer("{\"movies\":[]}", "STOP"));
+
+        // When
+        MovieList movies = chatClient.prompt().user("films de 1985").call().entity(MovieList.class);
+
+        // Then
+        assertThat(movies.movies()).isEmpty();
+        assertThat(models).containsExactly("gpt-4.1");
+    }
+
+    @Test
+    @DisplayName("Devrait garder le grand modèle pour une demande d'analyse longue")
+    void shouldUseLargeModel_ForComplexPrompt() {
+        // Given
+        ChatClient chatClient = chatClient(model -> answer("analyse", "STOP"));
+        String prompt = """
+                Explique pourquoi ces deux approches diffèrent :
+                - première approche avec un cache local
+                - seconde approche avec un cache distribué
+                Compare les coûts et les risques ?
+                """;
+
+        // When
+        chatClient.prompt().user(prompt).call().content();
+
+        // Then
+        assertThat(models).containsExactly("gpt-4.1");
+    }
+
+    @Test
+    @DisplayName("Devrait escalader vers le grand modèle quand la réponse est tronquée")
+    void shouldEscalate_WhenSmallAnswerIsTruncated() {
+        // Given
+        ChatClient chatClient = chatClient(model -> model.equals("gpt-4.1-mini")
+                ? answer("dix", "LENGTH")
+                : answer("10", "STOP"));
+
+        // When
+        String content = chatClient.prompt().user("6+4").call().content();
+
+        // Then
+        assertThat(content).isEqualTo("10");
+        assertThat(models).containsExactly("gpt-4.1-mini", "gpt-4.1");
+        assertThat(meterRegistry.get("tiering.escalations").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Devrait suivre le modèle de chat configuré pour le grand palier et sans palier")
+    void shouldUseConfiguredChatModel_ForLargeTierAndWhenDisabled() {
+        // Given
+        classifier = request -> 1.0;
+        ChatClient chatClient = chatClient(model -> answer("analyse", "STOP"));
+        chatModel = "gpt-4.1-nano";
+
+        // When
+        chatClient.prompt().user("Explique pourquoi le ciel est bleu").call().content();
+        properties.setEnabled(false);
+        chatClient.prompt().user("6+4").call().content();
+
+        // Then
+        assertThat(models).containsExactly("gpt-4.1-nano", "gpt-4.1-nano");
+    }
+
+    @Test
+    @DisplayName("Devrait escalader quand la sortie structurée du petit modèle ne se valide pas")
+    void shouldEscalate_WhenSmallAnswerFailsValidation() {
+        // Given : un classifieur qui envoie tout au petit modèle
+        classifier = request -> 0.0;
+        validator = new StructuredAnswerValidator(new StructuredExtractionService(new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), meterRegistry, new ExtractionProperties()));
+        ChatClient chatClient = chatClient(model -> model.equals("gpt-4.1-mini")
+                ? answer("Voici quelques films : Retour vers le futur", "STOP")
+                : answer("{\"movies\":[]}", "STOP"));
+
+        // When
+        String content = chatClient.prompt().user("films de 1985")
+                .advisors(a -> a.param(AdvisorParams.OUTPUT_TYPE, MovieList.class.getName()))
+                .call().content();
+
+        // Then
+        assertThat(content).isEqualTo("{\"movies\":[]}");
+        assertThat(models).containsExactly("gpt-4.1-mini", "gpt-4.1");
+        assertThat(meterRegistry.get("tiering.escalations").counter().count()).isEqualTo(1.0);
+    }
+
+    private ChatClient chatClient(Function<String, ChatResponse> responder) {
+        ChatModel chatModel = new ChatModel() {
+            @Override
+            public ChatResponse call(Prompt prompt) {
+                String model = prompt.getOptions().getModel();
+                models.add(model);
+                return responder.apply(model);
+            }
+
+            @Override
+            public ChatOptions getDefaultOptions() {
+                return OpenAiChatOptions.builder().model("gpt-4o").build();
+            }
+        };
+        return ChatClient.builder(chatModel)
+                .defaultAdvisors(new ModelTieringAdvisor(request -> classifier.score(request), properties,
+                        () -> this.chatModel, (request, response) -> validator.accept(request, response), meterRegistry))
+                .build();
+    }
+
+    private static ChatResponse answer(String text, String finishReason) {
+        Generation generation = new Generation(new AssistantMessage(text),
+                ChatGenerationMetadata.builder().finishReason(finishReason).build());
+        return new ChatResponse(List.of(generation),
+                ChatResponseMetadata.builder().usage(new DefaultUsage(100, 20)).build());
+    }
+}
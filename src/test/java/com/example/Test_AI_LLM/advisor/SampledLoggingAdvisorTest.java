@@ -0,0 +1,145 @@
+package com.example.Test_AI_LLM.advisor;
+
+import com.example.Test_AI_LLM.config.LlmLoggingProperties;
+import com.example.Test_AI_LLM.logging.AdvisorLogEvent;
+import com.example.Test_AI_LLM.logging.AsyncLogWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SampledLoggingAdvisor - Tests Unitaires")
+class SampledLoggingAdvisorTest {
+
+    private final List<AdvisorLogEvent> events = new CopyOnWriteArrayList<>();
+    private LlmLoggingProperties properties;
+    private AsyncLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LlmLoggingProperties();
+        writer = new AsyncLogWriter(properties, new ObjectMapper(), new SimpleMeterRegistry()) {
+            @Override
+            public boolean publish(AdvisorLogEvent event) {
+                return events.add(event);
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.close();
+    }
+
+    @Test
+    @DisplayName("Devrait publier l'appel échantillonné avec endpoint, modèle et tokens")
+    void shouldPublishEvent_WhenSampled() {
+        // Given
+        properties.setSampleRate(1.0);
+        ChatClient chatClient = chatClient(false);
+
+        // When
+        String content = chatClient.prompt().user("bonjour")
+                .advisors(a -> a.param(AdvisorParams.ENDPOINT, "/chat"))
+                .call().content();
+
+        // Then
+        assertThat(content).isEqualTo("salut");
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.endpoint()).isEqualTo("/chat");
+            assertThat(event.mode()).isEqualTo("call");
+            assertThat(event.model()).isEqualTo("gpt-4.1");
+            assertThat(event.outcome()).isEqualTo("success");
+            assertThat(event.response()).isEqualTo("salut");
+            assertThat(event.promptTokens()).isEqualTo(12);
+            assertThat(event.messages()).extracting(m -> m.getText()).containsExactly("bonjour");
+        });
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer les succès hors échantillon mais toujours journaliser les échecs")
+    void shouldSkipUnsampledSuccess_ButKeepErrors() {
+        // Given
+        properties.setSampleRate(0.0);
+
+        // When
+        chatClient(false).prompt().user("bonjour").call().content();
+        assertThatThrownBy(() -> chatClient(true).prompt().user("bonjour").call().content())
+                .isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.outcome()).isEqualTo("error");
+            assertThat(event.sampled()).isFalse();
+            assertThat(event.error()).contains("fournisseur indisponible");
+        });
+    }
+
+    @Test
+    @DisplayName("Devrait publier un flux échantillonné une fois terminé, texte reconstitué")
+    void shouldPublishStream_OnCompletion() {
+        // Given
+        properties.setSampleRate(1.0);
+
+        // When
+        List<String> chunks = chatClient(false).prompt().user("bonjour").stream().content()
+                .collectList().block();
+
+        // Then
+        assertThat(chunks).containsExactly("sa", "lut");
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.mode()).isEqualTo("stream");
+            assertThat(event.outcome()).isEqualTo("success");
+            assertThat(event.response()).isEqualTo("salut");
+        });
+    }
+
+    private ChatClient chatClient(boolean failing) {
+        ChatModel chatModel = new ChatModel() {
+            @Override
+            public ChatResponse call(Prompt prompt) {
+                if (failing) {
+                    throw new IllegalStateException("fournisseur indisponible");
+                }
+                return answer("salut");
+            }
+
+            @Override
+            public Flux<ChatResponse> stream(Prompt prompt) {
+                return Flux.just(answer("sa"), answer("lut"));
+            }
+
+            @Override
+            public ChatOptions getDefaultOptions() {
+                return OpenAiChatOptions.builder().model("gpt-4.1").build();
+            }
+        };
+        return ChatClient.builder(chatModel)
+                .defaultAdvisors(new SampledLoggingAdvisor(writer, properties))
+                .build();
+    }
+
+    private static ChatResponse answer(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))),
+                ChatResponseMetadata.builder().usage(new DefaultUsage(12, 3)).build());
+    }
+}
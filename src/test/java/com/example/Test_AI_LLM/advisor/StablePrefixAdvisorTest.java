@@ -0,0 +1,179 @@
+package com.example.Test_AI_LLM.advisor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.function.FunctionToolCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StablePrefixAdvisor - Tests Unitaires")
+class StablePrefixAdvisorTest {
+
+    private final List<Prompt> prompts = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private StablePrefixAdvisor advisor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        advisor = new StablePrefixAdvisor(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Devrait placer système, few-shot, historique puis question courante")
+    void shouldReorderMessages_ForStablePrefix() {
+        // Given
+        List<Message> messages = List.of(
+                new UserMessage("ancienne question"),
+                new AssistantMessage("ancienne réponse"),
+                new SystemMessage("Tu es un assistant"),
+                StablePrefixAdvisor.fewShotUser("6+4"),
+                StablePrefixAdvisor.fewShotAssistant("le résultats est : 10"),
+                new SystemMessage("Réponds en français"),
+                new UserMessage("2+2"));
+        ChatClientRequest request = ChatClientRequest.builder().prompt(new Prompt(messages)).build();
+
+        // When
+        List<Message> ordered = advisor.reorder(request).prompt().getInstructions();
+
+        // Then
+        assertThat(ordered).extracting(Message::getText).containsExactly(
+                "Tu es un assistant\n\nRéponds en français",
+                "6+4",
+                "le résultats est : 10",
+                "ancienne question",
+                "ancienne réponse",
+                "2+2");
+    }
+
+    @Test
+    @DisplayName("Devrait conserver les métadonnées des messages système fusionnés")
+    void shouldKeepMetadata_OfMergedSystemMessages() {
+        // Given
+        List<Message> messages = List.of(
+                SystemMessage.builder().text("Tu es un assistant").metadata(Map.of("source", "défaut")).build(),
+                SystemMessage.builder().text("Réponds en français").metadata(Map.of("langue", "fr")).build(),
+                new UserMessage("2+2"));
+        ChatClientRequest request = ChatClientRequest.builder().prompt(new Prompt(messages)).build();
+
+        // When
+        Message system = advisor.reorder(request).prompt().getInstructions().get(0);
+
+        // Then
+        assertThat(system.getMetadata()).containsEntry("source", "défaut").containsEntry("langue", "fr");
+    }
+
+    @Test
+    @DisplayName("Devrait trier les outils par nom quel que soit leur ordre d'enregistrement")
+    void shouldSortTools_ByName() {
+        // Given
+        OpenAiChatOptions options = OpenAiChatOptions.builder()
+                .model("gpt-4.1")
+                .toolCallbacks(tool("meteo"), tool("agenda"), tool("cinema"))
+                .toolNames(Set.of("traduction", "calcul", "horloge"))
+                .build();
+        ChatClientRequest request = ChatClientRequest.builder()
+                .prompt(new Prompt(List.of(new UserMessage("2+2")), options))
+                .build();
+
+        // When
+        OpenAiChatOptions sorted = (OpenAiChatOptions) advisor.reorder(request).prompt().getOptions();
+
+        // Then
+        assertThat(sorted.getToolCallbacks()).extracting(callback -> callback.getToolDefinition().name())
+                .containsExactly("agenda", "cinema", "meteo");
+        assertThat(sorted.getToolNames()).containsExactly("calcul", "horloge", "traduction");
+        assertThat(sorted.getModel()).isEqualTo("gpt-4.1");
+        assertThat(options.getToolCallbacks()).extracting(callback -> callback.getToolDefinition().name())
+                .containsExactly("meteo", "agenda", "cinema");
+    }
+
+    @Test
+    @DisplayName("Devrait produire le même préfixe quelle que soit la question")
+    void shouldKeepSamePrefix_AcrossQuestions() {
+        // Given
+        ChatClient chatClient = chatClient(new OpenAiApi.Usage(10, 1000, 1010));
+
+        // When
+        chatClient.prompt().system("Tu es un assistant").user("première question").call().content();
+        chatClient.prompt().system("Tu es un assistant").user("seconde question").call().content();
+
+        // Then
+        List<Message> first = prompts.get(0).getInstructions();
+        List<Message> second = prompts.get(1).getInstructions();
+        assertThat(first.get(0).getText()).isEqualTo(second.get(0).getText());
+        assertThat(first).hasSameSizeAs(second);
+    }
+
+    @Test
+    @DisplayName("Devrait publier les tokens mis en cache par endpoint")
+    void shouldRecordCachedTokens_PerEndpoint() {
+        // Given
+        ChatClient chatClient = chatClient(new OpenAiApi.Usage(10, 1000, 1010,
+                new OpenAiApi.Usage.PromptTokensDetails(0, 768), null));
+
+        // When
+        chatClient.prompt().user("bonjour")
+                .advisors(a -> a.param(AdvisorParams.ENDPOINT, "/chat"))
+                .call().content();
+
+        // Then
+        assertThat(meterRegistry.get("llm.prompt.tokens").tag("endpoint", "/chat").counter().count())
+                .isEqualTo(1000.0);
+        assertThat(meterRegistry.get("llm.prompt.cached.tokens").tag("endpoint", "/chat").counter().count())
+                .isEqualTo(768.0);
+        assertThat(meterRegistry.get("llm.prompt.cache.ratio").tag("endpoint", "/chat").summary().mean())
+                .isEqualTo(0.768);
+    }
+
+    private static ToolCallback tool(String name) {
+        return FunctionToolCallback.builder(name, (Function<String, String>) input -> input)
+                .description("outil " + name)
+                .inputType(String.class)
+                .build();
+    }
+
+    private ChatClient chatClient(OpenAiApi.Usage usage) {
+        ChatModel chatModel = new ChatModel() {
+            @Override
+            public ChatResponse call(Prompt prompt) {
+                prompts.add(prompt);
+                return new ChatResponse(List.of(new Generation(new AssistantMessage("ok"))),
+                        ChatResponseMetadata.builder()
+                                .usage(new DefaultUsage(usage.promptTokens(), usage.completionTokens(),
+                                        usage.totalTokens(), usage))
+                                .build());
+            }
+
+            @Override
+            public ChatOptions getDefaultOptions() {
+                return OpenAiChatOptions.builder().model("gpt-4.1").build();
+            }
+        };
+        return ChatClient.builder(chatModel).defaultAdvisors(advisor).build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.Test_AI_LLM.benchmark;
+
+import com.example.Test_AI_LLM.config.ImagePreprocessingProperties;
+import com.example.Test_AI_LLM.service.ImagePreprocessor;
+import com.example.Test_AI_LLM.service.PreparedImage;
+import com.example.Test_AI_LLM.support.StubOpenAiServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latence de bout en bout (préparation comprise), octets envoyés et tokens image estimés,
+ * avec et sans préparation, contre un fournisseur local.
+ * Lancer avec {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark - Préparation des images vision")
+class ImagePreprocessingBenchmarkTest {
+
+    private static final int ITERATIONS = 5;
+
+    private StubOpenAiServer server;
+    private ChatClient chatClient;
+    private ImagePreprocessor preprocessor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubOpenAiServer().content("ok");
+        chatClient = ChatClient.create(OpenAiChatModel.builder()
+                .openAiApi(OpenAiApi.builder().baseUrl(server.baseUrl()).apiKey("test").build())
+                .defaultOptions(OpenAiChatOptions.builder().model("gpt-4.1").build())
+                .retryTemplate(RetryTemplate.builder().maxAttempts(1).build())
+                .build());
+        preprocessor = new ImagePreprocessor(new ImagePreprocessingProperties(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        preprocessor.close();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("La préparation réduit les octets envoyés et les tokens image")
+    void preprocessing_ShouldReduceBytesAndTokens() throws Exception {
+        Map<String, Sample> images = new LinkedHashMap<>();
+        images.put("CarteVitale.jpg", classpath("CarteVitale.jpg", MimeTypeUtils.IMAGE_JPEG));
+        images.put("1.jpg", classpath("1.jpg", MimeTypeUtils.IMAGE_JPEG));
+        images.put("chien.png", classpath("chien.png", MimeTypeUtils.IMAGE_PNG));
+        images.put("photo 12 MP", new Sample(photo(4032, 3024), MimeTypeUtils.IMAGE_JPEG));
+
+        long rawTotal = 0;
+        long preparedTotal = 0;
+        for (Map.Entry<String, Sample> entry : images.entrySet()) {
+            Sample sample = entry.getValue();
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(sample.bytes()));
+            int tokensBefore = ImagePreprocessor.estimateTokens(decoded.getWidth(), decoded.getHeight());
+
+            Result raw = measure(() -> send(sample.bytes(), sample.mimeType()));
+            int[] tokensAfter = new int[1];
+            Result prepared = measure(() -> {
+                PreparedImage image = preprocessor.prepareAsync(sample.bytes(), sample.mimeType()).join();
+                tokensAfter[0] = image.estimatedTokens();
+                return send(image.bytes(), image.mimeType());
+            });
+
+            System.out.printf("%-16s brut : %,6d ms %,10d octets %,5d tokens | préparé : %,6d ms %,10d octets %,5d tokens%n",
+                    entry.getKey(), raw.millis(), raw.bytes(), tokensBefore,
+                    prepared.millis(), prepared.bytes(), tokensAfter[0]);
+            assertThat(tokensAfter[0]).isLessThanOrEqualTo(tokensBefore);
+            rawTotal += raw.bytes();
+            preparedTotal += prepared.bytes();
+        }
+        assertThat(preparedTotal).isLessThan(rawTotal);
+    }
+
+    private long send(byte[] bytes, MimeType mimeType) {
+        server.requests().clear();
+        chatClient.prompt()
+                .user(u -> u.text("Décrire cette image").media(mimeType, new ByteArrayResource(bytes)))
+                .call()
+                .content();
+        return server.requests().get(0).length();
+    }
+
+    private static Result measure(java.util.function.LongSupplier call) {
+        call.getAsLong();
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes = call.getAsLong();
+        }
+        return new Result((System.nanoTime() - start) / 1_000_000 / ITERATIONS, bytes);
+    }
+
+    private static Sample classpath(String name, MimeType mimeType) throws IOException {
+        return new Sample(new ClassPathResource("images/" + name).getContentAsByteArray(), mimeType);
+    }
+
+    // photo synthétique avec du bruit : se compresse mal, comme une vraie photo de téléphone
+    private static byte[] photo(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        Graphics2D graphics = image.createGraphics();
+        for (int i = 0; i < 2_000; i++) {
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.fillRect(random.nextInt(width), random.nextInt(height), 40 + random.nextInt(200), 40 + random.nextInt(200));
+        }
+        graphics.dispose();
+        for (int i = 0; i < width * height / 4; i++) {
+            image.setRGB(random.nextInt(width), random.nextInt(height), random.nextInt(0xFFFFFF));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private record Sample(byte[] bytes, MimeType mimeType) {
+    }
+
+    private record Result(long millis, long bytes) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.Test_AI_LLM.benchmark;
+
+import com.example.Test_AI_LLM.support.ApplicationProcess;
+import com.example.Test_AI_LLM.support.JvmCache;
+import com.example.Test_AI_LLM.support.StubOpenAiServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Démarrage à froid du jar extrait avec et sans le cache de la JVM : médiane sur {@value #RUNS}
+ * lancements du temps jusqu'à {@code readiness} et jusqu'à la première réponse {@code /chat}.
+ * Prérequis : {@code mvn -Pjvm-cache verify} ; lancer avec {@code mvn test -Pbenchmark}.
+ * Le gain est rapporté ; le test n'échoue que si le cache ralentit le démarrage de plus de
+ * {@code TOLERANCE} (25 %), pour rester stable sur une machine bruitée ou à un seul cœur.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark - Démarrage JVM avec et sans cache")
+class JvmCacheStartupBenchmarkTest {
+
+    private static final int RUNS = 3;
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final double TOLERANCE = 0.25;
+
+    @Test
+    @DisplayName("Le cache JVM ne ralentit ni le démarrage ni la première réponse")
+    void jvmCache_ShouldNotSlowDownStartup() throws Exception {
+        assumeTrue(JvmCache.exists(), "cache absent : lancer mvn -Pjvm-cache verify");
+        Path jar = ApplicationProcess.packagedJar().getFileName();
+
+        try (StubOpenAiServer server = new StubOpenAiServer().content("pong")) {
+            Measure cold = median("sans cache", ApplicationProcess.java(jar), server);
+            Measure cached = median("avec cache", ApplicationProcess.java(jar, JvmCache.runtimeOptions()), server);
+            System.out.println(cold);
+            System.out.println(cached);
+            System.out.printf("gain : %.0f %% sur readiness%n",
+                    100.0 * (cold.ready.toMillis() - cached.ready.toMillis()) / cold.ready.toMillis());
+
+            assertThat(cached.ready).isLessThanOrEqualTo(withTolerance(cold.ready));
+            assertThat(cached.firstResponse).isLessThanOrEqualTo(withTolerance(cold.firstResponse));
+        }
+    }
+
+    private static Duration withTolerance(Duration duration) {
+        return Duration.ofMillis((long) (duration.toMillis() * (1 + TOLERANCE)));
+    }
+
+    private static Measure median(String label, List<String> command, StubOpenAiServer server) throws Exception {
+        List<Measure> runs = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            Path log = Files.createTempFile("startup-cache", ".log");
+            try (ApplicationProcess application = ApplicationProcess.start(command, JvmCache.DIRECTORY,
+                    server.baseUrl(), log)) {
+                Duration ready = application.awaitReady(TIMEOUT);
+                runs.add(new Measure(label, ready, application.awaitFirstResponse("/chat?query=ping", TIMEOUT)));
+            }
+        }
+        runs.sort(Comparator.comparing(Measure::ready));
+        return runs.get(RUNS / 2);
+    }
+
+    record Measure(String label, Duration ready, Duration firstResponse) {
+
+        @Override
+        public String toString() {
+            return String.format("%-10s : prêt en %,d ms, première réponse à %,d ms",
+                    label, ready.toMillis(), firstResponse.toMillis());
+        }
+    }
+}
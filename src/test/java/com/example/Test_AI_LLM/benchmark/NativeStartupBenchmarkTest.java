@@ -0,0 +1,68 @@
+package com.example.Test_AI_LLM.benchmark;
+
+import com.example.Test_AI_LLM.support.ApplicationProcess;
+import com.example.Test_AI_LLM.support.StubOpenAiServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Démarrage à froid du jar sur la JVM contre l'exécutable natif : temps jusqu'à {@code readiness},
+ * jusqu'à la première réponse {@code /chat}, et mémoire résidente une fois prêt.
+ * Prérequis : {@code mvn package} puis {@code mvn -Pnative native:compile} (GraalVM) ;
+ * lancer avec {@code mvn test -Pbenchmark}. Sans exécutable natif, seule la JVM est mesurée.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark - Démarrage JVM contre image native")
+class NativeStartupBenchmarkTest {
+
+    private static final Path NATIVE = Path.of("target", "test-ai-llm");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    @Test
+    @DisplayName("L'image native démarre plus vite et occupe moins de mémoire que la JVM")
+    void nativeImage_ShouldStartFasterWithLessMemory() throws Exception {
+        Path jar = ApplicationProcess.packagedJar();
+        assumeTrue(jar != null, "jar absent : lancer mvn package");
+
+        try (StubOpenAiServer server = new StubOpenAiServer().content("pong")) {
+            Measure jvm = measure("JVM", ApplicationProcess.java(jar), server);
+            System.out.println(jvm);
+            if (!Files.isExecutable(NATIVE)) {
+                System.out.println("natif    : " + NATIVE + " absent, lancer mvn -Pnative native:compile");
+                return;
+            }
+            Measure nativeImage = measure("natif", List.of(NATIVE.toString()), server);
+            System.out.println(nativeImage);
+
+            assertThat(nativeImage.ready).isLessThan(jvm.ready);
+            assertThat(nativeImage.rssKb).isLessThan(jvm.rssKb);
+        }
+    }
+
+    static Measure measure(String label, List<String> command, StubOpenAiServer server) throws Exception {
+        Path log = Files.createTempFile("startup-" + label, ".log");
+        try (ApplicationProcess application = ApplicationProcess.start(command, server.baseUrl(), log)) {
+            Duration ready = application.awaitReady(TIMEOUT);
+            Duration firstResponse = application.awaitFirstResponse("/chat?query=ping", TIMEOUT);
+            return new Measure(label, ready, firstResponse, application.rssKb());
+        }
+    }
+
+    record Measure(String label, Duration ready, Duration firstResponse, long rssKb) {
+
+        @Override
+        public String toString() {
+            return String.format("%-8s : prêt en %,d ms, première réponse à %,d ms, RSS %,d Ko",
+                    label, ready.toMillis(), firstResponse.toMillis(), rssKb);
+        }
+    }
+}
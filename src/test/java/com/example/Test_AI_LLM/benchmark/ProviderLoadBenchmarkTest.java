@@ -0,0 +1,139 @@
+package com.example.Test_AI_LLM.benchmark;
+
+import com.example.Test_AI_LLM.TestAiLlmApplication;
+import com.example.Test_AI_LLM.support.LatencyDistribution;
+import com.example.Test_AI_LLM.support.LoadHarness;
+import com.example.Test_AI_LLM.support.LoadHarness.Report;
+import com.example.Test_AI_LLM.support.LoadHarness.Scenario;
+import com.example.Test_AI_LLM.support.StubOpenAiServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Charge sur chaque endpoint contre le fournisseur local, sans quota consommé : latence log-normale,
+ * débit de génération, 429 et 5xx injectés. Les caches (vision, base de connaissances) sont coupés pour
+ * que chaque requête aille jusqu'au fournisseur ; les retries Spring AI sont raccourcis.
+ * Lancer avec {@code mvn test -Pbenchmark -Dtest=ProviderLoadBenchmarkTest}, cadence et durée réglables
+ * par {@code -Dload.rate=20} (requêtes par seconde et par endpoint) et {@code -Dload.duration=PT60S}.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark - Charge sur tous les endpoints contre un fournisseur simulé")
+class ProviderLoadBenchmarkTest {
+
+    private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "5"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT20S"));
+    private static final String MOVIES = """
+            {"movies":[{"title":"Brazil","year":"1985","director":"Terry Gilliam","genre":"Science-fiction"}]}""";
+    private static final String CARTE = """
+            {"CouleursPrincipales":"vert","TextePrincipal":"carte Vitale","SousTitre":"","PucesElectroniques":"oui",\
+            "PhotoIdentité":"","DateEmission":"","NumeroSecuSociale":"","Nom":"","Mention":"","NumeroVertical":"",\
+            "MotifsFond":""}""";
+    private static final String TEXT = "une réponse de vingt mots environ, générée au débit configuré du "
+            + "fournisseur local pour mesurer le premier fragment et la fin du flux";
+
+    @Test
+    @DisplayName("Chaque endpoint tient la cadence et rend des percentiles de latence")
+    void everyEndpoint_ShouldSustainRate() throws Exception {
+        Path work = Files.createTempDirectory("provider-load");
+        try (StubOpenAiServer server = new StubOpenAiServer()
+                .seed(42)
+                .latency(LatencyDistribution.logNormal(Duration.ofMillis(300), Duration.ofMillis(1_500)))
+                .imageLatency(LatencyDistribution.uniform(Duration.ofSeconds(2), Duration.ofSeconds(6)))
+                .tokensPerSecond(60)
+                .failures(0.02, 0.01)
+                .content(ProviderLoadBenchmarkTest::answer);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(TestAiLlmApplication.class)
+                     .run("--server.port=0", "--warmup.enabled=false",
+                             "--spring.ai.openai.base-url=" + server.baseUrl(),
+                             "--vision.cache.enabled=false", "--knowledge.enabled=false",
+                             "--vision.upload.directory=" + work.resolve("uploads"),
+                             "--spring.ai.retry.max-attempts=3",
+                             "--spring.ai.retry.backoff.initial-interval=200ms",
+                             "--spring.ai.retry.backoff.max-interval=1s");
+             LoadHarness harness = new LoadHarness(Duration.ofSeconds(30))) {
+
+            // Given
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            byte[] image = image();
+            List<Scenario> scenarios = List.of(
+                    new Scenario("GET /chat", RATE, i -> get(baseUrl, "/chat?query=" + encode("bonjour " + i))),
+                    new Scenario("GET /stream", RATE, i -> get(baseUrl, "/stream?query=" + encode("bonjour " + i))),
+                    new Scenario("GET /askAgent", RATE, i -> get(baseUrl, "/askAgent?query=" + encode("films " + i))),
+                    new Scenario("GET /describe", RATE, i -> get(baseUrl, "/describe")),
+                    new Scenario("POST /askDowload", RATE, i -> multipart(baseUrl, "/askDowload", image,
+                            "que vois-tu ? " + i)),
+                    new Scenario("POST /api/v1/images/generate", RATE, i -> HttpRequest.newBuilder(
+                                    URI.create(baseUrl + "/api/v1/images/generate"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"prompt\":\"un chat n°" + i + "\"}"))));
+
+            // When
+            List<Report> reports = harness.run(scenarios, DURATION);
+
+            // Then
+            System.out.printf("%.0f req/s par endpoint pendant %s ; fournisseur : %d requêtes, %d 429, %d 5xx%n",
+                    RATE, DURATION, server.requests().size(), server.rateLimited(), server.serverErrors());
+            System.out.println(LoadHarness.format(reports));
+            for (Report report : reports) {
+                assertThat(report.samples()).as(report.name()).hasSize((int) (RATE * DURATION.toSeconds()));
+                assertThat(report.successes()).as(report.name()).isPositive();
+            }
+        }
+    }
+
+    // sortie structurée reconnue au schéma de la requête, texte sinon ; la mémoire de conversation,
+    // partagée entre endpoints, peut contenir l'autre schéma : seul le premier cité compte
+    private static String answer(String request) {
+        int carte = request.indexOf("CouleursPrincipales");
+        int movies = request.indexOf("movies");
+        if (carte >= 0 && (movies < 0 || carte < movies)) {
+            return CARTE;
+        }
+        return movies >= 0 ? MOVIES : TEXT;
+    }
+
+    private static HttpRequest.Builder get(String baseUrl, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] image() throws IOException {
+        try (InputStream in = ProviderLoadBenchmarkTest.class.getResourceAsStream("/images/1.jpg")) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static HttpRequest.Builder multipart(String baseUrl, String path, byte[] image, String query) {
+        String boundary = UUID.randomUUID().toString();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"1.jpg\""
+                + "\r\nContent-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(image);
+        body.writeBytes(("\r\n--" + boundary + "\r\nContent-Disposition: form-data; name=\"query\"\r\n\r\n" + query
+                + "\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+    }
+}
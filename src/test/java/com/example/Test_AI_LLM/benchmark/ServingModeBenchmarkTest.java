@@ -0,0 +1,114 @@
+package com.example.Test_AI_LLM.benchmark;
+
+import com.example.Test_AI_LLM.TestAiLlmApplication;
+import com.example.Test_AI_LLM.support.StubOpenAiServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flux {@code /stream} inactifs tenus ouverts par l'application en mode servlet (Tomcat)
+ * puis en mode WebFlux (Netty) : threads et mémoire par flux, flux tenus par cœur.
+ * Le fournisseur local envoie deux fragments puis se tait. Lancer avec {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark - Servlet contre WebFlux sur des flux inactifs")
+class ServingModeBenchmarkTest {
+
+    private static final int STREAMS = 400;
+
+    @Test
+    @DisplayName("Le mode WebFlux tient les flux inactifs avec moins de threads que le mode servlet")
+    void reactiveMode_ShouldHoldIdleStreamsWithFewerThreads() throws Exception {
+        Measure servlet = measure(WebApplicationType.SERVLET);
+        Measure reactive = measure(WebApplicationType.REACTIVE);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (Measure measure : List.of(servlet, reactive)) {
+            System.out.printf("%-8s : %d flux (%d par cœur), %+d threads, %,d octets de tas par flux inactif%n",
+                    measure.mode, STREAMS, STREAMS / cores, measure.threads, measure.heapPerStream);
+        }
+
+        assertThat(reactive.threads).isLessThanOrEqualTo(servlet.threads);
+    }
+
+    private static Measure measure(WebApplicationType mode) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        List<InputStream> bodies = new ArrayList<>();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        try (StubOpenAiServer server = new StubOpenAiServer()
+                .content("premiers fragments puis silence").pauseAfter(2, Duration.ofMinutes(5));
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(TestAiLlmApplication.class)
+                     .web(mode)
+                     .run("--server.port=0", "--warmup.enabled=false",
+                             "--spring.ai.openai.base-url=" + server.baseUrl(),
+                             // + 1 pour la requête à blanc, dont le flux amont reste ouvert
+                             "--bulkhead.text.max-connections=" + (STREAMS + 1),
+                             "--bulkhead.text.pending-acquire-max-count=" + STREAMS)) {
+
+            String port = context.getEnvironment().getProperty("local.server.port");
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/stream?query=ping"))
+                    .build();
+            // une requête à blanc pour charger les classes du chemin de streaming
+            client.send(request, HttpResponse.BodyHandlers.ofInputStream()).body().close();
+            int threadsBefore = threads.getThreadCount();
+            long heapBefore = usedHeap(memory);
+            int requestsBefore = server.requests().size();
+
+            List<CompletableFuture<HttpResponse<InputStream>>> responses = new ArrayList<>();
+            for (int i = 0; i < STREAMS; i++) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()));
+            }
+            for (CompletableFuture<HttpResponse<InputStream>> response : responses) {
+                HttpResponse<InputStream> streaming = response.get(30, TimeUnit.SECONDS);
+                InputStream body = streaming.body();
+                bodies.add(body);
+                assertThat(streaming.statusCode()).isEqualTo(200);
+                // le premier fragment est arrivé : le flux est ouvert de bout en bout et inactif
+                assertThat(body.read()).isPositive();
+            }
+            assertThat(server.requests().size() - requestsBefore).isEqualTo(STREAMS);
+
+            // un thread du fournisseur local attend par flux, dans les deux modes
+            int appThreads = threads.getThreadCount() - threadsBefore - STREAMS;
+            long heapPerStream = (usedHeap(memory) - heapBefore) / STREAMS;
+            return new Measure(mode, appThreads, heapPerStream);
+        } finally {
+            for (InputStream body : bodies) {
+                body.close();
+            }
+            // close() attendrait la fin des flux : on coupe sans attendre
+            client.shutdownNow();
+        }
+    }
+
+    private static long usedHeap(MemoryMXBean memory) throws InterruptedException {
+        System.gc();
+        Thread.sleep(200);
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private record Measure(WebApplicationType mode, int threads, long heapPerStream) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.Test_AI_LLM.benchmark;
+
+import com.example.Test_AI_LLM.config.ExtractionProperties;
+import com.example.Test_AI_LLM.outputs.MovieList;
+import com.example.Test_AI_LLM.service.StructuredExtractionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.converter.BeanOutputConverter;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Coût par appel de l'extraction structurée : {@code .entity()} (convertisseur et schéma
+ * recréés à chaque appel) contre le service avec spécifications en cache.
+ * Lancer avec {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark - Extraction structurée")
+class StructuredExtractionBenchmarkTest {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1_000;
+    private static final String RESPONSE = """
+            ```json
+            {"movies":[
+              {"title":"Brazil","year":"1985","director":"Terry Gilliam","genre":"Science-fiction"},
+              {"title":"Ran","year":"1985","director":"Akira Kurosawa","genre":"Drame"},
+              {"title":"Retour vers le futur","year":"1985","director":"Robert Zemeckis","genre":"Aventure"}
+            ]}
+            ```""";
+
+    @Test
+    @DisplayName("Le service en cache consomme moins de CPU et alloue moins par appel")
+    void cachedExtraction_ShouldCostLessPerCall() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        StructuredExtractionService service = new StructuredExtractionService(objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), new SimpleMeterRegistry(),
+                new ExtractionProperties());
+
+        Measure perCall = measure(() -> {
+            BeanOutputConverter<MovieList> converter = new BeanOutputConverter<>(MovieList.class, objectMapper);
+            return converter.getFormat().length() + converter.convert(RESPONSE).movies().size();
+        });
+        Measure cached = measure(() -> service.instructions(MovieList.class).length()
+                + service.parse(RESPONSE, MovieList.class).movies().size());
+
+        System.out.printf("entity() par appel : %,d ns CPU, %,d octets alloués%n", perCall.cpuNanos, perCall.bytes);
+        System.out.printf("service en cache   : %,d ns CPU, %,d octets alloués%n", cached.cpuNanos, cached.bytes);
+
+        assertThat(cached.cpuNanos).isLessThan(perCall.cpuNanos);
+        assertThat(cached.bytes).isLessThan(perCall.bytes);
+    }
+
+    private static Measure measure(Supplier<Integer> call) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += call.get();
+        }
+        long thread = Thread.currentThread().threadId();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long bytesStart = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += call.get();
+        }
+        long cpu = (threads.getCurrentThreadCpuTime() - cpuStart) / ITERATIONS;
+        long bytes = (threads.getThreadAllocatedBytes(thread) - bytesStart) / ITERATIONS;
+        assertThat(sink).isPositive();
+        return new Measure(cpu, bytes);
+    }
+
+    private record Measure(long cpuNanos, long bytes) {
+    }
+}
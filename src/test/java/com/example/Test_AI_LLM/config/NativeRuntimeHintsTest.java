@@ -0,0 +1,48 @@
+package com.example.Test_AI_LLM.config;
+
+import com.example.Test_AI_LLM.outputs.CarteVitale;
+import com.example.Test_AI_LLM.outputs.Movie;
+import com.example.Test_AI_LLM.outputs.MovieList;
+import com.example.Test_AI_LLM.service.OpenAiBatchClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("NativeRuntimeHints - Tests Unitaires")
+class NativeRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Devrait ouvrir les sorties structurées à Jackson et au générateur de schéma")
+    void shouldRegisterOutputs_ForBinding() {
+        // When & Then
+        for (Class<?> type : new Class<?>[] {MovieList.class, Movie.class, CarteVitale.class}) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(type)
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        }
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(Movie.class, "title").invoke())
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(OpenAiBatchClient.RequestCounts.class))
+                .accepts(hints);
+    }
+
+    @Test
+    @DisplayName("Devrait embarquer les images du classpath")
+    void shouldRegisterClasspathImages() {
+        // When & Then
+        assertThat(RuntimeHintsPredicates.resource().forResource("images/CarteVitale.jpg")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("images/1.jpg")).accepts(hints);
+    }
+}
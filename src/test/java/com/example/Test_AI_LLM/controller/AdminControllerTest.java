@@ -0,0 +1,113 @@
+package com.example.Test_AI_LLM.controller;
+
+import com.example.Test_AI_LLM.config.AdminProperties;
+import com.example.Test_AI_LLM.config.BulkheadProperties;
+import com.example.Test_AI_LLM.config.HttpClientProperties;
+import com.example.Test_AI_LLM.config.OpenAiImageProperties;
+import com.example.Test_AI_LLM.config.TieringProperties;
+import com.example.Test_AI_LLM.exception.GlobalExceptionHandler;
+import com.example.Test_AI_LLM.service.Bulkhead;
+import com.example.Test_AI_LLM.service.Bulkheads;
+import com.example.Test_AI_LLM.service.RuntimeConfigService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiChatProperties;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("AdminController - Tests /admin/config")
+class AdminControllerTest {
+
+    private Bulkheads bulkheads;
+    private AdminProperties adminProperties;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BulkheadProperties bulkheadProperties = new BulkheadProperties();
+        HttpClientProperties httpProperties = new HttpClientProperties();
+        bulkheads = new Bulkheads(
+                new Bulkhead("text", bulkheadProperties.getText(), httpProperties, meterRegistry),
+                new Bulkhead("vision", bulkheadProperties.getVision(), httpProperties, meterRegistry),
+                new Bulkhead("image", bulkheadProperties.getImage(), httpProperties, meterRegistry));
+        adminProperties = new AdminProperties();
+        adminProperties.setToken("secret");
+        RuntimeConfigService service = new RuntimeConfigService(bulkheadProperties, httpProperties, bulkheads,
+                new TieringProperties(), new OpenAiChatProperties(), new OpenAiImageProperties(), adminProperties);
+        mockMvc = MockMvcBuilders.standaloneSetup(new AdminController(service, adminProperties))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkheads.text().close();
+        bulkheads.vision().close();
+        bulkheads.image().close();
+    }
+
+    @Test
+    @DisplayName("Devrait refuser un appel sans jeton valide")
+    void shouldReject_WhenTokenIsMissingOrWrong() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/admin/config"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/admin/config").header(AdminController.TOKEN_HEADER, "wrong"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Devrait être désactivée sans jeton configuré")
+    void shouldBeDisabled_WhenNoTokenConfigured() throws Exception {
+        // Given
+        adminProperties.setToken("");
+
+        // When & Then
+        mockMvc.perform(get("/admin/config").header(AdminController.TOKEN_HEADER, ""))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Devrait appliquer le changement, le tracer et renvoyer la configuration effective")
+    void shouldApplyChange_AndExposeAudit() throws Exception {
+        // When
+        mockMvc.perform(patch("/admin/config")
+                        .header(AdminController.TOKEN_HEADER, "secret")
+                        .header(AdminController.USER_HEADER, "alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"bulkheads":{"vision":{"maxConnections":12,"pendingAcquireTimeout":"PT5S"}},
+                                 "models":{"image":"gpt-image-1"}}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bulkheads.vision.maxConnections").value(12))
+                .andExpect(jsonPath("$.bulkheads.vision.pendingAcquireTimeout").value("PT5S"))
+                .andExpect(jsonPath("$.models.image").value("gpt-image-1"));
+
+        // Then
+        mockMvc.perform(get("/admin/config/audit").header(AdminController.TOKEN_HEADER, "secret"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].actor").value("alice"));
+    }
+
+    @Test
+    @DisplayName("Devrait renvoyer 400 pour un bulkhead inconnu")
+    void shouldReturnBadRequest_ForUnknownBulkhead() throws Exception {
+        // When & Then
+        mockMvc.perform(patch("/admin/config")
+                        .header(AdminController.TOKEN_HEADER, "secret")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bulkheads\":{\"audio\":{\"maxConnections\":2}}}"))
+                .andExpect(status().isBadRequest());
+    }
+}
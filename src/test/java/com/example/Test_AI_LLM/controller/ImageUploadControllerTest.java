@@ -0,0 +1,182 @@
+package com.example.Test_AI_LLM.controller;
+
+import com.example.Test_AI_LLM.advisor.LatencyMetricsAdvisor;
+import com.example.Test_AI_LLM.advisor.SampledLoggingAdvisor;
+import com.example.Test_AI_LLM.advisor.StablePrefixAdvisor;
+import com.example.Test_AI_LLM.config.BulkheadProperties;
+import com.example.Test_AI_LLM.config.ExtractionProperties;
+import com.example.Test_AI_LLM.config.ImagePreprocessingProperties;
+import com.example.Test_AI_LLM.config.ImageUploadProperties;
+import com.example.Test_AI_LLM.config.LlmLoggingProperties;
+import com.example.Test_AI_LLM.config.MultiImageProperties;
+import com.example.Test_AI_LLM.config.VisionCacheProperties;
+import com.example.Test_AI_LLM.exception.GlobalExceptionHandler;
+import com.example.Test_AI_LLM.logging.AsyncLogWriter;
+import com.example.Test_AI_LLM.service.Bulkhead;
+import com.example.Test_AI_LLM.service.Bulkheads;
+import com.example.Test_AI_LLM.service.ImagePreprocessor;
+import com.example.Test_AI_LLM.service.ImageUploadStager;
+import com.example.Test_AI_LLM.service.StructuredExtractionService;
+import com.example.Test_AI_LLM.service.VisionResultCache;
+import com.example.Test_AI_LLM.service.VisionService;
+import com.example.Test_AI_LLM.support.StubOpenAiServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("ImageUploadController - Tests /askMultiple avec un fournisseur local")
+class ImageUploadControllerTest {
+
+    @TempDir
+    private Path directory;
+
+    private StubOpenAiServer server;
+    private Bulkheads bulkheads;
+    private ImagePreprocessor preprocessor;
+    private MultiImageProperties multiProperties;
+    private AsyncLogWriter logWriter;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubOpenAiServer().content("réponse");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BulkheadProperties.Pool pool = new BulkheadProperties.Pool(2, 2, 10, 4, 10);
+        bulkheads = new Bulkheads(new Bulkhead("text", pool, meterRegistry),
+                new Bulkhead("vision", pool, meterRegistry), new Bulkhead("image", pool, meterRegistry));
+        preprocessor = new ImagePreprocessor(new ImagePreprocessingProperties(), meterRegistry);
+        VisionCacheProperties cacheProperties = new VisionCacheProperties();
+        cacheProperties.setDirectory(directory.resolve("cache"));
+        ImageUploadProperties uploadProperties = new ImageUploadProperties();
+        uploadProperties.setDirectory(directory.resolve("uploads"));
+        multiProperties = new MultiImageProperties();
+        LlmLoggingProperties loggingProperties = new LlmLoggingProperties();
+        logWriter = new AsyncLogWriter(loggingProperties, new ObjectMapper(), meterRegistry);
+
+        OpenAiChatModel visionChatModel = OpenAiChatModel.builder()
+                .openAiApi(OpenAiApi.builder().baseUrl(server.baseUrl()).apiKey("test").build())
+                .defaultOptions(OpenAiChatOptions.builder().model("gpt-4.1").build())
+                .retryTemplate(RetryTemplate.builder().maxAttempts(1).build())
+                .build();
+        VisionService vision = new VisionService(visionChatModel,
+                new DefaultListableBeanFactory().getBeanProvider(ObservationRegistry.class),
+                MessageWindowChatMemory.builder().build(), bulkheads, new StablePrefixAdvisor(meterRegistry),
+                new SampledLoggingAdvisor(logWriter, loggingProperties), new LatencyMetricsAdvisor(meterRegistry),
+                new StructuredExtractionService(new ObjectMapper(),
+                        Validation.buildDefaultValidatorFactory().getValidator(), meterRegistry,
+                        new ExtractionProperties()),
+                preprocessor, new VisionResultCache(cacheProperties, new ObjectMapper(), meterRegistry),
+                multiProperties);
+        ImageUploadController controller = new ImageUploadController(vision,
+                new ImageUploadStager(uploadProperties, meterRegistry));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        server.close();
+        logWriter.close();
+        preprocessor.close();
+        bulkheads.text().close();
+        bulkheads.vision().close();
+        bulkheads.image().close();
+    }
+
+    @Test
+    @DisplayName("Devrait envoyer toutes les images dans un seul prompt en mode packed")
+    void shouldSendAllImagesInOnePrompt_WhenPacked() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(multipart("/askMultiple")
+                        .file(image("recto.png", 1600, 1200))
+                        .file(image("verso.png", 1600, 1200))
+                        .param("query", "Les deux faces concordent-elles ?"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("réponse"));
+        assertThat(server.requests()).singleElement().asString()
+                .contains("Les deux faces concordent-elles ?")
+                .satisfies(body -> assertThat(body.split("\"type\":\"image_url\"", -1)).hasSize(3));
+    }
+
+    @Test
+    @DisplayName("Devrait émettre une réponse par image en mode parallel")
+    void shouldStreamOneAnswerPerImage_WhenParallel() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(multipart("/askMultiple")
+                        .file(image("page1.png", 800, 600))
+                        .file(image("page2.png", 800, 601))
+                        .file(image("page3.png", 800, 602))
+                        .param("mode", "parallel")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .param("query", "Que dit cette page ?"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(body.lines()).hasSize(3).allSatisfy(line -> assertThat(line).contains("\"answer\":\"réponse\""));
+        assertThat(body).contains("page1.png", "page2.png", "page3.png");
+        assertThat(server.requests()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Devrait refuser la requête quand le budget de pixels est dépassé")
+    void shouldReject_WhenPixelBudgetExceeded() throws Exception {
+        // Given
+        multiProperties.setMaxTotalPixels(1_000_000);
+
+        // When & Then
+        mockMvc.perform(multipart("/askMultiple")
+                        .file(image("a.png", 1024, 768))
+                        .file(image("b.png", 1024, 768))
+                        .param("query", "Compare"))
+                .andExpect(status().isPayloadTooLarge());
+        assertThat(server.requests()).isEmpty();
+        assertThat(directory.resolve("uploads")).isEmptyDirectory();
+    }
+
+    private static MockMultipartFile image(String name, int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return new MockMultipartFile("files", name, "application/octet-stream", out.toByteArray());
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.Test_AI_LLM.controller;
+
+import com.example.Test_AI_LLM.outputs.CarteVitale;
+import com.example.Test_AI_LLM.outputs.Movie;
+import com.example.Test_AI_LLM.support.StubOpenAiServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Application complète sur Netty (profil {@code reactive}) sous BlockHound : tout appel bloquant
+ * exécuté sur un thread d'entrée/sortie fait échouer la requête.
+ */
+@Tag("reactive")
+@ActiveProfiles("reactive")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "warmup.enabled=false")
+@DisplayName("Profil reactive - Tests BlockHound de bout en bout")
+class ReactiveServingTest {
+
+    private static final String MOVIES = """
+            {"movies":[{"title":"Brazil","year":"1985","director":"Terry Gilliam","genre":"Science-fiction"},\
+            {"title":"Ran","year":"1985","director":"Akira Kurosawa","genre":"Drame"}]}""";
+    private static final String CARTE = """
+            {"CouleursPrincipales":"vert","TextePrincipal":"carte Vitale","SousTitre":"","PucesElectroniques":"oui",\
+            "PhotoIdentité":"","DateEmission":"","NumeroSecuSociale":"","Nom":"","Mention":"","NumeroVertical":"",\
+            "MotifsFond":""}""";
+
+    private static StubOpenAiServer server;
+    private static Path directory;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ReactiveWebServerApplicationContext context;
+
+    @BeforeAll
+    static void installBlockHound() {
+        // côté client de test : le premier tirage de frontière multipart lit /dev/urandom
+        BlockHound.install(builder -> builder
+                .allowBlockingCallsInside("org.springframework.util.MimeTypeUtils", "generateMultipartBoundary"));
+    }
+
+    @DynamicPropertySource
+    static void provider(DynamicPropertyRegistry registry) throws IOException {
+        server = new StubOpenAiServer();
+        directory = Files.createTempDirectory("reactive-serving");
+        registry.add("spring.ai.openai.base-url", server::baseUrl);
+        registry.add("vision.cache.directory", () -> directory.resolve("cache").toString());
+        registry.add("vision.upload.directory", () -> directory.resolve("uploads").toString());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Devrait servir sur Netty malgré Tomcat sur le classpath")
+    void shouldServeOnNetty() {
+        // When & Then
+        assertThat(context.getWebServer()).isInstanceOf(NettyWebServer.class);
+    }
+
+    @Test
+    @DisplayName("Devrait détecter un appel bloquant sur un thread non bloquant")
+    void shouldDetectBlockingCall_OnParallelThread() {
+        // When & Then
+        assertThatThrownBy(() -> Mono.delay(Duration.ofMillis(1))
+                .doOnNext(tick -> sleep())
+                .block(Duration.ofSeconds(5)))
+                .hasCauseInstanceOf(BlockingOperationError.class);
+    }
+
+    @Test
+    @DisplayName("Devrait répondre à /chat et /nostream sans bloquer Netty")
+    void shouldAnswerChat_WithoutBlocking() {
+        // Given
+        server.content("bonjour depuis le stub");
+
+        // When & Then
+        client.get().uri("/chat?query=bonjour").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("bonjour depuis le stub");
+        client.get().uri("/nostream?query=bonjour").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("bonjour depuis le stub");
+    }
+
+    @Test
+    @DisplayName("Devrait relayer le flux /stream fragment par fragment")
+    void shouldStreamTokens_WithoutBlocking() {
+        // Given
+        server.content("un deux trois").chunkDelay(Duration.ofMillis(300));
+        List<Long> arrivals = new CopyOnWriteArrayList<>();
+
+        // When
+        List<String> chunks = client.get().uri("/stream?query=compte").exchange()
+                .expectStatus().isOk()
+                .returnResult(byte[].class).getResponseBody()
+                .doOnNext(chunk -> arrivals.add(System.nanoTime()))
+                .map(chunk -> new String(chunk, StandardCharsets.UTF_8))
+                .collectList().block(Duration.ofSeconds(10));
+        server.chunkDelay(Duration.ZERO);
+
+        // Then
+        assertThat(String.join("", chunks)).isEqualTo("un deux trois");
+        // chaque fragment est vidé dès son arrivée, pas à la fin de la réponse
+        assertThat(Duration.ofNanos(arrivals.getLast() - arrivals.getFirst())).isGreaterThan(Duration.ofMillis(400));
+    }
+
+    @Test
+    @DisplayName("Devrait émettre les films de /askAgent/stream en NDJSON")
+    void shouldStreamMovies_WithoutBlocking() {
+        // Given
+        server.content(MOVIES);
+
+        // When
+        List<Movie> movies = client.get().uri("/askAgent/stream?query=films de 1985")
+                .accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .returnResult(Movie.class).getResponseBody()
+                .collectList().block(Duration.ofSeconds(10));
+
+        // Then
+        assertThat(movies).extracting(Movie::title).containsExactly("Brazil", "Ran");
+    }
+
+    @Test
+    @DisplayName("Devrait décrire l'image statique via le bulkhead vision")
+    void shouldDescribeImage_WithoutBlocking() {
+        // Given
+        server.content(CARTE);
+
+        // When & Then
+        client.get().uri("/describe").exchange()
+                .expectStatus().isOk()
+                .expectBody(CarteVitale.class)
+                .value(carte -> assertThat(carte.TextePrincipal()).isEqualTo("carte Vitale"));
+    }
+
+    @Test
+    @DisplayName("Devrait accepter les uploads multipart FilePart sans bloquer Netty")
+    void shouldAcceptUploads_WithoutBlocking() throws IOException {
+        // Given
+        server.content("réponse");
+        MultipartBodyBuilder single = new MultipartBodyBuilder();
+        single.part("file", image("carte.png", 640, 400));
+        single.part("query", "Que vois-tu ?");
+        MultipartBodyBuilder multiple = new MultipartBodyBuilder();
+        multiple.part("files", image("page1.png", 800, 600));
+        multiple.part("files", image("page2.png", 800, 601));
+        multiple.part("query", "Que dit cette page ?");
+
+        // When & Then
+        client.post().uri("/askDowload")
+                .body(BodyInserters.fromMultipartData(single.build())).exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("réponse");
+        List<String> lines = client.post().uri("/askMultiple?mode=parallel")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(BodyInserters.fromMultipartData(multiple.build())).exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseBody()
+                .collectList().block(Duration.ofSeconds(10));
+        assertThat(lines).hasSize(2).allSatisfy(line -> assertThat(line).contains("réponse"));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ByteArrayResource image(String name, int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return new ByteArrayResource(out.toByteArray()) {
+            @Override
+            public String getFilename() {
+                return name;
+            }
+        };
+    }
+}
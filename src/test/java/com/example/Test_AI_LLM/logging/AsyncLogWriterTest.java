@@ -0,0 +1,86 @@
+package com.example.Test_AI_LLM.logging;
+
+import com.example.Test_AI_LLM.config.LlmLoggingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.content.Media;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AsyncLogWriter - Tests Unitaires")
+class AsyncLogWriterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AsyncLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        LlmLoggingProperties properties = new LlmLoggingProperties();
+        properties.setMaxChars(60);
+        writer = new AsyncLogWriter(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.close();
+    }
+
+    @Test
+    @DisplayName("Devrait caviarder clés, e-mails et NIR puis tronquer")
+    void shouldRedactAndTruncate() {
+        // When & Then
+        assertThat(writer.clean("clé sk-abcdefghijklmnop pour jean@exemple.fr"))
+                .isEqualTo("clé [caviardé] pour [caviardé]");
+        assertThat(writer.clean("NIR 1 85 05 78 006 084 36")).isEqualTo("NIR [caviardé]");
+        assertThat(writer.clean("x".repeat(100))).isEqualTo("x".repeat(60) + "…(+40)");
+    }
+
+    @Test
+    @DisplayName("Devrait caviarder un secret coupé par la limite de longueur")
+    void shouldRedactSecret_AcrossTruncation() {
+        // Given : chaque secret commence juste avant la 60e position
+        String prefix = "x".repeat(55) + " ";
+
+        // When & Then
+        assertThat(writer.clean(prefix + "sk-abcdefghijklmnop"))
+                .startsWith(prefix + "[cav").doesNotContain("sk-abc");
+        assertThat(writer.clean(prefix + "jean@exemple.fr")).doesNotContain("jean");
+        assertThat(writer.clean(prefix + "1 85 05 78 006 084 36")).doesNotContain("1 85");
+    }
+
+    @Test
+    @DisplayName("Devrait n'écrire que le type des médias, jamais leur contenu")
+    @SuppressWarnings("unchecked")
+    void shouldFormatMediaType_WithoutData() {
+        // Given
+        UserMessage message = UserMessage.builder().text("que vois-tu ?")
+                .media(new Media(MimeTypeUtils.IMAGE_JPEG, new ByteArrayResource("base64-très-long".repeat(1000).getBytes())))
+                .build();
+        AdvisorLogEvent event = new AdvisorLogEvent(Instant.now(), "/describe", "call", "gpt-4.1", null,
+                List.of(message), "une carte", 10, 2, 1_000_000, "success", null, true);
+
+        // When
+        Map<String, Object> json = writer.format(event);
+
+        // Then
+        assertThat((List<Map<String, Object>>) json.get("messages")).singleElement().satisfies(m -> {
+            assertThat(m).containsEntry("role", "user").containsEntry("text", "que vois-tu ?");
+            assertThat(m).containsEntry("media", List.of("image/jpeg"));
+        });
+        assertThat(json.toString()).doesNotContain("base64-très-long");
+        assertThat(writer.publish(event)).isTrue();
+        assertThat(meterRegistry.get("llm.log.dropped").functionCounter().count()).isZero();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.Test_AI_LLM.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DroppingRingBuffer - Tests Unitaires")
+class DroppingRingBufferTest {
+
+    @Test
+    @DisplayName("Devrait restituer les éléments dans l'ordre de dépôt")
+    void shouldPollInOfferOrder() {
+        // Given
+        DroppingRingBuffer<Integer> buffer = new DroppingRingBuffer<>(4);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            buffer.offer(i);
+            assertThat(buffer.poll()).isEqualTo(i);
+        }
+
+        // Then
+        assertThat(buffer.poll()).isNull();
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Devrait perdre et compter les éléments quand le tampon est plein")
+    void shouldDropAndCount_WhenFull() {
+        // Given
+        DroppingRingBuffer<Integer> buffer = new DroppingRingBuffer<>(1000);
+
+        // When
+        int accepted = 0;
+        for (int i = 0; i < 1030; i++) {
+            accepted += buffer.offer(i) ? 1 : 0;
+        }
+
+        // Then : capacité arrondie à 1024
+        assertThat(buffer.capacity()).isEqualTo(1024);
+        assertThat(accepted).isEqualTo(1024);
+        assertThat(buffer.dropped()).isEqualTo(6);
+        assertThat(buffer.poll()).isZero();
+    }
+
+    @Test
+    @DisplayName("Devrait ne rien perdre ni dupliquer avec plusieurs producteurs et un consommateur")
+    void shouldDeliverEachElementOnce_WithConcurrentProducers() throws Exception {
+        // Given
+        int producers = 4;
+        int perProducer = 20_000;
+        DroppingRingBuffer<Integer> buffer = new DroppingRingBuffer<>(256);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When : chaque producteur réessaie tant que son élément est refusé
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        Set<Integer> received = new HashSet<>();
+        List<Integer> duplicates = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received.size() + duplicates.size() < producers * perProducer && System.nanoTime() < deadline) {
+            Integer element = buffer.poll();
+            if (element != null && !received.add(element)) {
+                duplicates.add(element);
+            }
+        }
+        executor.shutdownNow();
+
+        // Then
+        assertThat(duplicates).isEmpty();
+        assertThat(received).hasSize(producers * perProducer);
+    }
+}
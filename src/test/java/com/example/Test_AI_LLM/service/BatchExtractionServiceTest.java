@@ -0,0 +1,196 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.BatchProperties;
+import com.example.Test_AI_LLM.config.ExtractionProperties;
+import com.example.Test_AI_LLM.entity.BatchItem;
+import com.example.Test_AI_LLM.entity.BatchItemStatus;
+import com.example.Test_AI_LLM.entity.BatchJob;
+import com.example.Test_AI_LLM.entity.BatchJobStatus;
+import com.example.Test_AI_LLM.repository.BatchItemRepository;
+import com.example.Test_AI_LLM.repository.BatchJobRepository;
+import com.example.Test_AI_LLM.support.StubBatchServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("BatchExtractionService - Tests avec un serveur batch local")
+class BatchExtractionServiceTest {
+
+    @Autowired
+    private BatchJobRepository jobRepository;
+    @Autowired
+    private BatchItemRepository itemRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StubBatchServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private ExtractionProperties extractionProperties;
+    private BatchExtractionService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubBatchServer();
+        meterRegistry = new SimpleMeterRegistry();
+        extractionProperties = new ExtractionProperties();
+        service = new BatchExtractionService(
+                new OpenAiBatchClient(RestClient.builder().baseUrl(server.baseUrl()).build()),
+                jobRepository, itemRepository, new BatchProperties(), new ObjectMapper(),
+                new StructuredExtractionService(new ObjectMapper(),
+                        Validation.buildDefaultValidatorFactory().getValidator(), meterRegistry,
+                        extractionProperties),
+                new TransactionTemplate(transactionManager), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        itemRepository.deleteAll();
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Devrait empaqueter chaque requête en ligne JSONL avec le format attendu")
+    void shouldPackageQueries_AsJsonlLines() {
+        // When
+        BatchJob job = service.submit("MovieList", List.of("films de 1985", "", "films de Kubrick"));
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(BatchJobStatus.SUBMITTED);
+        assertThat(job.getTotalItems()).isEqualTo(2);
+        assertThat(server.inputLines()).hasSize(2);
+        assertThat(server.inputLines().get(0).path("custom_id").asText()).isEqualTo("q-0");
+        assertThat(server.inputLines().get(0).path("url").asText()).isEqualTo("/v1/chat/completions");
+        assertThat(server.inputLines().get(0).path("body").path("messages").path(0).path("content").asText())
+                .contains("\"movies\"");
+        assertThat(server.inputLines().get(0).path("body").path("messages").path(0))
+                .isEqualTo(server.inputLines().get(1).path("body").path("messages").path(0));
+    }
+
+    @Test
+    @DisplayName("Devrait envoyer le schéma strict dans chaque ligne en mode strict")
+    void shouldSendStrictResponseFormat_InStrictMode() {
+        // Given
+        extractionProperties.setStrictSchema(true);
+
+        // When
+        service.submit("MovieList", List.of("films de 1985"));
+
+        // Then
+        JsonNode body = server.inputLines().get(0).path("body");
+        assertThat(body.path("response_format").path("type").asText()).isEqualTo("json_schema");
+        assertThat(body.path("response_format").path("json_schema").path("strict").asBoolean()).isTrue();
+        assertThat(body.path("messages").path(0).path("content").asText()).doesNotContain("\"movies\"");
+    }
+
+    @Test
+    @DisplayName("Devrait rester en cours tant que le lot n'est pas terminé")
+    void shouldStayInProgress_UntilBatchCompletes() {
+        // Given
+        BatchJob job = service.submit("MovieList", List.of("films de 1985"));
+
+        // When
+        BatchJob refreshed = service.refresh(job);
+
+        // Then
+        assertThat(refreshed.getStatus()).isEqualTo(BatchJobStatus.IN_PROGRESS);
+        assertThat(itemRepository.findByJobOrderById(job))
+                .extracting(BatchItem::getStatus).containsExactly(BatchItemStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("Devrait importer, valider et enregistrer les résultats une fois le lot terminé")
+    void shouldIngestAndValidateResults_WhenBatchCompletes() {
+        // Given
+        server.responder(query -> switch (query) {
+            case "films de 1985" -> "```json\n{\"movies\":[{\"title\":\"Brazil\",\"year\":\"1985\"}]}\n```";
+            case "films sans titre" -> "{\"movies\":[{\"title\":\"\",\"year\":\"1985\"}]}";
+            case "pas du json" -> "désolé, je ne sais pas";
+            default -> null;
+        });
+        BatchJob job = service.submit("MovieList",
+                List.of("films de 1985", "films sans titre", "pas du json", "erreur fournisseur"));
+        server.complete();
+
+        // When
+        BatchJob refreshed = service.refresh(job);
+
+        // Then
+        assertThat(refreshed.getStatus()).isEqualTo(BatchJobStatus.COMPLETED);
+        assertThat(refreshed.getSucceededItems()).isEqualTo(1);
+        assertThat(refreshed.getFailedItems()).isEqualTo(3);
+
+        List<BatchItem> items = itemRepository.findByJobOrderById(job);
+        assertThat(items.get(0).getStatus()).isEqualTo(BatchItemStatus.SUCCEEDED);
+        assertThat(items.get(0).getResultJson()).contains("\"title\":\"Brazil\"");
+        assertThat(items.get(1).getError()).contains("title");
+        assertThat(items.get(2).getError()).startsWith("Invalid structured output");
+        assertThat(items.get(3).getError()).startsWith("HTTP 500");
+        assertThat(meterRegistry.get("batch.items").tag("outcome", "succeeded").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Devrait importer les résultats une seule fois quand deux rafraîchissements se chevauchent")
+    void shouldIngestOnce_WhenRefreshedTwice() {
+        // Given
+        BatchJob job = service.submit("MovieList", List.of("films de 1985"));
+        BatchJob stale = jobRepository.findById(job.getId()).orElseThrow();
+        server.complete();
+
+        // When
+        service.refresh(job);
+        BatchJob refreshed = service.refresh(stale);
+
+        // Then
+        assertThat(refreshed.getStatus()).isEqualTo(BatchJobStatus.COMPLETED);
+        assertThat(meterRegistry.get("batch.items").tag("outcome", "succeeded").counter().count()).isEqualTo(1.0);
+        assertThat(jobRepository.findById(job.getId()).orElseThrow().getStatus()).isEqualTo(BatchJobStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Devrait tracer en base un lot dont la création échoue chez le fournisseur")
+    void shouldRecordFailedJob_WhenBatchCreationFails() {
+        // Given
+        server.failCreation();
+
+        // When & Then
+        assertThatThrownBy(() -> service.submit("MovieList", List.of("films de 1985")))
+                .isInstanceOf(RuntimeException.class);
+        List<BatchJob> jobs = jobRepository.findAll();
+        assertThat(jobs).singleElement().satisfies(job -> {
+            assertThat(job.getStatus()).isEqualTo(BatchJobStatus.FAILED);
+            assertThat(job.getInputFileId()).isEqualTo("file-in");
+            assertThat(itemRepository.findByJobOrderById(job))
+                    .extracting(BatchItem::getStatus).containsExactly(BatchItemStatus.FAILED);
+        });
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une cible structurée inconnue")
+    void shouldReject_UnknownTarget() {
+        // When & Then
+        assertThatThrownBy(() -> service.submit("CarteVitale", List.of("question")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unsupported batch target");
+        assertThat(server.inputLines()).isEmpty();
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.BulkheadProperties;
+import com.example.Test_AI_LLM.exception.BulkheadFullException;
+import com.example.Test_AI_LLM.support.StubOpenAiServer;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Bulkhead - Tests Unitaires")
+class BulkheadTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Bulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 1 thread + 1 place dans la file
+        bulkhead = new Bulkhead("test", new BulkheadProperties.Pool(1, 1, 1, 2, 2), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkhead.close();
+    }
+
+    @Test
+    @DisplayName("Devrait exécuter la tâche sur un thread du bulkhead")
+    void shouldRunTask_OnBulkheadThread() throws Exception {
+        // When
+        String threadName = bulkhead.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(threadName).startsWith("bulkhead-test-");
+    }
+
+    @Test
+    @DisplayName("Devrait rejeter les tâches quand les threads et la file sont pleins")
+    void shouldReject_WhenSaturated() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<String> running = bulkhead.submit(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        });
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = bulkhead.submit(() -> "second");
+
+        // When & Then
+        assertThatThrownBy(() -> bulkhead.submit(() -> "third"))
+                .isInstanceOf(BulkheadFullException.class)
+                .hasMessageContaining("test");
+        assertThat(meterRegistry.get("bulkhead.rejected").tag("bulkhead", "test").counter().count())
+                .isEqualTo(1.0);
+        assertThat(bulkhead.saturation()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+    }
+
+    @Test
+    @DisplayName("Devrait interrompre la tâche en cours et retirer la tâche en file quand leur futur est annulé")
+    void shouldInterruptRunningTask_AndSkipQueuedTask_WhenCancelled() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicBoolean queuedRan = new AtomicBoolean();
+        CompletableFuture<String> running = bulkhead.submit(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "first";
+        });
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = bulkhead.submit(() -> {
+            queuedRan.set(true);
+            return "second";
+        });
+
+        // When
+        queued.cancel(true);
+        running.cancel(true);
+
+        // Then
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(bulkhead.submit(() -> "third").get(5, TimeUnit.SECONDS)).isEqualTo("third");
+        assertThat(queuedRan).isFalse();
+    }
+
+    @Test
+    @DisplayName("Devrait mesurer l'attente en file derrière une tâche en cours")
+    void shouldRecordQueueWait() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = bulkhead.submit(() -> {
+            await(release);
+            return "first";
+        });
+        CompletableFuture<String> queued = bulkhead.submit(() -> "second");
+
+        // When
+        Thread.sleep(100);
+        release.countDown();
+        queued.get(5, TimeUnit.SECONDS);
+        running.get(5, TimeUnit.SECONDS);
+
+        // Then
+        var queueWait = meterRegistry.get("bulkhead.queue.wait").tag("bulkhead", "test").timer();
+        assertThat(queueWait.count()).isEqualTo(2);
+        assertThat(queueWait.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Devrait exposer les métriques de saturation")
+    void shouldRegisterSaturationMetrics() {
+        // Then
+        assertThat(meterRegistry.get("bulkhead.threads.active").tag("bulkhead", "test").gauge().value()).isZero();
+        assertThat(meterRegistry.get("bulkhead.queue.remaining").tag("bulkhead", "test").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("bulkhead.saturation").tag("bulkhead", "test").gauge().value()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("Devrait ouvrir les connexions à l'avance vers le fournisseur")
+    void shouldPreconnect_ToProvider() throws Exception {
+        // Given
+        try (StubOpenAiServer server = new StubOpenAiServer()) {
+
+            // When
+            Integer opened = bulkhead.preconnect(server.baseUrl(), 2, Duration.ofSeconds(2)).block();
+
+            // Then
+            assertThat(opened).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer un fournisseur injoignable pendant la chauffe")
+    void shouldIgnoreUnreachableProvider_WhenPreconnecting() {
+        // When
+        Integer opened = bulkhead.preconnect("http://localhost:1", 2, Duration.ofSeconds(1)).block();
+
+        // Then
+        assertThat(opened).isZero();
+    }
+
+    @Test
+    @DisplayName("Devrait publier les métriques du pool de connexions")
+    void shouldPublishConnectionPoolMetrics() throws Exception {
+        // Given
+        SimpleMeterRegistry global = new SimpleMeterRegistry();
+        Metrics.addRegistry(global);
+        try (StubOpenAiServer server = new StubOpenAiServer()) {
+
+            // When
+            bulkhead.preconnect(server.baseUrl(), 2, Duration.ofSeconds(2)).block();
+
+            // Then
+            assertThat(global.find("reactor.netty.connection.provider.total.connections")
+                    .tag("name", "bulkhead-test").gauges()).isNotEmpty();
+            assertThat(global.find("reactor.netty.connection.provider.idle.connections")
+                    .tag("name", "bulkhead-test").gauge()).isNotNull();
+            assertThat(global.find("reactor.netty.connection.provider.pending.connections")
+                    .tag("name", "bulkhead-test").gauge()).isNotNull();
+        } finally {
+            Metrics.removeRegistry(global);
+        }
+    }
+}
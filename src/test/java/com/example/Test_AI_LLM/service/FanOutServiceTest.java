@@ -0,0 +1,140 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.BulkheadProperties;
+import com.example.Test_AI_LLM.config.FanOutProperties;
+import com.example.Test_AI_LLM.outputs.Movie;
+import com.example.Test_AI_LLM.outputs.MovieList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("FanOutService - Tests Unitaires")
+class FanOutServiceTest {
+
+    private static final List<String> LEGS = List.of("80s", "90s", "00s", "10s");
+
+    private SimpleMeterRegistry meterRegistry;
+    private FanOutProperties properties;
+    private Bulkhead bulkhead;
+    private FanOutService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new FanOutProperties();
+        bulkhead = new Bulkhead("text", new BulkheadProperties.Pool(4, 4, 10, 4, 4), meterRegistry);
+        service = new FanOutService(new HeuristicQueryPlanner(8), new Bulkheads(bulkhead, bulkhead, bulkhead),
+                properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkhead.close();
+    }
+
+    @Test
+    @DisplayName("Devrait exécuter les sous-requêtes en parallèle")
+    void shouldRunLegs_InParallel() throws Exception {
+        // When
+        long start = System.nanoTime();
+        MovieList movies = service.gather(LEGS, leg -> slow(Duration.ofMillis(300), new Movie(leg, "x", "y", "z")))
+                .get(5, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertThat(movies.movies()).hasSize(4);
+        assertThat(elapsedMillis).isLessThan(4 * 300);
+    }
+
+    @Test
+    @DisplayName("Devrait fusionner sans doublons titre, année, réalisateur")
+    void shouldMergeAndDeduplicate() throws Exception {
+        // When
+        MovieList movies = service.gather(List.of("a", "b"), leg -> new MovieList(List.of(
+                new Movie("Blade Runner", "1982", "Ridley Scott", "SF"),
+                new Movie(leg.equals("a") ? "Alien" : "Brazil", "1985", "x", "SF"),
+                new Movie("blade runner ", "1982", "Ridley  Scott", "Science-fiction"))))
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(movies.movies()).extracting(Movie::title).containsExactly("Blade Runner", "Alien", "Brazil");
+        assertThat(meterRegistry.get("fanout.duplicates").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Devrait renvoyer les résultats terminés à l'échéance globale")
+    void shouldReturnCompletedLegs_AtDeadline() throws Exception {
+        // Given
+        properties.setDeadline(Duration.ofMillis(400));
+
+        // When
+        MovieList movies = service.gather(LEGS, leg -> slow(Duration.ofMillis(leg.equals("80s") ? 50 : 3_000),
+                        new Movie(leg, "x", "y", "z")))
+                .get(2, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(movies.movies()).extracting(Movie::title).containsExactly("80s");
+        assertThat(meterRegistry.get("fanout.deadline.exceeded").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Devrait interrompre les sous-requêtes encore en cours à l'échéance")
+    void shouldInterruptLegs_PastDeadline() throws Exception {
+        // Given
+        properties.setDeadline(Duration.ofMillis(200));
+        CountDownLatch interrupted = new CountDownLatch(3);
+
+        // When
+        service.gather(LEGS, leg -> {
+            if (!leg.equals("80s")) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+            return new MovieList(List.of(new Movie(leg, "x", "y", "z")));
+        }).get(2, TimeUnit.SECONDS);
+
+        // Then : les threads du bulkhead sont libérés sans attendre la fin des appels
+        assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(bulkhead.submit(() -> "libre").get(1, TimeUnit.SECONDS)).isEqualTo("libre");
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer une sous-requête en échec et échouer si toutes échouent")
+    void shouldSkipFailedLegs_AndFailWhenAllFail() throws Exception {
+        // When
+        MovieList partial = service.gather(List.of("ok", "ko"), leg -> {
+            if (leg.equals("ko")) {
+                throw new IllegalStateException("provider down");
+            }
+            return new MovieList(List.of(new Movie("Ran", "1985", "Kurosawa", "Drame")));
+        }).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(partial.movies()).hasSize(1);
+        assertThatThrownBy(() -> service.gather(List.of("ko"), leg -> {
+            throw new IllegalStateException("provider down");
+        }).get(5, TimeUnit.SECONDS)).hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private static MovieList slow(Duration latency, Movie movie) {
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new MovieList(List.of(movie));
+    }
+}
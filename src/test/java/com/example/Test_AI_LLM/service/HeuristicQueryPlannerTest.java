@@ -0,0 +1,75 @@
+package com.example.Test_AI_LLM.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HeuristicQueryPlanner - Tests Unitaires")
+class HeuristicQueryPlannerTest {
+
+    private final HeuristicQueryPlanner planner = new HeuristicQueryPlanner(8);
+
+    @Test
+    @DisplayName("Devrait découper par décennie")
+    void shouldSplitByDecade() {
+        // When
+        List<String> plan = planner.plan("tous les films de science-fiction des années 80 et 90");
+
+        // Then
+        assertThat(plan).containsExactly(
+                "tous les films de science-fiction des années 80 et 90 — uniquement les films sortis entre 1980 et 1989",
+                "tous les films de science-fiction des années 80 et 90 — uniquement les films sortis entre 1990 et 1999");
+    }
+
+    @Test
+    @DisplayName("Devrait découper une plage d'années en décennies")
+    void shouldSplitYearRange_IntoDecades() {
+        // When
+        List<String> plan = planner.plan("all sci-fi movies from 1975 to 1999");
+
+        // Then
+        assertThat(plan).hasSize(3);
+        assertThat(plan.get(0)).endsWith("entre 1970 et 1979");
+    }
+
+    @Test
+    @DisplayName("Devrait croiser décennies et genres")
+    void shouldCombineDecadesAndGenres() {
+        // When
+        List<String> plan = planner.plan("westerns and comedies of the 60s and 70s");
+
+        // Then
+        assertThat(plan).hasSize(4);
+        assertThat(plan).anyMatch(q -> q.contains("1960 et 1969") && q.endsWith("genre comédie"));
+    }
+
+    @Test
+    @DisplayName("Devrait garder seulement les décennies quand le produit dépasse la limite")
+    void shouldDropGenreSplit_WhenFanOutTooLarge() {
+        // When
+        List<String> plan = new HeuristicQueryPlanner(4)
+                .plan("drames, thrillers et westerns des années 70 et 80");
+
+        // Then
+        assertThat(plan).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas découper une requête étroite")
+    void shouldNotSplit_NarrowQuery() {
+        // When & Then
+        assertThat(planner.plan("films de 1985")).containsExactly("films de 1985");
+        assertThat(planner.plan("films de science-fiction des années 80")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Devrait renvoyer un plan vide pour une requête absente")
+    void shouldReturnEmptyPlan_WhenQueryIsMissing() {
+        // When & Then
+        assertThat(planner.plan(null)).isEmpty();
+        assertThat(planner.plan("  ")).isEmpty();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.OpenAiImageProperties;
+import com.example.Test_AI_LLM.dto.ImageGenerationRequest;
+import com.example.Test_AI_LLM.dto.ImageGenerationResponse;
+import com.example.Test_AI_LLM.support.ProviderTapeServer;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.openai.OpenAiImageModel;
+import org.springframework.ai.openai.api.OpenAiImageApi;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Le vrai {@link OpenAiImageModel} contre une cassette, au lieu d'un mock : sérialisation de la
+ * requête (empreinte exacte exigée) et désérialisation de la réponse.
+ * <p>
+ * La cassette est synthétique : enregistrée contre {@link com.example.Test_AI_LLM.support.StubOpenAiServer},
+ * corps de réponse réécrit à la main au format documenté de l'API ; ni forme ni délai réels. Pour une
+ * cassette réelle, lancer ce test avec {@code -Dtape.record=https://api.openai.com} et
+ * {@code OPENAI_API_KEY} après avoir pointé {@link #TAPE} sur {@code image-generation.jsonl}.
+ */
+@DisplayName("ImageGenerationService - Rejeu d'une cassette du fournisseur")
+class ImageGenerationServiceReplayTest {
+
+    private static final Path TAPE = Path.of("src/test/resources/tapes/image-generation.synthetic.jsonl");
+
+    private ProviderTapeServer provider;
+    private ImageGenerationService imageGenerationService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        provider = ProviderTapeServer.fromSystemProperties(TAPE);
+        OpenAiImageApi imageApi = OpenAiImageApi.builder()
+                .baseUrl(provider.baseUrl())
+                .apiKey(System.getenv().getOrDefault("OPENAI_API_KEY", "replay"))
+                .build();
+        imageGenerationService = new ImageGenerationService(new OpenAiImageModel(imageApi),
+                new OpenAiImageProperties(), ObservationRegistry.NOOP);
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.close();
+    }
+
+    @Test
+    @DisplayName("Devrait lire l'URL de l'image dans la réponse du fournisseur")
+    void shouldReadImageUrl_FromProviderResponse() {
+        // Given
+        ImageGenerationRequest request = new ImageGenerationRequest(
+                "A lighthouse on a cliff at dawn, watercolor", "standard", "1024x1024");
+
+        // When
+        ImageGenerationResponse response = imageGenerationService.generateImage(request);
+
+        // Then
+        assertThat(response.imageUrl()).startsWith("https://").contains(".png");
+        assertThat(response.prompt()).isEqualTo(request.prompt());
+    }
+}
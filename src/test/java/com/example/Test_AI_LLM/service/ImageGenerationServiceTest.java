@@ -3,6 +3,7 @@ package com.example.Test_AI_LLM.service;
 import com.example.Test_AI_LLM.config.OpenAiImageProperties;
 import com.example.Test_AI_LLM.dto.ImageGenerationRequest;
 import com.example.Test_AI_LLM.dto.ImageGenerationResponse;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,10 +12,10 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.image.Image;
+import org.springframework.ai.image.ImageGeneration;
 import org.springframework.ai.image.ImagePrompt;
 import org.springframework.ai.image.ImageResponse;
 import org.springframework.ai.openai.OpenAiImageModel;
@@ -35,7 +36,6 @@ class ImageGenerationServiceTest {
     @Mock
     private OpenAiImageProperties imageProperties;
 
-    @InjectMocks
     private ImageGenerationService imageGenerationService;
 
     @Captor
@@ -43,6 +43,7 @@ class ImageGenerationServiceTest {
 
     @BeforeEach
     void setUp() {
+        imageGenerationService = new ImageGenerationService(openAiImageModel, imageProperties, ObservationRegistry.NOOP);
         // Configuration par défaut des propriétés
         when(imageProperties.getModel()).thenReturn("dall-e-3");
     }
@@ -92,7 +93,7 @@ class ImageGenerationServiceTest {
         verify(openAiImageModel).call(imagePromptCaptor.capture());
         ImagePrompt capturedPrompt = imagePromptCaptor.getValue();
 
-        assertThat(capturedPrompt.getInstructions()).isEqualTo("Test prompt");
+        assertThat(capturedPrompt.getInstructions().getFirst().getText()).isEqualTo("Test prompt");
 
         OpenAiImageOptions options = (OpenAiImageOptions) capturedPrompt.getOptions();
         assertThat(options.getQuality()).isEqualTo("hd");
@@ -256,9 +257,8 @@ class ImageGenerationServiceTest {
                 "1024x1024"
         );
 
-        // Créer un ModelResult avec output null
-        org.springframework.ai.model.ModelResult<Image> mockGeneration =
-                new org.springframework.ai.model.ModelResult<>(null);
+        // Créer une ImageGeneration avec output null
+        ImageGeneration mockGeneration = new ImageGeneration(null);
 
         ImageResponse mockResponse = new ImageResponse(java.util.List.of(mockGeneration));
         when(openAiImageModel.call(any(ImagePrompt.class))).thenReturn(mockResponse);
@@ -453,17 +453,14 @@ class ImageGenerationServiceTest {
     // ===== Méthodes utilitaires =====
 
     private ImageResponse createMockImageResponse(String imageUrl) {
-        // Créer un mock de Image
-        Image mockImage = mock(Image.class);
-        when(mockImage.getUrl()).thenReturn(imageUrl);
+        Image mockImage = new Image(imageUrl, null);
 
         // Créer un mock de Generation (Spring AI 1.1.0)
-        org.springframework.ai.model.ModelResult<Image> mockGeneration =
-                new org.springframework.ai.model.ModelResult<>(mockImage);
+        ImageGeneration mockGeneration = new ImageGeneration(mockImage);
 
         // Créer le mock de ImageResponse avec une liste de générations
         ImageResponse mockResponse = new ImageResponse(java.util.List.of(mockGeneration));
 
         return mockResponse;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
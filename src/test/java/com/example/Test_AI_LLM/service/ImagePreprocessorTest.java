@@ -0,0 +1,231 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.ImagePreprocessingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ImagePreprocessor - Tests Unitaires")
+class ImagePreprocessorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ImagePreprocessingProperties properties;
+    private ImagePreprocessor preprocessor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ImagePreprocessingProperties();
+        preprocessor = new ImagePreprocessor(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        preprocessor.close();
+    }
+
+    @Test
+    @DisplayName("Devrait réduire une photo 12 MP aux dimensions de tuiles du modèle")
+    void shouldDownscalePhoto_ToTileDimensions() throws Exception {
+        // Given
+        byte[] photo = image(4032, 3024, "jpg", BufferedImage.TYPE_INT_RGB);
+
+        // When
+        PreparedImage prepared = preprocessor.prepareAsync(photo, MimeTypeUtils.IMAGE_JPEG).get();
+
+        // Then
+        assertThat(prepared.width()).isEqualTo(1024);
+        assertThat(prepared.height()).isEqualTo(768);
+        assertThat(prepared.mimeType()).isEqualTo(MimeTypeUtils.IMAGE_JPEG);
+        assertThat(prepared.bytes().length).isLessThan(photo.length);
+        assertThat(ImageIO.read(new ByteArrayInputStream(prepared.bytes())).getWidth()).isEqualTo(1024);
+    }
+
+    @Test
+    @DisplayName("Devrait retirer une tuile quand la perte de résolution est faible")
+    void shouldSnapToFewerTiles() {
+        // When & Then
+        assertThat(ImagePreprocessor.targetSize(1100, 768, 2048, 768, 0.2)).containsExactly(1024, 714);
+        assertThat(ImagePreprocessor.targetSize(1365, 768, 2048, 768, 0.2)).containsExactly(1365, 768);
+        assertThat(ImagePreprocessor.targetSize(300, 200, 2048, 768, 0.2)).containsExactly(300, 200);
+        assertThat(ImagePreprocessor.estimateTokens(4032, 3024)).isEqualTo(85 + 170 * 4);
+        assertThat(ImagePreprocessor.estimateTokens(1100, 768)).isEqualTo(85 + 170 * 6);
+        assertThat(ImagePreprocessor.estimateTokens(1024, 714)).isEqualTo(85 + 170 * 4);
+    }
+
+    @Test
+    @DisplayName("Devrait supprimer les métadonnées EXIF")
+    void shouldStripExifMetadata() {
+        // Given
+        byte[] photo = withExif(image(800, 600, "jpg", BufferedImage.TYPE_INT_RGB), "GPS 48.8584 2.2945");
+
+        // When
+        PreparedImage prepared = preprocessor.prepare(photo, MimeTypeUtils.IMAGE_JPEG);
+
+        // Then
+        assertThat(new String(photo, StandardCharsets.ISO_8859_1)).contains("Exif", "GPS 48.8584");
+        assertThat(new String(prepared.bytes(), StandardCharsets.ISO_8859_1)).doesNotContain("Exif", "GPS 48.8584");
+    }
+
+    @Test
+    @DisplayName("Devrait appliquer l'orientation EXIF aux pixels avant de retirer les métadonnées")
+    void shouldApplyExifOrientation() throws Exception {
+        // Given : capteur 200x100, moitié gauche rouge, à tourner de 90° (Orientation=6)
+        BufferedImage sensor = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = sensor.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 100, 100);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(100, 0, 100, 100);
+        graphics.dispose();
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(sensor, "jpg", jpeg);
+        byte[] photo = withOrientation(jpeg.toByteArray(), 6);
+
+        // When
+        PreparedImage prepared = preprocessor.prepare(photo, MimeTypeUtils.IMAGE_JPEG);
+
+        // Then : portrait, le rouge en haut
+        assertThat(prepared.width()).isEqualTo(100);
+        assertThat(prepared.height()).isEqualTo(200);
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(prepared.bytes()));
+        assertThat(decoded.getWidth()).isEqualTo(100);
+        assertThat(new Color(decoded.getRGB(50, 40)).getRed()).isGreaterThan(200);
+        assertThat(new Color(decoded.getRGB(50, 160)).getBlue()).isGreaterThan(200);
+        assertThat(new String(prepared.bytes(), StandardCharsets.ISO_8859_1)).doesNotContain("Exif");
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas garder l'échec de préparation d'une image fixe")
+    void shouldRetryStaticImage_AfterFailure() throws Exception {
+        // Given
+        ByteArrayResource resource = new ByteArrayResource(image(300, 200, "png", BufferedImage.TYPE_INT_RGB), "fixe");
+        properties.setMaxPixels(1_000);
+        assertThatThrownBy(() -> preprocessor.prepareStatic(resource, MimeTypeUtils.IMAGE_PNG).get())
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        properties.setMaxPixels(10_000_000);
+
+        // When
+        PreparedImage prepared = preprocessor.prepareStatic(resource, MimeTypeUtils.IMAGE_PNG).get();
+
+        // Then
+        assertThat(prepared.width()).isEqualTo(300);
+    }
+
+    @Test
+    @DisplayName("Devrait ré-encoder un PNG transparent en JPEG sur fond blanc")
+    void shouldReencodeTransparentPng_AsJpeg() throws Exception {
+        // Given
+        byte[] png = image(640, 480, "png", BufferedImage.TYPE_INT_ARGB);
+
+        // When
+        PreparedImage prepared = preprocessor.prepare(png, MimeTypeUtils.IMAGE_PNG);
+
+        // Then
+        assertThat(prepared.mimeType()).isEqualTo(MimeTypeUtils.IMAGE_JPEG);
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(prepared.bytes()));
+        Color corner = new Color(decoded.getRGB(0, 0));
+        // JPEG est avec perte : presque blanc, pas noir
+        assertThat(corner.getRed() + corner.getGreen() + corner.getBlue()).isGreaterThan(3 * 245);
+    }
+
+    @Test
+    @DisplayName("Devrait transmettre tel quel un format illisible")
+    void shouldPassThrough_UnsupportedFormat() {
+        // Given
+        byte[] unknown = "RIFF....WEBPVP8 ".getBytes(StandardCharsets.ISO_8859_1);
+
+        // When
+        PreparedImage prepared = preprocessor.prepare(unknown, MimeTypeUtils.parseMimeType("image/webp"));
+
+        // Then
+        assertThat(prepared.bytes()).isSameAs(unknown);
+        assertThat(prepared.mimeType().toString()).isEqualTo("image/webp");
+        assertThat(meterRegistry.get("vision.preprocess.skipped").tag("reason", "unsupported").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Devrait refuser une image trop grande avant de la décoder")
+    void shouldReject_TooManyPixels() {
+        // Given
+        properties.setMaxPixels(1_000_000);
+        byte[] photo = image(2000, 1000, "png", BufferedImage.TYPE_INT_RGB);
+
+        // When & Then
+        assertThatThrownBy(() -> preprocessor.prepare(photo, MimeTypeUtils.IMAGE_PNG))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("2000x1000");
+    }
+
+    @Test
+    @DisplayName("Devrait prévoir les pixels envoyés d'après l'en-tête du fichier")
+    void shouldPlanPixels_FromFileHeader(@TempDir Path directory) throws Exception {
+        // Given
+        Path photo = Files.write(directory.resolve("photo.jpg"), image(4032, 3024, "jpg", BufferedImage.TYPE_INT_RGB));
+        Path unknown = Files.write(directory.resolve("image.webp"), "RIFF....WEBPVP8 ".getBytes(StandardCharsets.ISO_8859_1));
+
+        // When & Then
+        assertThat(preprocessor.plannedPixels(photo)).isEqualTo(1024L * 768);
+        assertThat(preprocessor.plannedPixels(unknown)).isEqualTo(2048L * 768);
+    }
+
+    static byte[] image(int width, int height, String format, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        for (int x = 0; x < width; x += 40) {
+            graphics.setColor(new Color((x * 7) % 256, (x * 3) % 256, 128));
+            graphics.fillOval(x, (x * 13) % height, 60, 60);
+        }
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, format, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // IFD0 big-endian réduit à la seule balise Orientation (0x0112, SHORT)
+    private static byte[] withOrientation(byte[] jpeg, int orientation) {
+        byte[] tiff = {'M', 'M', 0, 42, 0, 0, 0, 8, 0, 1,
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                0, 0, 0, 0};
+        return withExif(jpeg, new String(tiff, StandardCharsets.ISO_8859_1));
+    }
+
+    // segment APP1 « Exif » inséré juste après le marqueur SOI
+    private static byte[] withExif(byte[] jpeg, String payload) {
+        byte[] exif = ("Exif\0\0" + payload).getBytes(StandardCharsets.ISO_8859_1);
+        int length = exif.length + 2;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(length >> 8);
+        out.write(length & 0xFF);
+        out.writeBytes(exif);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.ImageUploadProperties;
+import com.example.Test_AI_LLM.exception.ImageUploadException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ImageUploadStager - Tests Unitaires")
+class ImageUploadStagerTest {
+
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10, 'J', 'F', 'I', 'F'};
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0x0D};
+
+    @TempDir
+    private Path directory;
+
+    private ImageUploadProperties properties;
+    private ImageUploadStager stager;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ImageUploadProperties();
+        properties.setDirectory(directory);
+        stager = new ImageUploadStager(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Devrait détecter le type réel d'après les octets et non l'en-tête du client")
+    void shouldSniffRealMediaType() throws Exception {
+        // Given
+        MultipartFile png = new MockMultipartFile("file", "photo.jpg", "image/jpeg", PNG);
+
+        // When
+        try (StagedImage staged = stager.stage(png)) {
+            // Then
+            assertThat(staged.mimeType()).isEqualTo(MimeTypeUtils.IMAGE_PNG);
+            assertThat(staged.size()).isEqualTo(PNG.length);
+            assertThat(staged.sha256()).isEqualTo(VisionResultCache.hash(PNG));
+            assertThat(Files.readAllBytes(staged.path())).isEqualTo(PNG);
+        }
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("Devrait reconnaître JPEG, PNG, GIF et WebP")
+    void shouldRecognizeImageSignatures() {
+        // When & Then
+        assertThat(ImageUploadStager.sniff(JPEG)).contains(MimeTypeUtils.IMAGE_JPEG);
+        assertThat(ImageUploadStager.sniff(PNG)).contains(MimeTypeUtils.IMAGE_PNG);
+        assertThat(ImageUploadStager.sniff("GIF89a......".getBytes(StandardCharsets.US_ASCII)))
+                .contains(MimeTypeUtils.IMAGE_GIF);
+        assertThat(ImageUploadStager.sniff("RIFF\0\0\0\0WEBP".getBytes(StandardCharsets.US_ASCII)))
+                .hasValueSatisfying(type -> assertThat(type.toString()).isEqualTo("image/webp"));
+        assertThat(ImageUploadStager.sniff("%PDF-1.7....".getBytes(StandardCharsets.US_ASCII))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Devrait refuser un fichier qui n'est pas une image")
+    void shouldReject_NonImage() {
+        // Given
+        MultipartFile pdf = new MockMultipartFile("file", "image.png", "image/png",
+                "%PDF-1.7 not an image".getBytes(StandardCharsets.US_ASCII));
+
+        // When & Then
+        assertThatThrownBy(() -> stager.stage(pdf))
+                .isInstanceOfSatisfying(ImageUploadException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE));
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("Devrait interrompre la copie dès que la taille réelle dépasse la limite")
+    void shouldReject_WhenStreamExceedsLimit() {
+        // Given
+        properties.setMaxSize(DataSize.ofMegabytes(1));
+        // taille annoncée sous la limite, contenu au-dessus
+        MultipartFile lying = new GeneratedUpload(JPEG, 5 * 1024 * 1024, 1024, null);
+
+        // When & Then
+        assertThatThrownBy(() -> stager.stage(lying))
+                .isInstanceOfSatisfying(ImageUploadException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE));
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    // dépend de System.gc() et du ramasse-miettes : hors suite unitaire, avec -Pbenchmark
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Le tas devrait rester plat avec 50 envois simultanés de 10 Mo")
+    void heapShouldStayFlat_With50Concurrent10MbUploads() throws Exception {
+        // Given
+        int uploads = 50;
+        int size = 10 * 1024 * 1024;
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        CountDownLatch halfway = new CountDownLatch(uploads);
+        CountDownLatch resume = new CountDownLatch(1);
+        long baseline = usedHeapAfterGc(memory);
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(uploads);
+        List<CompletableFuture<StagedImage>> staged = new ArrayList<>();
+        try {
+            for (int i = 0; i < uploads; i++) {
+                GeneratedUpload upload = new GeneratedUpload(JPEG, size, size, new Pause(halfway, resume));
+                staged.add(CompletableFuture.supplyAsync(() -> stager.stage(upload), executor));
+            }
+            assertThat(halfway.await(60, TimeUnit.SECONDS)).isTrue();
+            // les 50 copies sont à mi-chemin : 250 Mo sont « en vol »
+            long inFlight = usedHeapAfterGc(memory);
+            resume.countDown();
+
+            // Then
+            for (CompletableFuture<StagedImage> future : staged) {
+                try (StagedImage image = future.get(60, TimeUnit.SECONDS)) {
+                    assertThat(image.size()).isEqualTo(size);
+                    assertThat(image.mimeType()).isEqualTo(MimeTypeUtils.IMAGE_JPEG);
+                }
+            }
+            assertThat(inFlight - baseline)
+                    .as("tas avant : %,d octets, pendant 50 envois : %,d octets", baseline, inFlight)
+                    .isLessThan(32L * 1024 * 1024);
+        } finally {
+            resume.countDown();
+            executor.shutdownNow();
+        }
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private record Pause(CountDownLatch halfway, CountDownLatch resume) {
+    }
+
+    /**
+     * Envoi simulé dont le contenu est produit au fil de la lecture : rien n'est tenu en mémoire.
+     */
+    private static final class GeneratedUpload implements MultipartFile {
+
+        private final byte[] header;
+        private final long length;
+        private final long declaredSize;
+        private final Pause pause;
+
+        GeneratedUpload(byte[] header, long length, long declaredSize, Pause pause) {
+            this.header = header;
+            this.length = length;
+            this.declaredSize = declaredSize;
+            this.pause = pause;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new InputStream() {
+                private long position;
+                private boolean paused;
+
+                @Override
+                public int read() {
+                    byte[] one = new byte[1];
+                    return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int count) {
+                    if (position >= length) {
+                        return -1;
+                    }
+                    if (pause != null && !paused && position >= length / 2) {
+                        paused = true;
+                        pause.halfway().countDown();
+                        try {
+                            pause.resume().await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    int n = (int) Math.min(count, length - position);
+                    for (int i = 0; i < n; i++) {
+                        long index = position + i;
+                        buffer[offset + i] = index < header.length ? header[(int) index] : (byte) (index * 31);
+                    }
+                    position += n;
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return "photo.jpg";
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/jpeg";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return length == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return declaredSize;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new UnsupportedOperationException("upload must be streamed");
+        }
+
+        @Override
+        public void transferTo(File destination) {
+            throw new UnsupportedOperationException("upload must be streamed");
+        }
+    }
+}
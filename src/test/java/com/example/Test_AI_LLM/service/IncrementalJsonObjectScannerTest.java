@@ -0,0 +1,92 @@
+package com.example.Test_AI_LLM.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("IncrementalJsonObjectScanner - Tests Unitaires")
+class IncrementalJsonObjectScannerTest {
+
+    private static final String MOVIES = """
+            {"movies":[{"title":"Brazil","year":"1985","director":"Terry Gilliam","genre":"SF"},\
+            {"title":"Ran","year":"1985","director":"Akira Kurosawa","genre":"Drame"}]}""";
+
+    private IncrementalJsonObjectScanner scanner;
+
+    @BeforeEach
+    void setUp() {
+        scanner = new IncrementalJsonObjectScanner();
+    }
+
+    @Test
+    @DisplayName("Devrait émettre chaque film dès la fermeture de son objet")
+    void shouldEmitEachObject_AsSoonAsItCloses() {
+        // When
+        List<String> first = scanner.feed(MOVIES.substring(0, MOVIES.indexOf("},") + 1));
+        List<String> rest = scanner.feed(MOVIES.substring(MOVIES.indexOf("},") + 1));
+
+        // Then
+        assertThat(first).singleElement().asString().contains("Brazil");
+        assertThat(rest).singleElement().asString().contains("Ran");
+        assertThat(scanner.hasPartial()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Devrait reconstituer les objets quel que soit le découpage en tokens")
+    void shouldReassembleObjects_AcrossArbitraryChunks() {
+        // When
+        List<String> objects = new ArrayList<>();
+        for (int i = 0; i < MOVIES.length(); i += 3) {
+            objects.addAll(scanner.feed(MOVIES.substring(i, Math.min(MOVIES.length(), i + 3))));
+        }
+
+        // Then
+        assertThat(objects).containsExactly(
+                "{\"title\":\"Brazil\",\"year\":\"1985\",\"director\":\"Terry Gilliam\",\"genre\":\"SF\"}",
+                "{\"title\":\"Ran\",\"year\":\"1985\",\"director\":\"Akira Kurosawa\",\"genre\":\"Drame\"}");
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer les crochets du texte d'introduction")
+    void shouldIgnoreBracketsInIntroduction() {
+        // When
+        List<String> objects = new ArrayList<>(scanner.feed("Films [2010s] et {quelques} classiques :\n"));
+        objects.addAll(scanner.feed(MOVIES));
+
+        // Then
+        assertThat(objects).hasSize(2);
+        assertThat(objects.getFirst()).contains("Brazil");
+        assertThat(objects.getLast()).contains("Ran");
+    }
+
+    @Test
+    @DisplayName("Devrait ignorer les accolades dans les chaînes et le texte autour du JSON")
+    void shouldIgnoreBracesInStrings_AndSurroundingText() {
+        // When
+        List<String> objects = scanner.feed("""
+                Voici la liste :
+                ```json
+                {"movies":[{"title":"Le \\"}\\" mystère [1]","year":"1990"}]}
+                ```
+                Bonne séance {ou pas}""");
+
+        // Then
+        assertThat(objects).containsExactly("{\"title\":\"Le \\\"}\\\" mystère [1]\",\"year\":\"1990\"}");
+    }
+
+    @Test
+    @DisplayName("Devrait signaler un objet tronqué en fin de flux")
+    void shouldReportPartialObject_WhenStreamIsTruncated() {
+        // When
+        List<String> objects = scanner.feed(MOVIES.substring(0, MOVIES.indexOf("Akira")));
+
+        // Then
+        assertThat(objects).hasSize(1);
+        assertThat(scanner.hasPartial()).isTrue();
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.KnowledgeProperties;
+import com.example.Test_AI_LLM.entity.QueryCoverage;
+import com.example.Test_AI_LLM.outputs.Movie;
+import com.example.Test_AI_LLM.outputs.MovieList;
+import com.example.Test_AI_LLM.repository.MovieRepository;
+import com.example.Test_AI_LLM.repository.QueryCoverageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("MovieKnowledgeService - Tests avec H2")
+class MovieKnowledgeServiceTest {
+
+    private static final MovieList KUBRICK = new MovieList(List.of(
+            new Movie("2001: A Space Odyssey", "1968", "Stanley Kubrick", "Science Fiction"),
+            new Movie("The Shining", "1980", "Stanley Kubrick", "Horror"),
+            new Movie("Barry Lyndon", "1975", "Stanley Kubrick", "Drama")));
+
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private QueryCoverageRepository coverageRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private KnowledgeProperties properties;
+    private MovieKnowledgeService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new KnowledgeProperties();
+        properties.setEnabled(true);
+        service = new MovieKnowledgeService(movieRepository, coverageRepository, properties,
+                new TransactionTemplate(transactionManager), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteAll();
+        coverageRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Devrait servir depuis la base une requête déjà résolue par le modèle")
+    void shouldServeRepeatQuery_FromStore() {
+        // Given
+        assertThat(service.resolve("films de Stanley Kubrick")).isEmpty();
+        service.record("films de Stanley Kubrick", KUBRICK);
+
+        // When
+        var known = service.resolve("Films de Stanley Kubrick");
+
+        // Then
+        assertThat(known).get().extracting(MovieList::movies).asList().hasSize(3);
+        assertThat(meterRegistry.get("knowledge.lookups").tag("outcome", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("knowledge.lookups").tag("outcome", "miss").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Devrait répondre à une requête plus précise depuis une couverture plus large")
+    void shouldAnswerNarrowerQuery_FromBroaderCoverage() {
+        // Given
+        service.record("films de Stanley Kubrick", KUBRICK);
+
+        // When
+        var known = service.resolve("films d'horreur de Stanley Kubrick");
+
+        // Then
+        assertThat(known).get().extracting(MovieList::movies).asList()
+                .extracting("title").containsExactly("The Shining");
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas répondre à une requête plus précise depuis un échantillon par genre")
+    void shouldMiss_WhenBroaderCoverageIsOnlyASample() {
+        // Given : les films d'horreur renvoyés par le modèle ne sont qu'un échantillon
+        service.record("films d'horreur", new MovieList(List.of(
+                new Movie("The Shining", "1980", "Stanley Kubrick", "Horror"),
+                new Movie("Halloween", "1978", "John Carpenter", "Horror"))));
+
+        // When
+        var known = service.resolve("films d'horreur de 1980");
+
+        // Then
+        assertThat(known).isEmpty();
+        assertThat(service.resolve("films d'horreur")).get().extracting(MovieList::movies).asList().hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Devrait garder les autres films et la couverture quand un film entre en conflit")
+    void shouldKeepOtherMovies_WhenOneMovieConflicts() {
+        // Given : « The Shining » inséré entre la lecture et l'écriture par une requête concurrente
+        service.record("films de 1980", new MovieList(List.of(
+                new Movie("The Shining", "1980", "Stanley Kubrick", "Horror"))));
+        MovieRepository racing = mock(MovieRepository.class, delegatesTo(movieRepository));
+        doReturn(Optional.empty()).doAnswer(delegatesTo(movieRepository))
+                .when(racing).findByTitleKeyAndReleaseYearAndDirectorKey(eq(MovieKeys.normalize("The Shining")),
+                        any(), any());
+        service = new MovieKnowledgeService(racing, coverageRepository, properties,
+                new TransactionTemplate(transactionManager), meterRegistry);
+
+        // When
+        service.record("films de Stanley Kubrick", KUBRICK);
+
+        // Then
+        assertThat(movieRepository.count()).isEqualTo(3);
+        assertThat(service.resolve("films de Stanley Kubrick")).get().extracting(MovieList::movies).asList()
+                .hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas dupliquer un film renvoyé plusieurs fois")
+    void shouldDeduplicateMovies() {
+        // Given
+        service.record("films de Stanley Kubrick", KUBRICK);
+
+        // When
+        service.record("films de 1980", new MovieList(List.of(
+                new Movie("The shining", "1980", "Stanley  Kubrick", "Horreur"))));
+
+        // Then
+        assertThat(movieRepository.count()).isEqualTo(3);
+        assertThat(coverageRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Devrait redemander au modèle quand la couverture a expiré")
+    void shouldMiss_WhenCoverageIsStale() {
+        // Given
+        service.record("films de Stanley Kubrick", KUBRICK);
+        QueryCoverage coverage = coverageRepository.findAll().get(0);
+        coverage.setResolvedAt(Instant.now().minus(properties.getTtl()).minus(Duration.ofMinutes(1)));
+        coverageRepository.save(coverage);
+
+        // When
+        var known = service.resolve("films de Stanley Kubrick");
+
+        // Then
+        assertThat(known).isEmpty();
+        assertThat(meterRegistry.get("knowledge.lookups").tag("outcome", "stale").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Ne devrait rien servir pour une requête non reconnue")
+    void shouldSkipUnparsedQuery() {
+        // Given
+        service.record("quel est le meilleur film de Kubrick selon toi ?", KUBRICK);
+
+        // When
+        var known = service.resolve("quel est le meilleur film de Kubrick selon toi ?");
+
+        // Then
+        assertThat(known).isEmpty();
+        assertThat(movieRepository.count()).isEqualTo(3);
+        assertThat(coverageRepository.count()).isZero();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.Test_AI_LLM.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("MovieQueryParser - Tests Unitaires")
+class MovieQueryParserTest {
+
+    private final MovieQueryParser parser = new MovieQueryParser();
+
+    @Test
+    @DisplayName("Devrait reconnaître un réalisateur")
+    void shouldParseDirector() {
+        // When & Then
+        assertThat(parser.parse("films de Stanley Kubrick"))
+                .contains(new MovieQuery("stanley kubrick", null, null));
+        assertThat(parser.parse("movies directed by Ridley Scott"))
+                .contains(new MovieQuery("ridley scott", null, null));
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas prendre un préfixe au milieu d'un mot pour un réalisateur")
+    void shouldIgnoreDirectorPrefix_InsideWord() {
+        // When & Then : « Nobo » + « by », « Pr » + « of », « co » + « de »
+        assertThat(MovieQueryParser.DIRECTOR.matcher("films Nobody Owens").find()).isFalse();
+        assertThat(MovieQueryParser.DIRECTOR.matcher("merci au Prof Tournesol").find()).isFalse();
+        assertThat(MovieQueryParser.DIRECTOR.matcher("films en code Morse").find()).isFalse();
+        assertThat(parser.parse("films Dude Kubrick")).isEmpty();
+        assertThat(parser.parse("films de Nobody Owens"))
+                .contains(new MovieQuery("nobody owens", null, null));
+    }
+
+    @Test
+    @DisplayName("Devrait combiner genre et année")
+    void shouldParseGenreAndYear() {
+        // When & Then
+        assertThat(parser.parse("sci-fi movies from 1982"))
+                .contains(new MovieQuery(null, "science-fiction", "1982"));
+        assertThat(parser.parse("films de 1985"))
+                .contains(new MovieQuery(null, null, "1985"));
+    }
+
+    @Test
+    @DisplayName("Devrait combiner réalisateur et genre")
+    void shouldParseDirectorAndGenre() {
+        // When & Then
+        assertThat(parser.parse("films d'horreur de John Carpenter"))
+                .contains(new MovieQuery("john carpenter", "horreur", null));
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas reconnaître une question ouverte ou une plage d'années")
+    void shouldRejectOpenQuestions() {
+        // When & Then
+        assertThat(parser.parse("quel est le meilleur film de tous les temps ?")).isEmpty();
+        assertThat(parser.parse("films entre 1980 et 1990")).isEmpty();
+        assertThat(parser.parse("comédies et drames")).isEmpty();
+        assertThat(parser.parse("")).isEmpty();
+    }
+}
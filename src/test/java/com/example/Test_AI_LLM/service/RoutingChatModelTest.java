@@ -0,0 +1,157 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.RoutingProperties;
+import com.example.Test_AI_LLM.support.StubOpenAiServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RoutingChatModel - Tests avec deux fournisseurs locaux")
+class RoutingChatModelTest {
+
+    private StubOpenAiServer openai;
+    private StubOpenAiServer ollama;
+    private SimpleMeterRegistry meterRegistry;
+    private RoutingProperties properties;
+    private RoutingChatModel routingChatModel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        openai = new StubOpenAiServer().content("from-openai");
+        ollama = new StubOpenAiServer().content("from-ollama");
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RoutingProperties();
+        properties.setExplorationRate(0);
+
+        routingChatModel = new RoutingChatModel(List.of(
+                new ProviderRoute("openai", chatModel(openai), null, 10, meterRegistry),
+                new ProviderRoute("ollama", chatModel(ollama), "llama3.2", 10, meterRegistry)),
+                properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RoutingContext.clear();
+        openai.close();
+        ollama.close();
+    }
+
+    @Test
+    @DisplayName("Devrait basculer sur le second fournisseur quand le premier échoue")
+    void shouldFailover_WhenFirstProviderFails() {
+        // Given
+        openai.status(500);
+
+        // When
+        ChatResponse response = routingChatModel.call(new Prompt("bonjour"));
+
+        // Then
+        assertThat(response.getResult().getOutput().getText()).isEqualTo("from-ollama");
+        assertThat(meterRegistry.get("routing.decisions").tag("provider", "ollama").tag("reason", "failover")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(routingChatModel.getRoutes().get(0).errorRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Devrait préférer le fournisseur le plus rapide")
+    void shouldPreferFastestProvider() {
+        // Given
+        openai.latency(Duration.ofMillis(150));
+        routingChatModel.call(new Prompt("warm-up 1"));
+        routingChatModel.call(new Prompt("warm-up 2"));
+
+        // When
+        ChatResponse response = routingChatModel.call(new Prompt("bonjour"));
+
+        // Then
+        assertThat(response.getResult().getOutput().getText()).isEqualTo("from-ollama");
+        assertThat(meterRegistry.get("routing.provider.latency").tag("provider", "openai").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Devrait écarter un fournisseur qui échoue vite au profit d'un fournisseur lent mais sain")
+    void shouldAvoidFastFailingProvider() {
+        // Given : OpenAI refuse en quelques millisecondes, Ollama répond en 100 ms
+        openai.status(500);
+        ollama.latency(Duration.ofMillis(100));
+        routingChatModel.call(new Prompt("warm-up"));
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            routingChatModel.call(new Prompt("bonjour " + i));
+        }
+
+        // Then
+        assertThat(openai.requests()).hasSize(1);
+        assertThat(meterRegistry.get("routing.decisions").tag("provider", "ollama").tag("reason", "best")
+                .counter().count()).isEqualTo(4.0);
+        assertThat(routingChatModel.getRoutes().get(0).meanLatencyMillis()).isZero();
+    }
+
+    @Test
+    @DisplayName("Devrait garder une conversation sur le même fournisseur")
+    void shouldStickConversation_ToSameProvider() {
+        // Given
+        openai.status(500);
+        RoutingContext.setConversation("conv-1");
+        routingChatModel.call(new Prompt("premier message"));
+        openai.status(200);
+
+        // When
+        ChatResponse response = routingChatModel.call(new Prompt("second message"));
+
+        // Then
+        assertThat(response.getResult().getOutput().getText()).isEqualTo("from-ollama");
+        assertThat(routingChatModel.stickyConversations()).isEqualTo(1);
+        assertThat(meterRegistry.get("routing.decisions").tag("reason", "sticky").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Devrait remplacer le modèle du prompt par le modèle fixé du fournisseur")
+    void shouldUsePinnedModel_ForSecondaryProvider() {
+        // Given
+        openai.status(500);
+
+        // When
+        routingChatModel.call(new Prompt("bonjour", OpenAiChatOptions.builder().model("gpt-4.1").build()));
+
+        // Then
+        assertThat(ollama.requests()).singleElement().asString().contains("\"model\":\"llama3.2\"");
+    }
+
+    @Test
+    @DisplayName("Devrait propager l'erreur quand tous les fournisseurs échouent")
+    void shouldThrow_WhenAllProvidersFail() {
+        // Given
+        openai.status(500);
+        ollama.status(503);
+
+        // When & Then
+        assertThatThrownBy(() -> routingChatModel.call(new Prompt("bonjour")))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    private static OpenAiChatModel chatModel(StubOpenAiServer server) {
+        return OpenAiChatModel.builder()
+                .openAiApi(OpenAiApi.builder().baseUrl(server.baseUrl()).apiKey("test").build())
+                .defaultOptions(OpenAiChatOptions.builder().model("gpt-4.1").build())
+                .retryTemplate(RetryTemplate.builder().maxAttempts(1).build())
+                .build();
+    }
+}
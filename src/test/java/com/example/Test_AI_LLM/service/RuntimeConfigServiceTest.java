@@ -0,0 +1,133 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.AdminProperties;
+import com.example.Test_AI_LLM.config.BulkheadProperties;
+import com.example.Test_AI_LLM.config.HttpClientProperties;
+import com.example.Test_AI_LLM.config.OpenAiImageProperties;
+import com.example.Test_AI_LLM.config.TieringProperties;
+import com.example.Test_AI_LLM.dto.RuntimeConfigPatch;
+import com.example.Test_AI_LLM.support.StubOpenAiServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiChatProperties;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RuntimeConfigService - Tests avec un fournisseur local")
+class RuntimeConfigServiceTest {
+
+    private StubOpenAiServer server;
+    private BulkheadProperties bulkheadProperties;
+    private OpenAiChatProperties chatProperties;
+    private Bulkheads bulkheads;
+    private RuntimeConfigService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubOpenAiServer().content("ok");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        bulkheadProperties = new BulkheadProperties();
+        HttpClientProperties httpProperties = new HttpClientProperties();
+        bulkheads = new Bulkheads(
+                new Bulkhead("text", bulkheadProperties.getText(), httpProperties, meterRegistry),
+                new Bulkhead("vision", bulkheadProperties.getVision(), httpProperties, meterRegistry),
+                new Bulkhead("image", bulkheadProperties.getImage(), httpProperties, meterRegistry));
+        chatProperties = new OpenAiChatProperties();
+        chatProperties.getOptions().setModel("gpt-4.1");
+        service = new RuntimeConfigService(bulkheadProperties, httpProperties, bulkheads, new TieringProperties(),
+                chatProperties, new OpenAiImageProperties(), new AdminProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkheads.text().close();
+        bulkheads.vision().close();
+        bulkheads.image().close();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Devrait remplacer le pool sans couper la requête en cours")
+    void shouldSwapPool_WithoutDroppingInFlightRequest() throws Exception {
+        // Given : une requête lente déjà partie sur le pool texte
+        server.latency(Duration.ofMillis(400));
+        RestClient restClient = RestClient.builder()
+                .baseUrl(server.baseUrl())
+                .requestFactory(bulkheads.text().requestFactory())
+                .build();
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(() -> restClient.post()
+                .uri("/v1/chat/completions").body("{}").retrieve().body(String.class));
+        Thread.sleep(100);
+
+        // When
+        service.apply(new RuntimeConfigPatch(
+                Map.of("text", new RuntimeConfigPatch.Pool(null, null, 5, 7, Duration.ofSeconds(3))),
+                new RuntimeConfigPatch.Http(null, Duration.ofSeconds(2), null, null, null, null, null, null, null),
+                null), "ops");
+
+        // Then
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).contains("\"content\":\"ok\"");
+        assertThat(restClient.post().uri("/v1/chat/completions").body("{}").retrieve().body(String.class))
+                .contains("\"content\":\"ok\"");
+        assertThat(bulkheadProperties.getText().getMaxConnections()).isEqualTo(5);
+        assertThat(service.audit()).extracting(RuntimeConfigService.AuditEntry::key).contains(
+                "bulkhead.text.max-connections", "bulkhead.text.pending-acquire-max-count",
+                "http.client.connect-timeout");
+        assertThat(service.audit()).allSatisfy(entry -> assertThat(entry.actor()).isEqualTo("ops"));
+    }
+
+    @Test
+    @DisplayName("Devrait appliquer le nouveau modèle aux appels suivants")
+    void shouldUseNewModel_ForNextCalls() {
+        // Given
+        OpenAiChatModel chatModel = OpenAiChatModel.builder()
+                .openAiApi(OpenAiApi.builder().baseUrl(server.baseUrl()).apiKey("test").build())
+                .defaultOptions(chatProperties.getOptions())
+                .retryTemplate(RetryTemplate.builder().maxAttempts(1).build())
+                .build();
+
+        // When
+        Map<String, Object> effective = service.apply(new RuntimeConfigPatch(null, null,
+                new RuntimeConfigPatch.Models("gpt-4.1-nano", null, null, null)), "ops");
+        chatModel.call(new Prompt("bonjour"));
+
+        // Then
+        assertThat(server.requests()).singleElement().asString().contains("\"model\":\"gpt-4.1-nano\"");
+        assertThat(effective).extractingByKey("models").asInstanceOf(InstanceOfAssertFactories.MAP)
+                .containsEntry("chat", "gpt-4.1-nano");
+        assertThat(service.audit()).singleElement().satisfies(entry -> {
+            assertThat(entry.previous()).isEqualTo("gpt-4.1");
+            assertThat(entry.value()).isEqualTo("gpt-4.1-nano");
+        });
+    }
+
+    @Test
+    @DisplayName("Devrait refuser un changement invalide sans rien appliquer")
+    void shouldRejectInvalidChange_Atomically() {
+        // Given : max-threads inférieur au nombre de threads de base
+        RuntimeConfigPatch patch = new RuntimeConfigPatch(
+                Map.of("vision", new RuntimeConfigPatch.Pool(null, 1, null, null, null)), null,
+                new RuntimeConfigPatch.Models("gpt-4.1-nano", null, null, null));
+
+        // When & Then
+        assertThatThrownBy(() -> service.apply(patch, "ops"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(chatProperties.getOptions().getModel()).isEqualTo("gpt-4.1");
+        assertThat(service.audit()).isEmpty();
+    }
+}
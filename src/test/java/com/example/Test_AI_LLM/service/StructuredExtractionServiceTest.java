@@ -0,0 +1,172 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.advisor.StablePrefixAdvisor;
+import com.example.Test_AI_LLM.config.ExtractionProperties;
+import com.example.Test_AI_LLM.exception.StructuredOutputException;
+import com.example.Test_AI_LLM.outputs.CarteVitale;
+import com.example.Test_AI_LLM.outputs.MovieList;
+import com.example.Test_AI_LLM.support.StubOpenAiServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("StructuredExtractionService - Tests Unitaires")
+class StructuredExtractionServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExtractionProperties properties;
+    private StructuredExtractionService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ExtractionProperties();
+        service = new StructuredExtractionService(MAPPER,
+                Validation.buildDefaultValidatorFactory().getValidator(), meterRegistry, properties);
+    }
+
+    @Test
+    @DisplayName("Devrait réutiliser le schéma et les instructions calculés une fois par type")
+    void shouldReuseSpec_ForSameType() {
+        // When
+        ExtractionSpec<MovieList> first = service.spec(MovieList.class);
+        ExtractionSpec<MovieList> second = service.spec(MovieList.class);
+
+        // Then
+        assertThat(first).isSameAs(second);
+        assertThat(first.jsonSchema()).contains("\"movies\"");
+        assertThat(service.instructions(MovieList.class)).contains(first.jsonSchema());
+    }
+
+    @Test
+    @DisplayName("Devrait produire un schéma compatible avec le mode strict")
+    void shouldBuildStrictCompatibleSchema() {
+        // When
+        Map<String, Object> schema = service.spec(CarteVitale.class).responseFormat().getJsonSchema().getSchema();
+
+        // Then
+        assertThat(schema).containsEntry("additionalProperties", false);
+        assertThat(schema.get("required")).asList().hasSize(CarteVitale.class.getRecordComponents().length);
+    }
+
+    @Test
+    @DisplayName("Devrait parser une réponse JSON propre")
+    void shouldParse_CleanJson() {
+        // When
+        MovieList movies = service.parse("{\"movies\":[{\"title\":\"Brazil\",\"year\":\"1985\"}]}", MovieList.class);
+
+        // Then
+        assertThat(movies.movies()).singleElement().extracting("title").isEqualTo("Brazil");
+        assertThat(meterRegistry.find("extraction.repairs").counter()).isNull();
+        assertThat(meterRegistry.get("extraction.parse.duration")
+                .tags("type", "MovieList", "outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Devrait réparer balises de code, texte final et virgule finale")
+    void shouldRepair_CodeFencesTrailingTextAndCommas() {
+        // Given
+        String text = """
+                Voici les films :
+                ```json
+                {"movies":[{"title":"Ran","year":"1985"},]}
+                ```
+                Bon visionnage !""";
+
+        // When
+        MovieList movies = service.parse(text, MovieList.class);
+
+        // Then
+        assertThat(movies.movies()).singleElement().extracting("title").isEqualTo("Ran");
+        assertThat(meterRegistry.get("extraction.repairs").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Devrait rejeter un résultat qui ne respecte pas les contraintes")
+    void shouldReject_InvalidResult() {
+        // When & Then
+        assertThatThrownBy(() -> service.parse("{\"movies\":[{\"title\":\" \"}]}", MovieList.class))
+                .isInstanceOf(StructuredOutputException.class)
+                .hasMessageContaining("movies[0].title");
+        assertThat(meterRegistry.get("extraction.failures").tag("reason", "validation").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Devrait rejeter une réponse tronquée")
+    void shouldReject_TruncatedResponse() {
+        // When & Then
+        assertThatThrownBy(() -> service.parse("{\"movies\":[{\"title\":\"Ran\"", MovieList.class))
+                .isInstanceOf(StructuredOutputException.class);
+        assertThat(meterRegistry.get("extraction.parse.duration")
+                .tags("type", "MovieList", "outcome", "failure").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Devrait ajouter les instructions de format au message système par défaut")
+    void shouldSendFormatInstructions_ByDefault() throws Exception {
+        try (StubOpenAiServer server = new StubOpenAiServer().content("{\"movies\":[]}")) {
+            // When
+            service.call(chatClient(server).prompt().system("Expert cinéma").user("films de 1985"), MovieList.class);
+
+            // Then
+            JsonNode request = MAPPER.readTree(server.requests().get(0));
+            assertThat(request.has("response_format")).isFalse();
+            assertThat(request.path("messages").path(0).path("content").asText())
+                    .startsWith("Expert cinéma")
+                    .contains(service.instructions(MovieList.class));
+        }
+    }
+
+    @Test
+    @DisplayName("Devrait envoyer le schéma strict dans response_format en mode strict")
+    void shouldSendStrictResponseFormat_WhenStrictSchemaEnabled() throws Exception {
+        // Given
+        properties.setStrictSchema(true);
+
+        try (StubOpenAiServer server = new StubOpenAiServer()
+                .content("{\"movies\":[{\"title\":\"Brazil\",\"year\":\"1985\",\"director\":\"Terry Gilliam\",\"genre\":\"SF\"}]}")) {
+            // When
+            MovieList movies = service.call(chatClient(server).prompt().system("Expert cinéma").user("films de 1985"),
+                    MovieList.class);
+
+            // Then
+            JsonNode request = MAPPER.readTree(server.requests().get(0));
+            JsonNode format = request.path("response_format");
+            assertThat(format.path("type").asText()).isEqualTo("json_schema");
+            assertThat(format.path("json_schema").path("name").asText()).isEqualTo("MovieList");
+            assertThat(format.path("json_schema").path("strict").asBoolean()).isTrue();
+            assertThat(format.path("json_schema").path("schema").path("properties").has("movies")).isTrue();
+            assertThat(request.path("model").asText()).isEqualTo("gpt-4.1");
+            assertThat(request.path("messages").path(0).path("content").asText()).isEqualTo("Expert cinéma");
+            assertThat(movies.movies()).singleElement().extracting("title").isEqualTo("Brazil");
+        }
+    }
+
+    private ChatClient chatClient(StubOpenAiServer server) {
+        OpenAiChatModel chatModel = OpenAiChatModel.builder()
+                .openAiApi(OpenAiApi.builder().baseUrl(server.baseUrl()).apiKey("test").build())
+                .defaultOptions(OpenAiChatOptions.builder().model("gpt-4.1").build())
+                .retryTemplate(RetryTemplate.builder().maxAttempts(1).build())
+                .build();
+        return ChatClient.builder(chatModel)
+                .defaultAdvisors(new StablePrefixAdvisor(meterRegistry))
+                .build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.Test_AI_LLM.service;
+
+import com.example.Test_AI_LLM.config.VisionCacheProperties;
+import com.example.Test_AI_LLM.outputs.CarteVitale;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("VisionResultCache - Tests Unitaires")
+class VisionResultCacheTest {
+
+    private static final String MODEL = "gpt-4.1";
+    private static final String IMAGE = VisionResultCache.hash("image".getBytes(StandardCharsets.UTF_8));
+
+    @TempDir
+    private Path directory;
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private VisionCacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new VisionCacheProperties();
+        properties.setDirectory(directory);
+    }
+
+    @Test
+    @DisplayName("Ne devrait payer qu'une fois la même image et la même question")
+    void shouldServeRepeatQuestion_FromMemory() {
+        // Given
+        VisionResultCache cache = cache();
+        cache.get(IMAGE, MODEL, "système", "Que dit le texte ?", String.class, answer("réponse")).join();
+
+        // When
+        String cached = cache.get(IMAGE, MODEL, "système", "  que dit  le texte ? ", String.class, answer("autre"))
+                .join();
+
+        // Then
+        assertThat(cached).isEqualTo("réponse");
+        assertThat(calls).hasValue(1);
+        assertThat(meterRegistry.get("vision.cache.lookups").tag("outcome", "memory").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Devrait relire le niveau disque après un redémarrage")
+    void shouldServeFromDisk_AfterRestart() {
+        // Given
+        CarteVitale carte = new CarteVitale("vert", "carte vitale", null, "oui", null,
+                "2020", "1 85 05 78 006 084 36", "DUPONT", null, null, null);
+        cache().get(IMAGE, MODEL, "système", "Décrire", CarteVitale.class,
+                () -> CompletableFuture.completedFuture(carte)).join();
+
+        // When
+        CarteVitale cached = cache().get(IMAGE, MODEL, "système", "Décrire", CarteVitale.class, answer(null)).join();
+
+        // Then
+        assertThat(cached).isEqualTo(carte);
+        assertThat(meterRegistry.get("vision.cache.lookups").tag("outcome", "disk").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Devrait distinguer une autre image, une autre question ou un autre modèle")
+    void shouldMiss_ForOtherImageOrQuestion() {
+        // Given
+        VisionResultCache cache = cache();
+        cache.get(IMAGE, MODEL, "système", "question", String.class, answer("a")).join();
+
+        // When
+        cache.get(VisionResultCache.hash(new byte[]{1}), MODEL, "système", "question", String.class, answer("b")).join();
+        cache.get(IMAGE, MODEL, "système", "autre question", String.class, answer("c")).join();
+        cache.get(IMAGE, "gpt-4.1-mini", "système", "question", String.class, answer("d")).join();
+
+        // Then
+        assertThat(calls).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Devrait partager un seul appel entre requêtes identiques simultanées")
+    void shouldCoalesceConcurrentIdenticalCalls() {
+        // Given
+        VisionResultCache cache = cache();
+        CompletableFuture<String> model = new CompletableFuture<>();
+        Supplier<CompletableFuture<String>> loader = () -> {
+            calls.incrementAndGet();
+            return model;
+        };
+
+        // When
+        CompletableFuture<String> first = cache.get(IMAGE, MODEL, "système", "question", String.class, loader);
+        CompletableFuture<String> second = cache.get(IMAGE, MODEL, "système", "question", String.class, loader);
+        model.complete("réponse");
+
+        // Then
+        assertThat(first.join()).isEqualTo("réponse");
+        assertThat(second.join()).isEqualTo("réponse");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Ne devrait pas mettre en cache un échec")
+    void shouldNotCacheFailures() {
+        // Given
+        VisionResultCache cache = cache();
+        CompletableFuture<String> failure = cache.get(IMAGE, MODEL, "système", "question", String.class,
+                () -> CompletableFuture.failedFuture(new IllegalStateException("timeout")));
+
+        // When
+        String retried = cache.get(IMAGE, MODEL, "système", "question", String.class, answer("réponse")).join();
+
+        // Then
+        assertThatThrownBy(failure::join).isInstanceOf(CompletionException.class)
+                .hasRootCauseMessage("timeout");
+        assertThat(retried).isEqualTo("réponse");
+    }
+
+    @Test
+    @DisplayName("Devrait borner le niveau mémoire en évinçant l'entrée la moins récente")
+    void shouldBoundMemoryTier() {
+        // Given
+        properties.setMaxEntries(2);
+        VisionResultCache cache = cache();
+
+        // When
+        for (String question : new String[]{"q1", "q2", "q3"}) {
+            cache.get(IMAGE, MODEL, "système", question, String.class, answer(question)).join();
+        }
+
+        // Then
+        assertThat(meterRegistry.get("vision.cache.memory.size").gauge().value()).isEqualTo(2.0);
+    }
+
+    private VisionResultCache cache() {
+        return new VisionResultCache(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    private <T> Supplier<CompletableFuture<T>> answer(T value) {
+        return () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(value);
+        };
+    }
+}
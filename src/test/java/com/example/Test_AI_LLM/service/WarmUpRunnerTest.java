@@ -0,0 +1,56 @@
+package com.example.Test_AI_LLM.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("WarmUpRunner - Tests Unitaires")
+class WarmUpRunnerTest {
+
+    @Test
+    @DisplayName("Devrait séparer la première itération du p99 des suivantes")
+    void shouldReportColdLatency_AndWarmP99() {
+        // Given : 1 itération à froid (500 ms) puis 100 itérations de 1 à 100 ms
+        List<Long> nanos = LongStream.concat(LongStream.of(500),
+                        LongStream.rangeClosed(1, 100))
+                .map(millis -> millis * 1_000_000)
+                .boxed()
+                .toList();
+
+        // When
+        WarmUpRunner.WarmUpReport report = WarmUpRunner.WarmUpReport.of(nanos);
+
+        // Then
+        assertThat(report.iterations()).isEqualTo(101);
+        assertThat(report.coldMillis()).isEqualTo(500.0);
+        assertThat(report.warmP99Millis()).isEqualTo(99.0);
+    }
+
+    @Test
+    @DisplayName("Devrait retirer les métriques créées pendant la chauffe, et garder les autres")
+    void shouldRemoveMetersCreated_DuringWarmUp() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.counter("bulkhead.rejected").increment();
+
+        // When
+        String result = WarmUpRunner.withoutMeters(registry, () -> {
+            registry.timer("llm.call.duration", "endpoint", "warmup").record(Duration.ofMillis(5));
+            registry.counter("tiering.cost", "tier", "small").increment(0.01);
+            registry.counter("bulkhead.rejected").increment();
+            return "ok";
+        });
+
+        // Then
+        assertThat(result).isEqualTo("ok");
+        assertThat(registry.getMeters()).extracting(meter -> meter.getId().getName())
+                .containsExactly("bulkhead.rejected");
+        assertThat(registry.counter("tiering.cost", "tier", "small").count()).isZero();
+    }
+}
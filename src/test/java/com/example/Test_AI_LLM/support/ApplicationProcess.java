@@ -0,0 +1,156 @@
+package com.example.Test_AI_LLM.support;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lance l'application empaquetée (jar ou exécutable natif) dans un processus séparé contre
+ * un fournisseur local, et mesure le temps jusqu'à {@code readiness}, le temps jusqu'à la première
+ * réponse réussie et la mémoire résidente (RSS, Linux).
+ */
+public class ApplicationProcess implements AutoCloseable {
+
+    private final Process process;
+    private final int port;
+    private final long startNanos;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private ApplicationProcess(List<String> command, Path directory, String providerUrl, Path log)
+            throws IOException {
+        this.port = freePort();
+        List<String> full = new ArrayList<>(command);
+        full.addAll(List.of("--server.port=" + port, "--spring.ai.openai.base-url=" + providerUrl));
+        ProcessBuilder builder = new ProcessBuilder(full).redirectErrorStream(true).redirectOutput(log.toFile())
+                .directory(directory.toFile());
+        builder.environment().putIfAbsent("OPENAI_API_KEY", "test");
+        this.startNanos = System.nanoTime();
+        this.process = builder.start();
+    }
+
+    public static ApplicationProcess start(List<String> command, String providerUrl, Path log) throws IOException {
+        return start(command, Path.of("."), providerUrl, log);
+    }
+
+    public static ApplicationProcess start(List<String> command, Path directory, String providerUrl, Path log)
+            throws IOException {
+        return new ApplicationProcess(command, directory, providerUrl, log);
+    }
+
+    /**
+     * Commande JVM pour le jar de l'application, avec la même JVM que les tests.
+     */
+    public static List<String> java(Path jar, String... jvmOptions) {
+        List<String> command = new ArrayList<>();
+        command.add(javaCommand());
+        command.addAll(List.of(jvmOptions));
+        command.addAll(List.of("-jar", jar.toString()));
+        return command;
+    }
+
+    public static String javaCommand() {
+        return ProcessHandle.current().info().command().orElse("java");
+    }
+
+    /**
+     * Jar exécutable produit par {@code mvn package} dans {@code target}, s'il existe.
+     */
+    public static Path packagedJar() throws IOException {
+        Path target = Path.of("target");
+        if (!Files.isDirectory(target)) {
+            return null;
+        }
+        try (var files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().matches("Test-AI-LLM-.*\\.jar"))
+                    .findFirst().orElse(null);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    public Duration awaitReady(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            }
+            if (status("/actuator/health/readiness") == 200) {
+                return Duration.ofNanos(System.nanoTime() - startNanos);
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("Application not ready after " + timeout);
+    }
+
+    public Duration awaitFirstResponse(String path, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (status(path) == 200) {
+                return Duration.ofNanos(System.nanoTime() - startNanos);
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("No successful response on " + path + " after " + timeout);
+    }
+
+    /**
+     * Mémoire résidente du processus en kilo-octets ({@code VmRSS}), 0 hors Linux.
+     */
+    public long rssKb() throws IOException {
+        Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst().orElse(0L);
+    }
+
+    private int status(String path) throws InterruptedException {
+        try {
+            return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                            .timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Arrêt propre (SIGTERM) : la JVM exécute ses hooks d'arrêt, et écrit son cache de démarrage
+     * lorsqu'elle a été lancée pour l'entraînement. Renvoie le code de sortie.
+     */
+    public int stop(Duration timeout) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+        return process.exitValue();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        if (process.isAlive()) {
+            stop(Duration.ofSeconds(10));
+        }
+        client.close();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.Test_AI_LLM.support;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de démarrage de la JVM pour le jar extrait : cache AOT (JEP 483/514) à partir du JDK 25,
+ * archive CDS dynamique avant. Le cache ne vaut que pour le JDK qui l'a produit et pour le même
+ * classpath, d'où l'extraction du jar : les jars imbriqués d'un jar Spring Boot ne sont pas archivables.
+ * Les commandes s'exécutent depuis {@link #DIRECTORY}, comme en production.
+ */
+public final class JvmCache {
+
+    /** Répertoire livrable : jar extrait, {@code lib/} et le cache. */
+    public static final Path DIRECTORY = Path.of("target", "jvm-cache");
+
+    private static final boolean AOT_CACHE = Runtime.version().feature() >= 25;
+
+    private static final String FILE = AOT_CACHE ? "app.aot" : "app.jsa";
+
+    private JvmCache() {
+    }
+
+    public static Path file() {
+        return DIRECTORY.resolve(FILE);
+    }
+
+    /**
+     * Options de l'exécution d'entraînement : le cache est écrit à l'arrêt de la JVM.
+     */
+    public static String[] trainingOptions() {
+        return new String[] {(AOT_CACHE ? "-XX:AOTCacheOutput=" : "-XX:ArchiveClassesAtExit=") + FILE};
+    }
+
+    /**
+     * Options de production ; sans cache (ou avec un cache d'un autre JDK), la JVM démarre sans.
+     */
+    public static String[] runtimeOptions() {
+        return new String[] {(AOT_CACHE ? "-XX:AOTCache=" : "-XX:SharedArchiveFile=") + FILE};
+    }
+
+    /**
+     * Extrait le jar Spring Boot dans {@link #DIRECTORY} ({@code -Djarmode=tools extract})
+     * et renvoie le nom du jar d'application extrait, relatif à ce répertoire.
+     */
+    public static Path extract(Path jar) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(ApplicationProcess.javaCommand(), "-Djarmode=tools", "-jar",
+                jar.toString(), "extract", "--force", "--destination", DIRECTORY.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (!process.waitFor(2, TimeUnit.MINUTES) || process.exitValue() != 0) {
+            throw new IllegalStateException("Extraction of " + jar + " failed");
+        }
+        return jar.getFileName();
+    }
+
+    public static boolean exists() {
+        return Files.exists(file());
+    }
+}
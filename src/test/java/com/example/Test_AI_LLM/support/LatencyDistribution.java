@@ -0,0 +1,34 @@
+package com.example.Test_AI_LLM.support;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Latence simulée par {@link StubOpenAiServer}, tirée à chaque requête.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    // quantile 0,99 de la loi normale centrée réduite
+    double Z_99 = 2.3263478740408408;
+
+    Duration sample(RandomGenerator random);
+
+    static LatencyDistribution fixed(Duration latency) {
+        return random -> latency;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        return random -> Duration.ofNanos(random.nextLong(min.toNanos(), max.toNanos() + 1));
+    }
+
+    /**
+     * Log-normale donnée par sa médiane et son 99e centile : la queue longue des API de LLM,
+     * où quelques appels durent plusieurs fois la médiane.
+     */
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        double mu = Math.log(median.toNanos());
+        double sigma = (Math.log(p99.toNanos()) - mu) / Z_99;
+        return random -> Duration.ofNanos((long) Math.exp(mu + sigma * random.nextGaussian()));
+    }
+}
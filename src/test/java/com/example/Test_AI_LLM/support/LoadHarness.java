@@ -0,0 +1,176 @@
+package com.example.Test_AI_LLM.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Charge en boucle ouverte sur l'application : chaque scénario envoie ses requêtes à cadence fixe,
+ * que les réponses précédentes soient arrivées ou non, chacune sur un thread virtuel. Les latences
+ * partent de l'instant de départ prévu, pour qu'un serveur saturé ne ralentisse pas la mesure
+ * (pas d'omission coordonnée). Le premier octet reçu donne le délai de premier fragment des flux.
+ */
+public final class LoadHarness implements AutoCloseable {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final Duration timeout;
+
+    public LoadHarness(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * @param request construit la i-ème requête du scénario (paramètres variés, corps multipart...)
+     */
+    public record Scenario(String name, double ratePerSecond, IntFunction<HttpRequest.Builder> request) {
+    }
+
+    /**
+     * @param status 0 si la requête a échoué sans réponse (connexion, délai dépassé)
+     * @param firstByteNanos -1 sans réponse
+     */
+    public record Sample(int status, long latencyNanos, long firstByteNanos) {
+
+        boolean success() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    /**
+     * Lance tous les scénarios en parallèle pendant {@code duration} et attend les dernières réponses.
+     */
+    public List<Report> run(List<Scenario> scenarios, Duration duration) throws InterruptedException {
+        List<Queue<Sample>> samples = new ArrayList<>();
+        scenarios.forEach(scenario -> samples.add(new ConcurrentLinkedQueue<>()));
+        long start = System.nanoTime();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Thread> pacers = new ArrayList<>();
+            for (int i = 0; i < scenarios.size(); i++) {
+                Scenario scenario = scenarios.get(i);
+                Queue<Sample> results = samples.get(i);
+                pacers.add(Thread.ofVirtual().name("load-" + scenario.name()).start(() ->
+                        pace(scenario, start, duration, requests, results)));
+            }
+            for (Thread pacer : pacers) {
+                pacer.join();
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        List<Report> reports = new ArrayList<>();
+        for (int i = 0; i < scenarios.size(); i++) {
+            reports.add(new Report(scenarios.get(i).name(), elapsed, List.copyOf(samples.get(i))));
+        }
+        return reports;
+    }
+
+    private void pace(Scenario scenario, long start, Duration duration, ExecutorService requests, Queue<Sample> results) {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / scenario.ratePerSecond());
+        long count = duration.toNanos() / interval;
+        for (int i = 0; i < count; i++) {
+            long planned = start + i * interval;
+            for (long wait = planned - System.nanoTime(); wait > 0; wait = planned - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            HttpRequest request = scenario.request().apply(i).timeout(timeout).build();
+            requests.submit(() -> results.add(send(request, planned)));
+        }
+    }
+
+    private Sample send(HttpRequest request, long planned) {
+        try {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            long firstByte;
+            try (InputStream body = response.body()) {
+                body.read();
+                firstByte = System.nanoTime() - planned;
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            return new Sample(response.statusCode(), System.nanoTime() - planned, firstByte);
+        } catch (IOException e) {
+            return new Sample(0, System.nanoTime() - planned, -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Sample(0, System.nanoTime() - planned, -1);
+        }
+    }
+
+    /**
+     * Résultats d'un scénario : débit des réponses en succès, percentiles de latence sur
+     * toutes les requêtes (échecs compris), répartition des statuts.
+     */
+    public record Report(String name, Duration elapsed, List<Sample> samples) {
+
+        public long successes() {
+            return samples.stream().filter(Sample::success).count();
+        }
+
+        public double throughput() {
+            return successes() / (elapsed.toNanos() / 1e9);
+        }
+
+        public Duration latency(double percentile) {
+            return percentile(samples.stream().mapToLong(Sample::latencyNanos).toArray(), percentile);
+        }
+
+        public Duration firstByte(double percentile) {
+            return percentile(samples.stream().mapToLong(Sample::firstByteNanos).filter(n -> n >= 0).toArray(),
+                    percentile);
+        }
+
+        public Map<Integer, Long> statuses() {
+            return samples.stream().collect(Collectors.groupingBy(Sample::status, TreeMap::new, Collectors.counting()));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-30s %5d req %7.1f ok/s  p50 %5d  p90 %5d  p99 %5d  max %5d ms  "
+                            + "1er octet p50 %5d  p99 %5d ms  %s",
+                    name, samples.size(), throughput(),
+                    latency(0.50).toMillis(), latency(0.90).toMillis(), latency(0.99).toMillis(),
+                    latency(1.0).toMillis(), firstByte(0.50).toMillis(), firstByte(0.99).toMillis(),
+                    statuses());
+        }
+
+        // rang le plus proche : la plus petite valeur qui couvre la proportion demandée
+        private static Duration percentile(long[] values, double percentile) {
+            if (values.length == 0) {
+                return Duration.ZERO;
+            }
+            Arrays.sort(values);
+            int rank = (int) Math.ceil(percentile * values.length);
+            return Duration.ofNanos(values[Math.max(rank, 1) - 1]);
+        }
+    }
+
+    /**
+     * Tableau des rapports, un scénario par ligne.
+     */
+    public static String format(List<Report> reports) {
+        return reports.stream().map(Report::toString).collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    @Override
+    public void close() {
+        client.shutdownNow();
+    }
+}
@@ -0,0 +1,335 @@
+package com.example.Test_AI_LLM.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Enregistrement et rejeu des échanges avec le fournisseur, à la frontière HTTP : l'application
+ * pointe sur {@link #baseUrl()} au lieu du fournisseur.
+ * <ul>
+ *     <li>{@link #record} relaie chaque requête au fournisseur réel et écrit l'échange dans la cassette
+ *     pendant qu'il se déroule ; un flux SSE est découpé en événements, chacun avec son délai ;</li>
+ *     <li>{@link #replay} sert la cassette sans réseau, au rythme enregistré ou accéléré.</li>
+ * </ul>
+ * La cassette est un fichier JSON Lines, un échange par ligne. Les requêtes n'y figurent que par
+ * l'empreinte SHA-256 de leur corps (ni prompt, ni image, ni clé d'API) ; au rejeu, une requête est
+ * servie par l'échange de même empreinte, et une requête modifiée (prompt, options, forme du corps)
+ * est rejetée en 501 : une régression ne passe pas inaperçue. {@link #pathFallback()} sert à la place
+ * le suivant sur le même chemin, en boucle, et le journalise.
+ */
+@Slf4j
+public final class ProviderTapeServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // en-têtes gérés par le client HTTP, jamais recopiés vers le fournisseur
+    private static final Set<String> HOP_BY_HOP = Set.of("host", "content-length", "connection", "expect",
+            "upgrade", "transfer-encoding", "keep-alive", "accept-encoding");
+
+    /**
+     * Un échange : requête identifiée par méthode, chemin et empreinte du corps ; réponse en fragments.
+     */
+    public record Interaction(String method, String path, String request, int status, String contentType,
+                              List<Chunk> chunks) {
+    }
+
+    /**
+     * Fragment de réponse : événement SSE entier, ou corps complet ; délai depuis le fragment
+     * précédent, ou depuis l'envoi de la requête pour le premier.
+     */
+    public record Chunk(long delayMs, String data) {
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    // enregistrement
+    private final URI target;
+    private final HttpClient client;
+    private final Writer tape;
+
+    // rejeu
+    private final Map<String, List<Interaction>> byRequest = new LinkedHashMap<>();
+    private final Map<String, List<Interaction>> byPath = new LinkedHashMap<>();
+    private final Map<String, AtomicInteger> served = new ConcurrentHashMap<>();
+    private final double speed;
+    private volatile boolean pathFallback;
+
+    private ProviderTapeServer(URI target, Writer tape, List<Interaction> interactions, double speed)
+            throws IOException {
+        this.target = target;
+        this.tape = tape;
+        this.speed = speed;
+        this.client = target != null ? HttpClient.newHttpClient() : null;
+        for (Interaction interaction : interactions) {
+            byRequest.computeIfAbsent(key(interaction.method(), interaction.path(), interaction.request()),
+                    k -> new ArrayList<>()).add(interaction);
+            byPath.computeIfAbsent(key(interaction.method(), interaction.path(), null),
+                    k -> new ArrayList<>()).add(interaction);
+        }
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", target != null ? this::record : this::replay);
+        server.start();
+    }
+
+    /**
+     * Relaie vers {@code target} (par exemple {@code https://api.openai.com}) et enregistre dans
+     * {@code tape}, écrasé.
+     */
+    public static ProviderTapeServer record(URI target, Path tape) throws IOException {
+        Files.createDirectories(tape.toAbsolutePath().getParent());
+        return new ProviderTapeServer(target, Files.newBufferedWriter(tape, StandardCharsets.UTF_8), List.of(), 1.0);
+    }
+
+    /**
+     * Rejoue {@code tape} ; {@code speed} divise les délais enregistrés (1 : rythme d'origine,
+     * {@link Double#POSITIVE_INFINITY} : sans attente).
+     */
+    public static ProviderTapeServer replay(Path tape, double speed) throws IOException {
+        return new ProviderTapeServer(null, null, read(tape), speed);
+    }
+
+    /**
+     * Cassette d'un test : enregistrée contre {@code -Dtape.record=https://api.openai.com} (la clé
+     * d'API est celle que l'application envoie), rejouée sinon à la vitesse {@code -Dtape.speed},
+     * sans attente par défaut, et avec {@link #pathFallback()} si {@code -Dtape.path-fallback=true}.
+     */
+    public static ProviderTapeServer fromSystemProperties(Path tape) throws IOException {
+        String target = System.getProperty("tape.record");
+        if (target != null) {
+            return record(URI.create(target), tape);
+        }
+        ProviderTapeServer replay = replay(tape, Double.parseDouble(System.getProperty("tape.speed", "Infinity")));
+        return Boolean.getBoolean("tape.path-fallback") ? replay.pathFallback() : replay;
+    }
+
+    /**
+     * Requêtes sans empreinte enregistrée servies par le suivant sur le même chemin (charge avec
+     * prompts variés, mémoire de conversation) au lieu d'être rejetées.
+     */
+    public ProviderTapeServer pathFallback() {
+        this.pathFallback = true;
+        return this;
+    }
+
+    public static List<Interaction> read(Path tape) throws IOException {
+        List<Interaction> interactions = new ArrayList<>();
+        for (String line : Files.readAllLines(tape, StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                interactions.add(MAPPER.readValue(line, Interaction.class));
+            }
+        }
+        return interactions;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void record(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        String path = exchange.getRequestURI().toString();
+        HttpRequest.Builder forward = HttpRequest.newBuilder(target.resolve(path))
+                .method(exchange.getRequestMethod(), HttpRequest.BodyPublishers.ofByteArray(body));
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP.contains(name.toLowerCase())) {
+                values.forEach(value -> forward.header(name, value));
+            }
+        });
+
+        long last = System.nanoTime();
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(forward.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(502, -1);
+            exchange.close();
+            return;
+        }
+        String contentType = response.headers().firstValue("Content-Type").orElse("application/json");
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        List<Chunk> chunks = new ArrayList<>();
+
+        try (InputStream in = response.body()) {
+            if (contentType.startsWith("text/event-stream")) {
+                exchange.sendResponseHeaders(response.statusCode(), 0);
+                try (OutputStream out = exchange.getResponseBody();
+                     BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                    StringBuilder event = new StringBuilder();
+                    for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                        if (!line.isEmpty()) {
+                            event.append(event.isEmpty() ? "" : "\n").append(line);
+                            continue;
+                        }
+                        if (!event.isEmpty()) {
+                            long now = System.nanoTime();
+                            chunks.add(new Chunk(Duration.ofNanos(now - last).toMillis(), event.toString()));
+                            last = now;
+                            write(out, event + "\n\n");
+                            event.setLength(0);
+                        }
+                    }
+                }
+            } else {
+                byte[] content = in.readAllBytes();
+                chunks.add(new Chunk(Duration.ofNanos(System.nanoTime() - last).toMillis(),
+                        new String(content, StandardCharsets.UTF_8)));
+                exchange.sendResponseHeaders(response.statusCode(), content.length == 0 ? -1 : content.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(content);
+                }
+            }
+        }
+        append(new Interaction(exchange.getRequestMethod(), path, sha256(body), response.statusCode(),
+                contentType, chunks));
+    }
+
+    private synchronized void append(Interaction interaction) throws IOException {
+        tape.write(MAPPER.writeValueAsString(interaction));
+        tape.write("\n");
+        tape.flush();
+    }
+
+    private void replay(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().toString();
+        String request = sha256(body);
+        Interaction interaction = next(key(method, path, request));
+        if (interaction == null && pathFallback) {
+            interaction = next(key(method, path, null));
+            if (interaction != null) {
+                log.warn("No recording for {} {} with request {}, serving the next one on the same path",
+                        method, path, request);
+            }
+        }
+        if (interaction == null) {
+            byte[] error = ("{\"error\":{\"message\":\"no recording for " + method + " " + path
+                    + " with request " + request + "\"}}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(501, error.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(error);
+            }
+            return;
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", interaction.contentType());
+        boolean streaming = interaction.contentType().startsWith("text/event-stream");
+        List<Chunk> chunks = interaction.chunks();
+        if (!streaming) {
+            Chunk chunk = chunks.getFirst();
+            byte[] content = chunk.data().getBytes(StandardCharsets.UTF_8);
+            sleep(chunk.delayMs());
+            exchange.sendResponseHeaders(interaction.status(), content.length == 0 ? -1 : content.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(content);
+            }
+            return;
+        }
+        // en-têtes envoyés au premier fragment, comme le fournisseur
+        sleep(chunks.isEmpty() ? 0 : chunks.getFirst().delayMs());
+        exchange.sendResponseHeaders(interaction.status(), 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int i = 0; i < chunks.size(); i++) {
+                if (i > 0) {
+                    sleep(chunks.get(i).delayMs());
+                }
+                write(out, chunks.get(i).data() + "\n\n");
+            }
+        }
+    }
+
+    // échanges d'une même clé servis dans l'ordre, puis de nouveau depuis le début
+    private Interaction next(String key) {
+        List<Interaction> candidates = key.endsWith(" ") ? byPath.get(key) : byRequest.get(key);
+        if (candidates == null) {
+            return null;
+        }
+        int index = served.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        return candidates.get(index % candidates.size());
+    }
+
+    private static String key(String method, String path, String request) {
+        return method + " " + path + " " + (request != null ? request : "");
+    }
+
+    private void sleep(long delayMs) {
+        if (delayMs <= 0 || Double.isInfinite(speed)) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos((long) (delayMs * 1e6 / speed)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void write(OutputStream out, String data) throws IOException {
+        out.write(data.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        if (tape == null) {
+            executor.shutdownNow();
+        } else {
+            // le client a déjà reçu la fin de la réponse : laisser les échanges en cours s'écrire
+            executor.shutdown();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+                tape.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (client != null) {
+            client.shutdownNow();
+        }
+    }
+}
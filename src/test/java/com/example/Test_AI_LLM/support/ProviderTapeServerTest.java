@@ -0,0 +1,137 @@
+package com.example.Test_AI_LLM.support;
+
+import com.example.Test_AI_LLM.support.ProviderTapeServer.Chunk;
+import com.example.Test_AI_LLM.support.ProviderTapeServer.Interaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ProviderTapeServer - Tests Unitaires")
+class ProviderTapeServerTest {
+
+    @TempDir
+    Path work;
+
+    private Path tape;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Given : un flux de 5 fragments, 200 ms avant le premier puis 100 ms entre chacun
+        tape = work.resolve("stream.jsonl");
+        try (StubOpenAiServer stub = new StubOpenAiServer()
+                .content("un deux trois quatre cinq")
+                .latency(Duration.ofMillis(200))
+                .chunkDelay(Duration.ofMillis(100));
+             ProviderTapeServer recorder = ProviderTapeServer.record(URI.create(stub.baseUrl()), tape)) {
+            assertThat(stream(recorder, "bonjour")).isEqualTo("un deux trois quatre cinq");
+        }
+    }
+
+    @Test
+    @DisplayName("Devrait enregistrer chaque événement du flux avec son délai, sans le corps de la requête")
+    void shouldRecordStreamEventsWithTimings() throws IOException {
+        // When
+        List<Interaction> interactions = ProviderTapeServer.read(tape);
+
+        // Then
+        assertThat(interactions).singleElement().satisfies(interaction -> {
+            assertThat(interaction.path()).isEqualTo("/v1/chat/completions");
+            assertThat(interaction.request()).hasSize(64).doesNotContain("bonjour");
+            assertThat(interaction.contentType()).startsWith("text/event-stream");
+            assertThat(interaction.chunks()).hasSize(7);
+            assertThat(interaction.chunks().getFirst().delayMs()).isGreaterThanOrEqualTo(190);
+            assertThat(interaction.chunks().get(2).delayMs()).isBetween(90L, 300L);
+            assertThat(interaction.chunks().getLast().data()).isEqualTo("data: [DONE]");
+        });
+    }
+
+    @Test
+    @DisplayName("Devrait rejouer le flux au rythme enregistré, ou accéléré")
+    void shouldReplayStream_AtRecordedOrAcceleratedSpeed() throws IOException {
+        // Given
+        long recorded = ProviderTapeServer.read(tape).getFirst().chunks().stream().mapToLong(Chunk::delayMs).sum();
+
+        // When
+        long start = System.nanoTime();
+        String atRecordedSpeed;
+        try (ProviderTapeServer replay = ProviderTapeServer.replay(tape, 1.0)) {
+            atRecordedSpeed = stream(replay, "bonjour");
+        }
+        long recordedSpeedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        start = System.nanoTime();
+        String accelerated;
+        try (ProviderTapeServer replay = ProviderTapeServer.replay(tape, 10.0)) {
+            accelerated = stream(replay, "bonjour");
+        }
+        long acceleratedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Then
+        assertThat(atRecordedSpeed).isEqualTo(accelerated).isEqualTo("un deux trois quatre cinq");
+        assertThat(recordedSpeedMs).isGreaterThanOrEqualTo(recorded * 9 / 10);
+        assertThat(acceleratedMs).isLessThan(recorded / 2);
+    }
+
+    @Test
+    @DisplayName("Devrait rejeter une requête modifiée par défaut")
+    void shouldRejectChangedRequest_ByDefault() throws IOException {
+        // Given
+        try (ProviderTapeServer replay = ProviderTapeServer.replay(tape, Double.POSITIVE_INFINITY)) {
+
+            // When & Then
+            assertThatThrownBy(() -> stream(replay, "une autre question"))
+                    .hasMessageContaining("501");
+        }
+    }
+
+    @Test
+    @DisplayName("Devrait servir une requête modifiée par le chemin sur demande, et rejeter un chemin non enregistré")
+    void shouldFallBackOnPath_WhenEnabled_AndRejectUnknownPath() throws IOException {
+        // Given
+        try (ProviderTapeServer replay = ProviderTapeServer.replay(tape, Double.POSITIVE_INFINITY).pathFallback()) {
+
+            // When & Then
+            assertThat(stream(replay, "une autre question")).isEqualTo("un deux trois quatre cinq");
+            assertThatThrownBy(() -> OpenAiChatModel.builder()
+                    .openAiApi(OpenAiApi.builder().baseUrl(replay.baseUrl())
+                            .completionsPath("/v2/chat/completions").apiKey("test").build())
+                    .retryTemplate(RetryTemplate.builder().maxAttempts(1).build())
+                    .build()
+                    .call(new Prompt("bonjour")))
+                    .hasMessageContaining("no recording");
+        }
+    }
+
+    private static String stream(ProviderTapeServer server, String query) {
+        OpenAiChatModel chatModel = OpenAiChatModel.builder()
+                .openAiApi(OpenAiApi.builder().baseUrl(server.baseUrl()).apiKey("test").build())
+                .defaultOptions(OpenAiChatOptions.builder().model("gpt-4.1").build())
+                .retryTemplate(RetryTemplate.builder().maxAttempts(1).build())
+                .build();
+        return chatModel.stream(new Prompt(query))
+                .map(ChatResponse::getResult)
+                .filter(generation -> generation != null && generation.getOutput().getText() != null)
+                .map(generation -> generation.getOutput().getText())
+                .collectList()
+                .block(Duration.ofSeconds(10))
+                .stream()
+                .collect(Collectors.joining());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.Test_AI_LLM.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Faux serveur de l'API batch OpenAI : reçoit le fichier JSONL, crée un lot unique
+ * et, une fois {@link #complete()} appelé, sert un fichier de résultats calculé
+ * à partir de la question de chaque ligne.
+ */
+public class StubBatchServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final List<JsonNode> inputLines = new CopyOnWriteArrayList<>();
+    private volatile Function<String, String> responder = query -> "{\"movies\":[]}";
+    private volatile String status = "in_progress";
+    private volatile boolean failCreation;
+
+    public StubBatchServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v1/files", this::files);
+        server.createContext("/v1/batches", this::batches);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Contenu renvoyé pour une question ; {@code null} produit une erreur HTTP 500 pour la ligne.
+     */
+    public StubBatchServer responder(Function<String, String> responder) {
+        this.responder = responder;
+        return this;
+    }
+
+    public StubBatchServer complete() {
+        this.status = "completed";
+        return this;
+    }
+
+    /**
+     * Fait échouer la création du lot (HTTP 500) après un dépôt de fichier réussi.
+     */
+    public StubBatchServer failCreation() {
+        this.failCreation = true;
+        return this;
+    }
+
+    public List<JsonNode> inputLines() {
+        return inputLines;
+    }
+
+    private void files(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if ("POST".equals(exchange.getRequestMethod())) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            // le corps multipart contient les lignes JSONL telles quelles
+            for (String line : body.split("\r?\n")) {
+                if (line.startsWith("{\"")) {
+                    inputLines.add(MAPPER.readTree(line));
+                }
+            }
+            send(exchange, 200, "{\"id\":\"file-in\",\"object\":\"file\",\"purpose\":\"batch\"}");
+        } else if (path.equals("/v1/files/file-out/content")) {
+            send(exchange, 200, output());
+        } else {
+            send(exchange, 404, "{\"error\":{\"message\":\"no such file\"}}");
+        }
+    }
+
+    private void batches(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        if (failCreation && "POST".equals(exchange.getRequestMethod())) {
+            send(exchange, 500, "{\"error\":{\"message\":\"stub failure\"}}");
+            return;
+        }
+        String outputFile = "completed".equals(status) ? "\"file-out\"" : "null";
+        send(exchange, 200, """
+                {"id":"batch-1","object":"batch","status":"%s","input_file_id":"file-in",
+                 "output_file_id":%s,"error_file_id":null,
+                 "request_counts":{"total":%d,"completed":0,"failed":0}}
+                """.formatted(status, outputFile, inputLines.size()));
+    }
+
+    private String output() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (JsonNode input : inputLines) {
+            String query = input.path("body").path("messages").path(1).path("content").asText();
+            String content = responder.apply(query);
+            String response = content != null
+                    ? "{\"status_code\":200,\"body\":" + StubOpenAiServer.chatCompletionJson(content).replace("\n", "") + "}"
+                    : "{\"status_code\":500,\"body\":{\"error\":{\"message\":\"stub failure\"}}}";
+            lines.add("{\"custom_id\":" + MAPPER.writeValueAsString(input.path("custom_id").asText())
+                    + ",\"response\":" + response + ",\"error\":null}");
+        }
+        return String.join("\n", lines) + "\n";
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
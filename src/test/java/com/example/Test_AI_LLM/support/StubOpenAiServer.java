@@ -0,0 +1,280 @@
+package com.example.Test_AI_LLM.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Faux fournisseur compatible OpenAI pour les tests : répond aux complétions de chat
+ * avec un texte fixe (ou choisi d'après la requête), une latence et un statut configurables,
+ * et garde les requêtes reçues. Les requêtes en streaming reçoivent un fragment SSE par mot,
+ * espacés de {@link #chunkDelay(Duration)} ; {@link #pauseAfter(int, Duration)} simule un flux
+ * qui reste ouvert sans rien émettre.
+ * <p>
+ * Pour les tests de charge : latence tirée d'une {@link LatencyDistribution}, débit de génération
+ * en tokens par seconde (un mot = un token), 429 et 5xx injectés au hasard, et génération d'images
+ * sur {@code /v1/images/generations}.
+ */
+public class StubOpenAiServer implements AutoCloseable {
+
+    private static final int[] SERVER_ERRORS = {500, 502, 503};
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger rateLimited = new AtomicInteger();
+    private final AtomicInteger serverErrors = new AtomicInteger();
+    private final AtomicInteger images = new AtomicInteger();
+    private volatile Random random = new Random();
+    private volatile UnaryOperator<String> content = request -> "ok";
+    private volatile int status = 200;
+    private volatile LatencyDistribution latency = LatencyDistribution.fixed(Duration.ZERO);
+    private volatile LatencyDistribution imageLatency = LatencyDistribution.fixed(Duration.ZERO);
+    private volatile double tokensPerSecond;
+    private volatile double rateLimitRatio;
+    private volatile double serverErrorRatio;
+    private volatile Duration chunkDelay = Duration.ZERO;
+    private volatile int pauseAfter = Integer.MAX_VALUE;
+    private volatile Duration pause = Duration.ZERO;
+
+    public StubOpenAiServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/v1/chat/completions", this::chatCompletion);
+        server.createContext("/v1/images/generations", this::imageGeneration);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public StubOpenAiServer content(String content) {
+        this.content = request -> content;
+        return this;
+    }
+
+    /**
+     * Réponse choisie d'après le corps de la requête (sorties structurées, plusieurs endpoints).
+     */
+    public StubOpenAiServer content(UnaryOperator<String> content) {
+        this.content = content;
+        return this;
+    }
+
+    /**
+     * Statut imposé à toutes les complétions ; 200 rend la main aux erreurs injectées.
+     */
+    public StubOpenAiServer status(int status) {
+        this.status = status;
+        return this;
+    }
+
+    public StubOpenAiServer latency(Duration latency) {
+        return latency(LatencyDistribution.fixed(latency));
+    }
+
+    /**
+     * Délai avant la réponse, ou avant le premier fragment d'un flux.
+     */
+    public StubOpenAiServer latency(LatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public StubOpenAiServer imageLatency(LatencyDistribution imageLatency) {
+        this.imageLatency = imageLatency;
+        return this;
+    }
+
+    public StubOpenAiServer chunkDelay(Duration chunkDelay) {
+        this.chunkDelay = chunkDelay;
+        return this;
+    }
+
+    /**
+     * Débit de génération : espace les fragments d'un flux et allonge les réponses complètes
+     * du temps de génération de leurs mots ; 0 pour s'en tenir à {@link #chunkDelay(Duration)}.
+     */
+    public StubOpenAiServer tokensPerSecond(double tokensPerSecond) {
+        this.tokensPerSecond = tokensPerSecond;
+        return this;
+    }
+
+    /**
+     * Part des complétions rejetées en 429 ({@code Retry-After: 1}) et en 500, 502 ou 503.
+     */
+    public StubOpenAiServer failures(double rateLimitRatio, double serverErrorRatio) {
+        this.rateLimitRatio = rateLimitRatio;
+        this.serverErrorRatio = serverErrorRatio;
+        return this;
+    }
+
+    /**
+     * Tirages reproductibles (latences et erreurs injectées).
+     */
+    public StubOpenAiServer seed(long seed) {
+        this.random = new Random(seed);
+        return this;
+    }
+
+    public StubOpenAiServer pauseAfter(int chunks, Duration pause) {
+        this.pauseAfter = chunks;
+        this.pause = pause;
+        return this;
+    }
+
+    public List<String> requests() {
+        return requests;
+    }
+
+    public int rateLimited() {
+        return rateLimited.get();
+    }
+
+    public int serverErrors() {
+        return serverErrors.get();
+    }
+
+    public static String chatCompletionJson(String content) {
+        return """
+                {"id":"chatcmpl-stub","object":"chat.completion","created":1,"model":"stub",
+                 "choices":[{"index":0,"message":{"role":"assistant","content":%s},"finish_reason":"stop"}],
+                 "usage":{"prompt_tokens":10,"completion_tokens":5,"total_tokens":15}}
+                """.formatted(quote(content));
+    }
+
+    private void chatCompletion(HttpExchange exchange) throws IOException {
+        String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        requests.add(request);
+        int status = draw();
+        sleep(latency.sample(random));
+        if (status != 200) {
+            fail(exchange, status);
+            return;
+        }
+        String text = content.apply(request);
+        if (request.contains("\"stream\":true")) {
+            stream(exchange, text);
+            return;
+        }
+        if (tokensPerSecond > 0) {
+            sleep(tokenDelay().multipliedBy(words(text).length));
+        }
+        respond(exchange, chatCompletionJson(text));
+    }
+
+    private void imageGeneration(HttpExchange exchange) throws IOException {
+        requests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        int status = draw();
+        sleep(imageLatency.sample(random));
+        if (status != 200) {
+            fail(exchange, status);
+            return;
+        }
+        respond(exchange, """
+                {"created":1,"data":[{"url":"https://stub.local/images/%d.png","revised_prompt":"stub"}]}"""
+                .formatted(images.incrementAndGet()));
+    }
+
+    // statut imposé, sinon erreur injectée selon les proportions de failures()
+    private int draw() {
+        if (status != 200) {
+            return status;
+        }
+        double draw = random.nextDouble();
+        if (draw < rateLimitRatio) {
+            rateLimited.incrementAndGet();
+            return 429;
+        }
+        if (draw < rateLimitRatio + serverErrorRatio) {
+            serverErrors.incrementAndGet();
+            return SERVER_ERRORS[random.nextInt(SERVER_ERRORS.length)];
+        }
+        return 200;
+    }
+
+    private void stream(HttpExchange exchange, String text) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        Duration delay = tokensPerSecond > 0 ? tokenDelay() : chunkDelay;
+        try (OutputStream out = exchange.getResponseBody()) {
+            String[] words = words(text);
+            for (int i = 0; i < words.length; i++) {
+                out.write(("data: " + chunkJson(words[i], null) + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                sleep(i + 1 == pauseAfter ? pause : delay);
+            }
+            out.write(("data: " + chunkJson("", "stop") + "\n\ndata: [DONE]\n\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void fail(HttpExchange exchange, int status) throws IOException {
+        if (status == 429) {
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            respond(exchange, status, """
+                    {"error":{"message":"stub failure","type":"requests","code":"rate_limit_exceeded"}}""");
+        } else {
+            respond(exchange, status, "{\"error\":{\"message\":\"stub failure\"}}");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        respond(exchange, 200, json);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Duration tokenDelay() {
+        return Duration.ofNanos((long) (1e9 / tokensPerSecond));
+    }
+
+    private static String[] words(String text) {
+        return text.split("(?<= )");
+    }
+
+    private static String chunkJson(String content, String finishReason) {
+        return """
+                {"id":"chatcmpl-stub","object":"chat.completion.chunk","created":1,"model":"stub",\
+                "choices":[{"index":0,"delta":{"content":%s},"finish_reason":%s}]}"""
+                .formatted(quote(content), finishReason != null ? quote(finishReason) : "null");
+    }
+
+    private static String quote(String text) {
+        return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        // interrompt aussi les flux encore en attente entre deux fragments
+        executor.shutdownNow();
+    }
+}